@@ -0,0 +1,58 @@
+package com.example.userlogin.benchmark;
+
+import com.example.userlogin.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil 基准：签发（登录）、jjwt 完整解析、快速通道校验（过滤器缓存未命中时）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    /**
+     * 与 application.properties 默认配置相同
+     */
+    static final String SECRET = "user-login-secret-key-min-256-bits-for-hs256-please-change-in-production-environment";
+    static final long EXPIRATION_MS = 604_800_000L;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, EXPIRATION_MS);
+        token = jwtUtil.generateToken(1_234_567_890L, "benchmark_user");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(1_234_567_890L, "benchmark_user");
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public Object verifyToken() {
+        return jwtUtil.verifyToken(token);
+    }
+}
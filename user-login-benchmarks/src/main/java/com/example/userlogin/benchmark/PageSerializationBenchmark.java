@@ -0,0 +1,69 @@
+package com.example.userlogin.benchmark;
+
+import com.example.userlogin.vo.UserVO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分页列表响应（GET /api/users 等返回的 Page&lt;UserVO&gt;）的 Jackson 序列化基准
+ *
+ * ObjectMapper 按 Spring Boot 默认方式构建（JavaTimeModule，日期输出为 ISO 字符串）。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageSerializationBenchmark {
+
+    /**
+     * 每页条数：默认页大小 10，以及较大的 100
+     */
+    @Param({"10", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Page<UserVO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<UserVO> users = new ArrayList<>(size);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < size; i++) {
+            users.add(new UserVO(1_234_567_890L + i, "benchmark_user_" + i, "benchmark_user_" + i + "@example.com",
+                    createdAt.plusMinutes(i), createdAt.plusDays(1).plusMinutes(i)));
+        }
+        page = new PageImpl<>(users, PageRequest.of(3, size, Sort.by(Sort.Direction.ASC, "id")), 100_000L);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.userlogin.benchmark;
+
+import com.example.userlogin.entity.UserDO;
+import com.example.userlogin.util.UserConverter;
+import com.example.userlogin.vo.UserVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserConverter.toVO 基准（按 id 查询、登录、更新的响应转换）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserConverterBenchmark {
+
+    private UserDO userDO;
+
+    @Setup
+    public void setUp() {
+        userDO = new UserDO();
+        userDO.setId(1_234_567_890L);
+        userDO.setUsername("benchmark_user");
+        userDO.setPassword("$2a$10$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ01");
+        userDO.setEmail("benchmark_user@example.com");
+        userDO.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        userDO.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 12, 0));
+    }
+
+    @Benchmark
+    public UserVO toVO() {
+        return UserConverter.toVO(userDO);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.userlogin.filter;
+
+import com.example.userlogin.util.JwtUtil;
+import com.example.userlogin.util.TokenRevocationList;
+import com.example.userlogin.util.VerifiedToken;
+import com.example.userlogin.util.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthFilter.doFilterInternal 基准（与过滤器同包，直接调用 protected 方法）
+ *
+ * 场景：
+ * - cached：携带有效 cookie，命中已校验 token 缓存（常态）
+ * - uncached：携带有效 cookie，关闭缓存，每次完整校验
+ * - anonymous：未携带 cookie，返回 401
+ * - public：公开路径，直接放行
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET = "user-login-secret-key-min-256-bits-for-hs256-please-change-in-production-environment";
+    private static final String COOKIE_NAME = "auth_token";
+
+    @Param({"cached", "uncached", "anonymous", "public"})
+    public String scenario;
+
+    private JwtAuthFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 604_800_000L);
+        VerifiedTokenCache tokenCache = new VerifiedTokenCache(!"uncached".equals(scenario), 10_000, 300_000L);
+        // 吊销列表中预置其他 token 和用户，查询走真实的探测路径
+        TokenRevocationList revocationList = new TokenRevocationList(604_800_000L, 60_000L, jwtUtil);
+        long expiresAt = System.currentTimeMillis() + 604_800_000L;
+        for (long i = 1; i <= 10_000; i++) {
+            revocationList.revoke(new VerifiedToken(i, expiresAt, i * 7919));
+            revocationList.revokeAll(i * 104_729);
+        }
+
+        filter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "tokenCache", tokenCache);
+        ReflectionTestUtils.setField(filter, "revocationList", revocationList);
+        ReflectionTestUtils.setField(filter, "cookieName", COOKIE_NAME);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        filter.registerMeters();
+
+        request = new MockHttpServletRequest("GET", "public".equals(scenario) ? "/api/login" : "/api/users/1");
+        if (!"anonymous".equals(scenario)) {
+            request.setCookies(new Cookie(COOKIE_NAME, jwtUtil.generateToken(1_234_567_890L, "benchmark_user")));
+        }
+        response = new DiscardingResponse();
+        chain = (req, res) -> blackhole.consume(req);
+    }
+
+    @Benchmark
+    public Object doFilterInternal() throws Exception {
+        filter.doFilterInternal(request, response, chain);
+        return request.getAttribute("userId");
+    }
+
+    /**
+     * 丢弃响应体，401 场景重复写入错误体时缓冲区不会增长
+     */
+    private static class DiscardingResponse extends MockHttpServletResponse {
+
+        private final PrintWriter writer = new PrintWriter(Writer.nullWriter());
+
+        @Override
+        public PrintWriter getWriter() {
+            return writer;
+        }
+    }
+}
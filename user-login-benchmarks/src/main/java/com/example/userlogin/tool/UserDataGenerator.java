@@ -0,0 +1,368 @@
+package com.example.userlogin.tool;
+
+import com.example.userlogin.util.SnowflakeIdGenerator;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 规模测试数据生成器：向 users 表写入 N 条用户名、邮箱唯一的模拟用户
+ *
+ * 每一行的内容只由种子和行号决定（与线程数、批大小无关），相同参数可以重复生成完全相同的数据：
+ * - 用户名：姓 + 名的组合按 Zipf 分布抽取（--skew，0 为均匀），少数常见名字占大多数，
+ *   搜索和前缀补全的选择度接近真实数据；末尾的数字由行号置换得到，保证唯一
+ * - 邮箱：用户名 + 按权重抽取的域名
+ * - 注册时间：在 [--start, --end) 内按 --time-distribution 分布，随行号单调递增；两端默认都是固定日期（UTC），
+ *   不取当前时间；主键按注册时间用 Snowflake 格式生成，默认节点 31（服务保留该节点号，线上实例不能配置），
+ *   与应用生成的主键同样按时间有序
+ * - 密码：所有用户共用一个预先计算的 BCrypt 哈希（--user-password），盐由种子决定，可以直接登录
+ *
+ * 行按号段分给 --threads 个线程，每个线程一个连接，流式生成并按 --batch-size 批量插入、提交，
+ * 不在内存中保存数据。MySQL 需要 rewriteBatchedStatements=true（URL 未指定时自动加上）。
+ *
+ * 用法（benchmarks.jar 已包含 MySQL 驱动）：
+ * java -cp target/benchmarks.jar com.example.userlogin.tool.UserDataGenerator \
+ *     --url=jdbc:mysql://localhost:3306/user_login_db --user=root --password=root --rows=10000000 --threads=4
+ */
+public class UserDataGenerator {
+
+    private static final String INSERT_SQL =
+            "insert into users (id, username, password, email, created_at, updated_at) values (?, ?, ?, ?, ?, ?)";
+
+    private static final String[] SURNAMES = {
+            "wang", "li", "zhang", "liu", "chen", "yang", "huang", "zhao", "wu", "zhou",
+            "xu", "sun", "ma", "zhu", "hu", "guo", "he", "lin", "gao", "luo",
+            "zheng", "liang", "xie", "song", "tang", "han", "feng", "deng", "cao", "peng",
+            "zeng", "xiao", "tian", "dong", "pan", "yuan", "cai", "jiang", "yu", "du",
+            "smith", "johnson", "brown", "miller", "davis", "garcia", "wilson", "taylor", "lee", "walker"
+    };
+    private static final String[] GIVEN_NAMES = {
+            "wei", "fang", "na", "min", "jing", "li", "qiang", "lei", "jun", "yang",
+            "yong", "yan", "jie", "tao", "ming", "chao", "xiu", "xia", "ping", "gang",
+            "hui", "hong", "bin", "peng", "hao", "yu", "xin", "lin", "rui", "kai",
+            "james", "mary", "john", "linda", "david", "emma", "michael", "olivia", "daniel", "sophia",
+            "alex", "chris", "sam", "max", "leo", "mia", "lucas", "ella", "ryan", "zoe"
+    };
+    private static final String[] DOMAINS = {
+            "gmail.com", "qq.com", "163.com", "outlook.com", "126.com", "hotmail.com", "yahoo.com", "example.com"
+    };
+    private static final double[] DOMAIN_WEIGHTS = {30, 25, 15, 10, 8, 6, 4, 2};
+    /**
+     * 用户名后缀置换的乘数，与 10 互素
+     */
+    private static final long NUMBER_MULTIPLIER = 7_368_787L;
+
+    private final Options options;
+    private final String passwordHash;
+    private final double[] nameCdf;
+    private final double[] domainCdf;
+    private final long startMillis;
+    private final long ticks;
+    private final long numberSpace;
+
+    public UserDataGenerator(Options options) {
+        this.options = options;
+        this.passwordHash = BCrypt.hashpw(options.userPassword,
+                BCrypt.gensalt(options.bcryptStrength, new SeededRandom(options.seed)));
+        this.nameCdf = zipfCdf(SURNAMES.length * GIVEN_NAMES.length, options.skew);
+        this.domainCdf = cdf(DOMAIN_WEIGHTS);
+        this.startMillis = options.start.toEpochMilli();
+        // 时间轴按 Snowflake 的序列号细分为 1/128 毫秒的刻度，每行占用一个刻度，主键不会重复
+        this.ticks = (options.end.toEpochMilli() - startMillis) << SnowflakeIdGenerator.SEQUENCE_BITS;
+        if (ticks < options.rows) {
+            throw new IllegalArgumentException("时间范围太短，无法容纳 " + options.rows + " 行");
+        }
+        // 用户名后缀：行号在 [0, 10^k) 上的置换，保证唯一且不随行号递增
+        long space = 10;
+        while (space < options.rows) {
+            space *= 10;
+        }
+        this.numberSpace = space;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        new UserDataGenerator(options).run();
+    }
+
+    /**
+     * 生成并写入全部数据
+     */
+    public void run() throws Exception {
+        try (Connection connection = connect()) {
+            if (options.truncate) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("truncate table users");
+                }
+                connection.commit();
+            }
+        }
+
+        long begin = System.nanoTime();
+        AtomicLong written = new AtomicLong();
+        long perThread = (options.rows + options.threads - 1) / options.threads;
+        try (ExecutorService executor = Executors.newFixedThreadPool(options.threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long from = 0; from < options.rows; from += perThread) {
+                long start = from;
+                long end = Math.min(options.rows, from + perThread);
+                futures.add(executor.submit(() -> {
+                    write(start, end, written, begin);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        System.out.printf("完成：%d 行，耗时 %.1f 秒，%.0f 行/秒%n", written.get(), seconds, written.get() / seconds);
+    }
+
+    /**
+     * 写入 [from, to) 号段的行，每 batchSize 行执行一次批量插入并提交
+     */
+    private void write(long from, long to, AtomicLong written, long begin) throws SQLException {
+        try (Connection connection = connect();
+             PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+            int pending = 0;
+            for (long row = from; row < to; row++) {
+                bind(ps, row);
+                ps.addBatch();
+                if (++pending == options.batchSize || row == to - 1) {
+                    ps.executeBatch();
+                    connection.commit();
+                    long total = written.addAndGet(pending);
+                    if (total / options.progressEvery != (total - pending) / options.progressEvery) {
+                        double seconds = (System.nanoTime() - begin) / 1e9;
+                        System.out.printf("已写入 %d / %d 行，%.0f 行/秒%n", total, options.rows, total / seconds);
+                    }
+                    pending = 0;
+                }
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, long row) throws SQLException {
+        long tick = tickOf(row);
+        long createdMillis = startMillis + (tick >>> SnowflakeIdGenerator.SEQUENCE_BITS);
+        long id = SnowflakeIdGenerator.compose(createdMillis, options.nodeId,
+                (int) (tick & SnowflakeIdGenerator.MAX_SEQUENCE));
+        String username = usernameOf(row);
+        long updatedMillis = createdMillis;
+        // 约三成用户注册后修改过资料
+        if (uniform(row, 5) < 0.3) {
+            updatedMillis += (long) (uniform(row, 6) * (options.end.toEpochMilli() - createdMillis));
+        }
+
+        ps.setLong(1, id);
+        ps.setString(2, username);
+        ps.setString(3, passwordHash);
+        ps.setString(4, username + "@" + DOMAINS[sample(domainCdf, uniform(row, 4))]);
+        ps.setTimestamp(5, new Timestamp(createdMillis));
+        ps.setTimestamp(6, new Timestamp(updatedMillis));
+    }
+
+    /**
+     * 第 row 行的时间刻度：按分布的逆函数取分位点，再加上行号保证严格递增
+     */
+    long tickOf(long row) {
+        double q = (row + uniform(row, 0)) / options.rows;
+        double x = switch (options.timeDistribution) {
+            case "growth" -> Math.log1p(q * Math.expm1(options.growthRate)) / options.growthRate;
+            default -> q;
+        };
+        return (long) (x * (ticks - options.rows)) + row;
+    }
+
+    String usernameOf(long row) {
+        int name = sample(nameCdf, uniform(row, 1));
+        String surname = SURNAMES[name % SURNAMES.length];
+        String given = GIVEN_NAMES[name / SURNAMES.length];
+        long number = Math.floorMod(row * NUMBER_MULTIPLIER + options.seed, numberSpace);
+        return switch ((int) (uniform(row, 2) * 4)) {
+            case 0 -> given + surname + number;
+            case 1 -> surname + "_" + given + number;
+            case 2 -> surname + "." + given + number;
+            default -> given + "_" + number;
+        };
+    }
+
+    /**
+     * 由种子、行号和用途确定的 [0, 1) 均匀随机数（SplitMix64），与生成顺序无关
+     */
+    private double uniform(long row, int stream) {
+        long z = options.seed + row * 0x9E3779B97F4A7C15L + stream * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    private static int sample(double[] cdf, double u) {
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] <= u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Zipf 分布的累积分布：第 k 个名字的权重为 1 / k^skew
+     */
+    private static double[] zipfCdf(int n, double skew) {
+        double[] weights = new double[n];
+        for (int k = 0; k < n; k++) {
+            weights[k] = 1.0 / Math.pow(k + 1, skew);
+        }
+        return cdf(weights);
+    }
+
+    private static double[] cdf(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum / total;
+        }
+        cdf[weights.length - 1] = 1.0;
+        return cdf;
+    }
+
+    /**
+     * 由种子决定的随机字节（SplitMix64），只用于生成固定的 BCrypt 盐
+     */
+    private static final class SeededRandom extends SecureRandom {
+
+        private long state;
+
+        SeededRandom(long seed) {
+            this.state = seed;
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            for (int i = 0; i < bytes.length; i++) {
+                long z = state += 0x9E3779B97F4A7C15L;
+                z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+                z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+                bytes[i] = (byte) (z ^ (z >>> 31));
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        String url = options.url;
+        if (url.startsWith("jdbc:mysql:") && !url.contains("rewriteBatchedStatements")) {
+            url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        }
+        Connection connection = DriverManager.getConnection(url, options.user, options.password);
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    /**
+     * 命令行参数，格式 --name=value
+     */
+    public static class Options {
+        String url = "jdbc:mysql://localhost:3306/user_login_db?useSSL=false&serverTimezone=Asia/Shanghai";
+        String user = "root";
+        String password = "root";
+        long rows = 1_000_000;
+        long seed = 42;
+        int threads = 4;
+        int batchSize = 5_000;
+        long progressEvery = 500_000;
+        double skew = 1.0;
+        String timeDistribution = "growth";
+        double growthRate = 3.0;
+        Instant start = Instant.ofEpochMilli(SnowflakeIdGenerator.EPOCH_MILLIS);
+        Instant end = Instant.parse("2026-01-01T00:00:00Z");
+        int nodeId = SnowflakeIdGenerator.RESERVED_NODE_ID;
+        String userPassword = "password123";
+        int bcryptStrength = 10;
+        boolean truncate;
+
+        public static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("参数格式应为 --name=value: " + arg);
+                }
+                int eq = arg.indexOf('=');
+                values.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+            }
+            Options options = new Options();
+            options.url = values.getOrDefault("url", options.url);
+            options.user = values.getOrDefault("user", options.user);
+            options.password = values.getOrDefault("password", options.password);
+            options.rows = Long.parseLong(values.getOrDefault("rows", String.valueOf(options.rows)));
+            options.seed = Long.parseLong(values.getOrDefault("seed", String.valueOf(options.seed)));
+            options.threads = Integer.parseInt(values.getOrDefault("threads", String.valueOf(options.threads)));
+            options.batchSize = Integer.parseInt(values.getOrDefault("batch-size", String.valueOf(options.batchSize)));
+            options.progressEvery = Long.parseLong(values.getOrDefault("progress-every",
+                    String.valueOf(options.progressEvery)));
+            options.skew = Double.parseDouble(values.getOrDefault("skew", String.valueOf(options.skew)));
+            options.timeDistribution = values.getOrDefault("time-distribution", options.timeDistribution);
+            options.growthRate = Double.parseDouble(values.getOrDefault("growth-rate",
+                    String.valueOf(options.growthRate)));
+            if (values.containsKey("start")) {
+                options.start = parseDate(values.get("start"));
+            }
+            if (values.containsKey("end")) {
+                options.end = parseDate(values.get("end"));
+            }
+            options.nodeId = Integer.parseInt(values.getOrDefault("node-id", String.valueOf(options.nodeId)));
+            options.userPassword = values.getOrDefault("user-password", options.userPassword);
+            options.bcryptStrength = Integer.parseInt(values.getOrDefault("bcrypt-strength",
+                    String.valueOf(options.bcryptStrength)));
+            options.truncate = Boolean.parseBoolean(values.getOrDefault("truncate", "false"));
+
+            if (options.rows <= 0 || options.threads <= 0 || options.batchSize <= 0 || options.progressEvery <= 0) {
+                throw new IllegalArgumentException("rows、threads、batch-size、progress-every 必须大于 0");
+            }
+            if (!options.timeDistribution.equals("uniform") && !options.timeDistribution.equals("growth")) {
+                throw new IllegalArgumentException("time-distribution 只支持 uniform 或 growth");
+            }
+            if (options.timeDistribution.equals("growth") && options.growthRate <= 0) {
+                throw new IllegalArgumentException("growth-rate 必须大于 0");
+            }
+            if (options.start.toEpochMilli() < SnowflakeIdGenerator.EPOCH_MILLIS || !options.start.isBefore(options.end)) {
+                throw new IllegalArgumentException("start 不能早于 Snowflake 纪元 2024-01-01，且必须早于 end");
+            }
+            return options;
+        }
+
+        private static Instant parseDate(String value) {
+            return value.contains("T") ? Instant.parse(value)
+                    : LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+    }
+}
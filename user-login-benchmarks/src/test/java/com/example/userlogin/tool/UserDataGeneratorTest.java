@@ -0,0 +1,119 @@
+package com.example.userlogin.tool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 规模测试数据生成器测试（H2 内存库）
+ *
+ * 1. 相同种子生成逐字节相同的行，与线程数、批大小无关；不同种子生成不同的数据
+ * 2. 用户名、邮箱唯一
+ * 3. 主键随行号严格递增，且按主键排序时注册时间不减
+ */
+public class UserDataGeneratorTest {
+
+    private static final String URL = "jdbc:h2:mem:generator;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final int ROWS = 2000;
+
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table users (id bigint primary key, username varchar(50) not null unique, "
+                    + "password varchar(255) not null, email varchar(100) unique, "
+                    + "created_at timestamp, updated_at timestamp, last_login_at timestamp)");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testSameSeedSameRows() throws Exception {
+        generate(42, "--threads=1", "--batch-size=500");
+        List<String> first = dump();
+        generate(42, "--threads=3", "--batch-size=77", "--truncate");
+        List<String> second = dump();
+        assertEquals(ROWS, first.size());
+        assertEquals(first, second);
+
+        generate(43, "--threads=3", "--truncate");
+        assertNotEquals(first, dump());
+    }
+
+    @Test
+    public void testUniqueAndOrdered() throws Exception {
+        generate(7, "--threads=4", "--batch-size=100");
+        assertEquals(ROWS, count("select count(distinct username) from users"));
+        assertEquals(ROWS, count("select count(distinct email) from users"));
+
+        Timestamp previous = null;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select created_at from users order by id")) {
+            while (rs.next()) {
+                Timestamp createdAt = rs.getTimestamp(1);
+                assertTrue(previous == null || !createdAt.before(previous));
+                previous = createdAt;
+            }
+        }
+
+        UserDataGenerator generator = new UserDataGenerator(options(7));
+        long previousTick = -1;
+        for (long row = 0; row < ROWS; row++) {
+            long tick = generator.tickOf(row);
+            assertTrue(tick > previousTick, "行 " + row + " 的主键刻度没有递增");
+            previousTick = tick;
+        }
+    }
+
+    private static UserDataGenerator.Options options(long seed, String... extra) {
+        List<String> args = new ArrayList<>(List.of("--url=" + URL, "--user=sa", "--password=",
+                "--rows=" + ROWS, "--seed=" + seed, "--bcrypt-strength=4"));
+        args.addAll(List.of(extra));
+        return UserDataGenerator.Options.parse(args.toArray(String[]::new));
+    }
+
+    private static void generate(long seed, String... extra) throws Exception {
+        new UserDataGenerator(options(seed, extra)).run();
+    }
+
+    private List<String> dump() throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "select id, username, password, email, created_at, updated_at from users order by id")) {
+            while (rs.next()) {
+                rows.add(rs.getLong(1) + "|" + rs.getString(2) + "|" + rs.getString(3) + "|" + rs.getString(4)
+                        + "|" + rs.getTimestamp(5) + "|" + rs.getTimestamp(6));
+            }
+        }
+        return rows;
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.userlogin.audit;
+
+/**
+ * 审计事件类型，code 写入审计记录，已有取值不能修改
+ */
+public enum AuditEventType {
+
+    LOGIN_SUCCESS(1),
+    LOGIN_FAILURE(2),
+    REGISTER(3),
+    UPDATE(4),
+    DELETE(5),
+    LOGOUT(6),
+    LOGOUT_ALL(7);
+
+    private static final AuditEventType[] BY_CODE = new AuditEventType[8];
+
+    static {
+        for (AuditEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+
+    AuditEventType(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    /**
+     * 按 code 查找，未知取值返回 null
+     */
+    public static AuditEventType ofCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.userlogin.audit;
+
+import com.example.userlogin.event.UserChangedEvent;
+import com.example.userlogin.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * 认证审计日志
+ *
+ * 登录成功/失败、注册、更新、删除和登出写入内存映射的定长二进制分段文件（格式见 {@link AuditRecord}、{@link AuditSegment}），
+ * 只追加、不修改。请求线程只把记录放入无锁环形队列，由唯一的写入线程编码到映射内存，
+ * 分段写满后切换到下一个文件；每 forceIntervalMs 及切换、停止时把映射内存刷到磁盘。
+ * 注册、更新、删除来自事务提交后的 {@link UserChangedEvent}，回滚的变更不记录。
+ * 队列满时丢弃并计数（user.audit.dropped），应按峰值事件数设置 buffer-capacity。
+ * 目录不可写或写入出错时不影响服务启动和请求：进入失败状态（user.audit.failed 为 1），期间的记录丢弃并计数，
+ * 写入线程按退避间隔（{@link #RETRY_MIN_MILLIS} 起，最长 {@link #RETRY_MAX_MILLIS}）尝试切换到新分段，
+ * 恢复后记录一条日志说明丢弃的时间段和条数。
+ * 解码和跟踪读取见 {@link AuditLogReader}。
+ */
+@Component
+public class AuditLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    /**
+     * 队列为空时写入线程的等待间隔
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final int DRAIN_LIMIT = 1024;
+    static final long RETRY_MIN_MILLIS = 1000;
+    static final long RETRY_MAX_MILLIS = 60_000;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentSize;
+    private final long forceIntervalMs;
+    private final MpscRingBuffer<AuditRecord> buffer;
+    private final Counter written;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    // 以下字段只由写入线程访问（start 中初始化后交给写入线程）
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long segmentIndex;
+    private int position;
+    private long sequence;
+    private long lastForceMillis;
+    private boolean sequenceLoaded;
+    private boolean dirty;
+    // 失败状态：写入线程修改，指标读取
+    private volatile boolean failed;
+    private long failedSinceMillis;
+    private long droppedWhileFailed;
+    private long retryDelayMillis;
+    private long nextRetryMillis;
+    private final byte[] scratch = new byte[AuditRecord.SIZE];
+    private final CRC32 crc = new CRC32();
+
+    public AuditLog(
+            @Value("${user.audit.enabled:true}") boolean enabled,
+            @Value("${user.audit.dir:audit}") String dir,
+            @Value("${user.audit.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${user.audit.buffer-capacity:65536}") int bufferCapacity,
+            @Value("${user.audit.force-interval-ms:1000}") long forceIntervalMs,
+            MeterRegistry meterRegistry) {
+        if (segmentSizeMb <= 0 || segmentSizeMb > 1024) {
+            throw new IllegalArgumentException("user.audit.segment-size-mb 必须在 1 到 1024 之间");
+        }
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.segmentSize = segmentSizeMb << 20;
+        this.forceIntervalMs = forceIntervalMs;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.written = Counter.builder("user.audit.written")
+                .description("已写入的审计记录数")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("user.audit.dropped")
+                .description("队列已满或写入失败被丢弃的审计记录数")
+                .register(meterRegistry);
+        Gauge.builder("user.audit.pending", buffer, MpscRingBuffer::size)
+                .description("等待写入的审计记录数")
+                .register(meterRegistry);
+        Gauge.builder("user.audit.failed", this, a -> a.failed ? 1 : 0)
+                .description("审计日志是否处于写入失败状态（1 为失败，记录被丢弃）")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录一个审计事件，客户端地址取自当前请求（没有请求上下文时为空）
+     */
+    public void record(AuditEventType type, long userId, String username) {
+        if (!enabled || !running) {
+            return;
+        }
+        AuditRecord record = new AuditRecord(0, System.currentTimeMillis(), type, userId,
+                currentClientAddress(), username);
+        if (!buffer.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        AuditEventType type = switch (event.type()) {
+            case CREATED -> AuditEventType.REGISTER;
+            case UPDATED -> AuditEventType.UPDATE;
+            case DELETED -> AuditEventType.DELETE;
+        };
+        record(type, event.id(), event.username());
+    }
+
+    /**
+     * 打开新分段并启动写入线程；审计目录不可写时以失败状态启动，由写入线程重试
+     */
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        try {
+            openNextSegment();
+            log.info("审计日志目录: {}", dir.toAbsolutePath());
+        } catch (IOException | RuntimeException e) {
+            fail(e, "无法打开审计日志目录 " + dir.toAbsolutePath());
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 在 Web 服务（DEFAULT_PHASE - 2048）之后停止，停止前不再有新的请求
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    /**
+     * 是否处于写入失败状态
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    private void runWriter() {
+        try {
+            while (running) {
+                if (failed) {
+                    retry();
+                }
+                if (buffer.drain(this::append, DRAIN_LIMIT) == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastForceMillis >= forceIntervalMs) {
+                    force();
+                    lastForceMillis = now;
+                }
+            }
+            // 写完停止前已入队的记录
+            int drained;
+            do {
+                drained = buffer.drain(this::append, DRAIN_LIMIT);
+            } while (drained > 0);
+        } finally {
+            force();
+            closeSegment();
+            if (failed) {
+                log.warn("审计日志停止时仍处于失败状态，自 {} 起丢弃 {} 条记录",
+                        Instant.ofEpochMilli(failedSinceMillis), droppedWhileFailed);
+            }
+        }
+    }
+
+    private void append(AuditRecord record) {
+        if (!failed && position + AuditRecord.SIZE > segmentSize) {
+            force();
+            if (!failed) {
+                closeSegment();
+                try {
+                    openNextSegment();
+                } catch (IOException | RuntimeException e) {
+                    fail(e, "切换审计日志分段失败");
+                }
+            }
+        }
+        if (failed) {
+            dropped.increment();
+            droppedWhileFailed++;
+            return;
+        }
+        try {
+            record.encode(mapped, position, sequence + 1, scratch, crc);
+            sequence++;
+            position += AuditRecord.SIZE;
+            dirty = true;
+            written.increment();
+        } catch (RuntimeException e) {
+            fail(e, "审计日志写入失败");
+            dropped.increment();
+            droppedWhileFailed++;
+        }
+    }
+
+    /**
+     * 进入失败状态：关闭当前分段，之后的记录丢弃，直到 {@link #retry()} 成功打开新分段
+     */
+    private void fail(Exception e, String message) {
+        long now = System.currentTimeMillis();
+        failed = true;
+        failedSinceMillis = now;
+        droppedWhileFailed = 0;
+        retryDelayMillis = RETRY_MIN_MILLIS;
+        nextRetryMillis = now + retryDelayMillis;
+        closeSegment();
+        log.error("{}，{} ms 后切换到新分段重试，期间的审计记录将被丢弃: {}", message, retryDelayMillis, e.getMessage(), e);
+    }
+
+    private void retry() {
+        long now = System.currentTimeMillis();
+        if (now < nextRetryMillis) {
+            return;
+        }
+        try {
+            openNextSegment();
+        } catch (IOException | RuntimeException e) {
+            retryDelayMillis = Math.min(retryDelayMillis * 2, RETRY_MAX_MILLIS);
+            nextRetryMillis = now + retryDelayMillis;
+            log.warn("审计日志仍无法写入（自 {} 起已丢弃 {} 条），{} ms 后重试: {}",
+                    Instant.ofEpochMilli(failedSinceMillis), droppedWhileFailed, retryDelayMillis, e.getMessage());
+            return;
+        }
+        failed = false;
+        log.warn("审计日志已恢复，写入分段 {}；{} 至 {} 期间丢弃 {} 条记录", segmentIndex,
+                Instant.ofEpochMilli(failedSinceMillis), Instant.ofEpochMilli(now), droppedWhileFailed);
+    }
+
+    /**
+     * 在目录中已有分段之后打开新分段；首次打开时从已有分段中读取最后的序号，新分段的序号接着编
+     */
+    private void openNextSegment() throws IOException {
+        Files.createDirectories(dir);
+        List<Path> segments = AuditSegment.list(dir);
+        if (!sequenceLoaded) {
+            // 最后几个分段可能没有记录（启动后未写入或写入失败），向前找到最后一条记录
+            for (int i = segments.size() - 1; i >= 0 && sequence == 0; i--) {
+                sequence = AuditLogReader.lastSequence(segments.get(i));
+            }
+            sequenceLoaded = true;
+        }
+        long lastIndex = segments.isEmpty() ? 0 : AuditSegment.indexOf(segments.get(segments.size() - 1));
+        openSegment(Math.max(lastIndex, segmentIndex) + 1);
+    }
+
+    private void openSegment(long index) throws IOException {
+        Path path = AuditSegment.path(dir, index);
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            mapped = opened.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            AuditSegment.writeHeader(mapped, index, System.currentTimeMillis());
+        } catch (IOException | RuntimeException e) {
+            mapped = null;
+            opened.close();
+            // 没有文件头的分段会让读取方停在这里，删除后下次重试重新使用该分段号
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // 下次重试时跳过该分段号
+            }
+            throw e;
+        }
+        channel = opened;
+        segmentIndex = index;
+        position = AuditSegment.HEADER_SIZE;
+    }
+
+    private void force() {
+        if (mapped != null && dirty) {
+            try {
+                mapped.force();
+                dirty = false;
+            } catch (RuntimeException e) {
+                fail(e, "审计日志刷盘失败");
+            }
+        }
+    }
+
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("关闭审计日志分段失败: {}", e.getMessage());
+        }
+        channel = null;
+        // 映射在缓冲区被回收时解除
+        mapped = null;
+    }
+
+    private static String currentClientAddress() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.userlogin.audit;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 审计日志读取与跟踪
+ *
+ * 按分段顺序映射文件并逐条解码，遇到未写入或不完整的记录即认为该分段到达末尾。
+ * 只依赖 JDK，可直接用服务的普通 jar 运行：
+ * <pre>
+ * java -cp user-login-service-1.0.0.jar com.example.userlogin.audit.AuditLogReader audit [--from 序号] [--follow]
+ * </pre>
+ * --follow 读完后持续等待新记录（包括写入方切换到的新分段），类似 tail -f。
+ */
+public final class AuditLogReader {
+
+    private final Path dir;
+    private final byte[] scratch = new byte[AuditRecord.SIZE];
+    private final CRC32 crc = new CRC32();
+
+    private long segmentIndex = -1;
+    private MappedByteBuffer segment;
+    private int position;
+
+    public AuditLogReader(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * 读取当前已写入的、序号不小于 fromSequence 的记录，返回读取条数
+     */
+    public long read(long fromSequence, Consumer<AuditRecord> consumer) throws IOException {
+        long count = 0;
+        while (true) {
+            AuditRecord record = next();
+            if (record == null) {
+                return count;
+            }
+            if (record.sequence() >= fromSequence) {
+                consumer.accept(record);
+                count++;
+            }
+        }
+    }
+
+    /**
+     * 持续读取新记录，直到线程被中断
+     */
+    public void follow(long fromSequence, Consumer<AuditRecord> consumer, long pollMillis)
+            throws IOException, InterruptedException {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (read(fromSequence, consumer) == 0) {
+                Thread.sleep(pollMillis);
+            }
+        }
+        throw new InterruptedException();
+    }
+
+    /**
+     * 下一条记录；当前分段读完且已有更新的分段时切换过去，没有新记录返回 null
+     */
+    private AuditRecord next() throws IOException {
+        while (true) {
+            if (segment == null && !openNextSegment()) {
+                return null;
+            }
+            if (position + AuditRecord.SIZE <= segment.capacity()) {
+                AuditRecord record = AuditRecord.decode(segment, position, scratch, crc);
+                if (record != null) {
+                    position += AuditRecord.SIZE;
+                    return record;
+                }
+            }
+            // 当前分段没有新记录：写入方已切换到新分段时当前分段不会再写入
+            if (!openNextSegment()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 打开序号大于当前分段的第一个有效分段，没有返回 false
+     */
+    private boolean openNextSegment() throws IOException {
+        for (Path path : AuditSegment.list(dir)) {
+            long index = AuditSegment.indexOf(path);
+            if (index <= segmentIndex) {
+                continue;
+            }
+            MappedByteBuffer mapped = map(path);
+            if (!AuditSegment.hasValidHeader(mapped)) {
+                // 文件头尚未写入（刚创建）或不是审计分段，稍后重试
+                return false;
+            }
+            segmentIndex = index;
+            segment = mapped;
+            position = AuditSegment.HEADER_SIZE;
+            return true;
+        }
+        return false;
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // 映射在通道关闭后仍然有效
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * 分段中最后一条有效记录的序号，没有记录返回 0
+     */
+    static long lastSequence(Path segmentPath) throws IOException {
+        MappedByteBuffer mapped = map(segmentPath);
+        if (!AuditSegment.hasValidHeader(mapped)) {
+            return 0;
+        }
+        byte[] scratch = new byte[AuditRecord.SIZE];
+        CRC32 crc = new CRC32();
+        long last = 0;
+        for (int pos = AuditSegment.HEADER_SIZE; pos + AuditRecord.SIZE <= mapped.capacity(); pos += AuditRecord.SIZE) {
+            AuditRecord record = AuditRecord.decode(mapped, pos, scratch, crc);
+            if (record == null) {
+                break;
+            }
+            last = record.sequence();
+        }
+        return last;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("用法: AuditLogReader <审计目录> [--from 序号] [--follow]");
+            System.exit(2);
+        }
+        Path dir = Path.of(args[0]);
+        long from = 0;
+        boolean follow = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--from" -> from = Long.parseLong(args[++i]);
+                case "--follow" -> follow = true;
+                default -> {
+                    System.err.println("未知参数: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        PrintStream out = System.out;
+        Consumer<AuditRecord> printer = record -> out.println(format(record));
+        AuditLogReader reader = new AuditLogReader(dir);
+        if (follow) {
+            reader.follow(from, printer, 200);
+        } else {
+            reader.read(from, printer);
+        }
+    }
+
+    /**
+     * 一行文本：序号、时间、类型、userId、客户端地址、用户名，以制表符分隔
+     */
+    public static String format(AuditRecord record) {
+        return String.join("\t", List.of(
+                Long.toString(record.sequence()),
+                Instant.ofEpochMilli(record.timestampMillis()).toString(),
+                String.valueOf(record.type()),
+                Long.toString(record.userId()),
+                record.clientAddress() != null ? record.clientAddress() : "-",
+                record.username() != null ? record.username() : "-"));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.userlogin.audit;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * 一条审计记录及其定长二进制格式
+ *
+ * 每条记录 128 字节，字段为大端序：
+ * <pre>
+ *  0  long    时间戳（毫秒）
+ *  8  long    序号（单调递增，写入时分配）
+ * 16  long    userId（未知为 0）
+ * 24  byte    事件类型（{@link AuditEventType#code()}）
+ * 25  byte    客户端地址字节数（0 / 4 / 16）
+ * 26  byte    用户名字节数
+ * 27  byte    保留
+ * 28  int     CRC32（覆盖除本字段外的全部 128 字节）
+ * 32  16 字节 客户端地址
+ * 48  80 字节 用户名（UTF-8，超长按字符截断）
+ * </pre>
+ * 映射文件未写入的部分全为 0，时间戳为 0 或校验和不符的位置即为写入末尾。
+ *
+ * @param sequence        序号，写入前为 0
+ * @param timestampMillis 事件时间
+ * @param type            事件类型
+ * @param userId          用户 ID，未知为 0
+ * @param clientAddress   客户端 IP，未知为 null
+ * @param username        用户名，可能为 null
+ */
+public record AuditRecord(long sequence, long timestampMillis, AuditEventType type, long userId,
+                          String clientAddress, String username) {
+
+    public static final int SIZE = 128;
+
+    private static final int OFF_SEQUENCE = 8;
+    private static final int OFF_USER_ID = 16;
+    private static final int OFF_TYPE = 24;
+    private static final int OFF_ADDRESS_LEN = 25;
+    private static final int OFF_USERNAME_LEN = 26;
+    private static final int OFF_CRC = 28;
+    private static final int OFF_ADDRESS = 32;
+    private static final int OFF_USERNAME = 48;
+    private static final int MAX_USERNAME_BYTES = SIZE - OFF_USERNAME;
+
+    /**
+     * 以指定序号编码到 buffer 的 offset 处；scratch 为调用方复用的 SIZE 字节缓冲区
+     */
+    void encode(ByteBuffer buffer, int offset, long sequence, byte[] scratch, CRC32 crc) {
+        Arrays.fill(scratch, (byte) 0);
+        ByteBuffer record = ByteBuffer.wrap(scratch);
+        record.putLong(0, timestampMillis);
+        record.putLong(OFF_SEQUENCE, sequence);
+        record.putLong(OFF_USER_ID, userId);
+        record.put(OFF_TYPE, (byte) type.code());
+
+        byte[] address = addressBytes(clientAddress);
+        record.put(OFF_ADDRESS_LEN, (byte) address.length);
+        System.arraycopy(address, 0, scratch, OFF_ADDRESS, address.length);
+
+        byte[] name = username != null ? username.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int nameLen = Math.min(name.length, MAX_USERNAME_BYTES);
+        // 不在多字节字符中间截断
+        while (nameLen < name.length && nameLen > 0 && (name[nameLen] & 0xC0) == 0x80) {
+            nameLen--;
+        }
+        record.put(OFF_USERNAME_LEN, (byte) nameLen);
+        System.arraycopy(name, 0, scratch, OFF_USERNAME, nameLen);
+
+        record.putInt(OFF_CRC, checksum(scratch, crc));
+        buffer.put(offset, scratch, 0, SIZE);
+    }
+
+    /**
+     * 从 buffer 的 offset 处解码，该位置尚未写入或记录不完整时返回 null
+     */
+    static AuditRecord decode(ByteBuffer buffer, int offset, byte[] scratch, CRC32 crc) {
+        buffer.get(offset, scratch, 0, SIZE);
+        ByteBuffer record = ByteBuffer.wrap(scratch);
+        long timestamp = record.getLong(0);
+        if (timestamp == 0 || record.getInt(OFF_CRC) != checksum(scratch, crc)) {
+            return null;
+        }
+        int addressLen = record.get(OFF_ADDRESS_LEN);
+        int nameLen = record.get(OFF_USERNAME_LEN) & 0xFF;
+        String address = null;
+        if (addressLen == 4 || addressLen == 16) {
+            try {
+                address = InetAddress.getByAddress(Arrays.copyOfRange(scratch, OFF_ADDRESS, OFF_ADDRESS + addressLen))
+                        .getHostAddress();
+            } catch (UnknownHostException e) {
+                // 长度已校验，不会发生
+            }
+        }
+        return new AuditRecord(record.getLong(OFF_SEQUENCE), timestamp,
+                AuditEventType.ofCode(record.get(OFF_TYPE)), record.getLong(OFF_USER_ID), address,
+                nameLen > 0 ? new String(scratch, OFF_USERNAME, Math.min(nameLen, MAX_USERNAME_BYTES),
+                        StandardCharsets.UTF_8) : null);
+    }
+
+    private static int checksum(byte[] scratch, CRC32 crc) {
+        crc.reset();
+        crc.update(scratch, 0, OFF_CRC);
+        crc.update(scratch, OFF_CRC + 4, SIZE - OFF_CRC - 4);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * IP 字面量转字节，只接受 IP 字面量，不做 DNS 解析
+     */
+    private static byte[] addressBytes(String address) {
+        if (address == null || address.isEmpty()) {
+            return new byte[0];
+        }
+        int zone = address.indexOf('%');
+        String literal = zone >= 0 ? address.substring(0, zone) : address;
+        boolean ipv6 = literal.indexOf(':') >= 0;
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            boolean allowed = (c >= '0' && c <= '9') || c == '.'
+                    || (ipv6 && ((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == ':' || c == '[' || c == ']'));
+            if (!allowed) {
+                return new byte[0];
+            }
+        }
+        try {
+            return InetAddress.getByName(literal).getAddress();
+        } catch (UnknownHostException e) {
+            return new byte[0];
+        }
+    }
+}
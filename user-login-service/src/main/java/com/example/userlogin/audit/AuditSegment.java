@@ -0,0 +1,78 @@
+package com.example.userlogin.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 审计日志分段文件的命名与文件头
+ *
+ * 文件名 audit-{20 位分段序号}.seg，按文件名排序即按写入顺序。文件头 64 字节：
+ * 魔数 "ULAUDIT1"（8）、格式版本（int）、记录长度（int）、分段序号（long）、创建时间（long），其余为 0；
+ * 文件头之后是连续的 {@link AuditRecord#SIZE} 字节记录。
+ */
+final class AuditSegment {
+
+    static final int HEADER_SIZE = 64;
+    static final long MAGIC = 0x554C415544495431L; // "ULAUDIT1"
+    static final int VERSION = 1;
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".seg";
+
+    private AuditSegment() {
+    }
+
+    static Path path(Path dir, long index) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, index, SUFFIX));
+    }
+
+    /**
+     * 从文件名解析分段序号，不是分段文件返回 -1
+     */
+    static long indexOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 目录下的全部分段，按序号升序
+     */
+    static List<Path> list(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> indexOf(file) >= 0).forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(indexOf(a), indexOf(b)));
+        return segments;
+    }
+
+    static void writeHeader(ByteBuffer buffer, long index, long createdMillis) {
+        buffer.putLong(0, MAGIC);
+        buffer.putInt(8, VERSION);
+        buffer.putInt(12, AuditRecord.SIZE);
+        buffer.putLong(16, index);
+        buffer.putLong(24, createdMillis);
+    }
+
+    static boolean hasValidHeader(ByteBuffer buffer) {
+        return buffer.capacity() >= HEADER_SIZE
+                && buffer.getLong(0) == MAGIC
+                && buffer.getInt(8) == VERSION
+                && buffer.getInt(12) == AuditRecord.SIZE;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.userlogin.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置
+ *
+ * 配置了 user.datasource.replica-urls 时生效：主库沿用 spring.datasource.*，
+ * 从库共用主库的驱动和连接池参数（spring.datasource.hikari.*），
+ * 只读事务（@Transactional(readOnly = true)）路由到从库。
+ * 要求 spring.jpa.open-in-view=false：open-in-view 让整个请求共用一个 EntityManager，
+ * 它持有请求内第一次取得的连接，只读查询之后的写事务会落到从库连接上，因此开启时拒绝启动。
+ * 各连接池自行注册 hikaricp.connections.* 指标（pool 标签为 primary、replica-N）。
+ */
+@Configuration
+@ConditionalOnProperty(name = "user.datasource.replica-urls")
+public class DataSourceRoutingConfig {
+
+    private static final String REQUEST_ATTR_USER_ID = "userId";
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource routingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${user.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${user.datasource.replica-username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${user.datasource.replica-password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${user.datasource.replica-lag-query:SHOW REPLICA STATUS}") String lagQuery,
+            @Value("${user.datasource.max-lag-ms:2000}") long maxLagMs,
+            @Value("${user.datasource.sticky-ms:5000}") long stickyMs,
+            @Value("${user.datasource.health-check-interval-ms:5000}") long healthCheckIntervalMs) {
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("配置 user.datasource.replica-urls 时必须设置 spring.jpa.open-in-view=false，"
+                    + "否则同一请求中只读查询之后的写操作会使用从库连接");
+        }
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        bindHikari(environment, primary);
+        primary.setPoolName("primary");
+        primary.setMetricRegistry(meterRegistry);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            bindHikari(environment, replica);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(url.strip());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setReadOnly(true);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, lagQuery,
+                maxLagMs, stickyMs, DataSourceRoutingConfig::currentClientKey);
+        routing.afterPropertiesSet();
+        registerMetrics(meterRegistry, routing);
+        routing.start(healthCheckIntervalMs);
+        return routing;
+    }
+
+    /**
+     * 应用使用的数据源：延迟到第一条语句执行时才取真实连接，此时事务只读标记已确定
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static void bindHikari(Environment environment, HikariDataSource dataSource) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+    }
+
+    /**
+     * 读写粘滞的客户端标识：已登录用户按 userId，未登录请求（注册后立即登录）按客户端 IP
+     */
+    private static Object currentClientKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            Object userId = request.getAttribute(REQUEST_ATTR_USER_ID);
+            return userId != null ? userId : request.getRemoteAddr();
+        }
+        return null;
+    }
+
+    private static void registerMetrics(MeterRegistry registry, ReplicaRoutingDataSource routing) {
+        Gauge.builder("user.datasource.replicas.healthy", routing, ReplicaRoutingDataSource::getHealthyReplicaCount)
+                .register(registry);
+        for (int i = 0; i < routing.getReplicaCount(); i++) {
+            int index = i;
+            Gauge.builder("user.datasource.replica.lag", routing, r -> r.getReplicaLagMs(index))
+                    .tag("replica", String.valueOf(index))
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+        FunctionCounter.builder("user.datasource.reads", routing, ReplicaRoutingDataSource::getReplicaReadCount)
+                .tag("target", "replica")
+                .register(registry);
+        FunctionCounter.builder("user.datasource.reads", routing, ReplicaRoutingDataSource::getPrimaryReadCount)
+                .tag("target", "primary")
+                .register(registry);
+        FunctionCounter.builder("user.datasource.sticky.reads", routing, ReplicaRoutingDataSource::getStickyReadCount)
+                .register(registry);
+    }
+}
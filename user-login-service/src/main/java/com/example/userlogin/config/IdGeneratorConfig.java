@@ -0,0 +1,29 @@
+package com.example.userlogin.config;
+
+import com.example.userlogin.entity.AppIdentifierGenerator;
+import com.example.userlogin.util.IdGenerator;
+import com.example.userlogin.util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 主键生成器配置
+ *
+ * 多实例部署时每个实例必须配置不同的 id.node-id（0-30）；31 保留给规模测试数据生成器，配置为 31 时拒绝启动。
+ * 替换为其他实现时只需修改这里返回的 {@link IdGenerator}。
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${id.node-id:0}") int nodeId) {
+        if (nodeId == SnowflakeIdGenerator.RESERVED_NODE_ID) {
+            throw new IllegalArgumentException("id.node-id=" + nodeId + " 保留给规模测试数据生成器，请使用 0 到 "
+                    + (SnowflakeIdGenerator.RESERVED_NODE_ID - 1));
+        }
+        IdGenerator idGenerator = new SnowflakeIdGenerator(nodeId);
+        AppIdentifierGenerator.use(idGenerator);
+        return idGenerator;
+    }
+}
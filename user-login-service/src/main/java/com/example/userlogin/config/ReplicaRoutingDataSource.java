@@ -0,0 +1,235 @@
+package com.example.userlogin.config;
+
+import com.example.userlogin.util.BoundedExpiringCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 读写分离数据源
+ *
+ * 只读事务路由到健康的从库（轮询），其余全部走主库。需要包在
+ * LazyConnectionDataSourceProxy 中使用，保证取连接时事务的只读标记已经设置。
+ * 同一客户端（stickyKey）的读写事务提交后的一段时间内，其只读请求也走主库，
+ * 保证读到自己的写入；从库延迟超过阈值或不可用时自动切回主库。
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final Supplier<Object> stickyKey;
+    private final BoundedExpiringCache<Object, Boolean> recentWriters;
+
+    private final long[] replicaLagMs;
+    private volatile int[] healthyReplicas = new int[0];
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final LongAdder stickyReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private ScheduledExecutorService checker;
+
+    /**
+     * @param lagQuery  返回从库延迟秒数的查询；结果含 Seconds_Behind_Source/Master 列时取该列，否则取第一列。
+     *                  为空时只检查连接是否可用
+     * @param maxLagMs  从库延迟超过该值时不再路由到该从库
+     * @param stickyMs  读写事务提交后同一客户端的只读请求走主库的时长
+     * @param stickyKey 当前客户端标识，无法识别时返回 null
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, String lagQuery,
+                                    long maxLagMs, long stickyMs, Supplier<Object> stickyKey) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.stickyKey = stickyKey;
+        this.recentWriters = new BoundedExpiringCache<>(100_000, Math.max(1, stickyMs));
+        this.replicaLagMs = new long[replicas.size()];
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(replicaKey(i), replicas.get(i));
+            replicaLagMs[i] = -1;
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Object key = stickyKey.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                rememberWriter(key);
+            }
+            return PRIMARY;
+        }
+        if (key != null && recentWriters.get(key) != null) {
+            stickyReads.increment();
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        int[] healthy = healthyReplicas;
+        if (healthy.length == 0) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return replicaKey(healthy[Math.floorMod(roundRobin.getAndIncrement(), healthy.length)]);
+    }
+
+    /**
+     * 读写事务提交后开始计算粘滞窗口；回滚的事务不影响路由
+     */
+    private void rememberWriter(Object key) {
+        if (key == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(key, Boolean.TRUE);
+            }
+        });
+    }
+
+    /**
+     * 启动后台检查线程，按 intervalMs 检查从库可用性和延迟
+     */
+    public void start(long intervalMs) {
+        if (replicas.isEmpty() || checker != null) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-health-checker");
+            t.setDaemon(true);
+            return t;
+        });
+        checker.scheduleWithFixedDelay(this::checkReplicas, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 检查所有从库，更新可路由的从库列表
+     */
+    public void checkReplicas() {
+        List<Integer> healthy = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            long lag = measureLagMs(replicas.get(i));
+            boolean wasHealthy = replicaLagMs[i] >= 0 && replicaLagMs[i] <= maxLagMs;
+            boolean isHealthy = lag >= 0 && lag <= maxLagMs;
+            if (wasHealthy != isHealthy) {
+                log.warn("从库 {} {}，延迟 {} ms", i, isHealthy ? "恢复路由" : "停止路由", lag);
+            }
+            replicaLagMs[i] = lag;
+            if (isHealthy) {
+                healthy.add(i);
+            }
+        }
+        healthyReplicas = healthy.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * 从库延迟（毫秒），不可用或未在复制时返回 -1
+     */
+    private long measureLagMs(DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return connection.isValid(2) ? 0 : -1;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return -1;
+                }
+                Object value = rs.getObject(lagColumn(rs.getMetaData()));
+                return value instanceof Number n ? Math.round(n.doubleValue() * 1000) : -1;
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.debug("从库检查失败: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            for (String name : LAG_COLUMNS) {
+                if (name.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                    return i;
+                }
+            }
+        }
+        return 1;
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public int getHealthyReplicaCount() {
+        return healthyReplicas.length;
+    }
+
+    /**
+     * 最近一次检查得到的从库延迟（毫秒），不可用时为 -1
+     */
+    public long getReplicaLagMs(int index) {
+        return replicaLagMs[index];
+    }
+
+    public long getReplicaReadCount() {
+        return replicaReads.sum();
+    }
+
+    public long getPrimaryReadCount() {
+        return primaryReads.sum();
+    }
+
+    public long getStickyReadCount() {
+        return stickyReads.sum();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.userlogin.controller;
+
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.service.BulkRegistrationService;
+import com.example.userlogin.vo.BulkRegisterRowVO;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 批量注册接口
+ *
+ * 与单个注册不同，批量注册需要登录，挂在 /api/users 下由 JWT 过滤器保护。
+ */
+@RestController
+@RequestMapping("/api/users/bulk-register")
+@CrossOrigin(origins = "*")
+public class BulkRegisterController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+
+    @Autowired
+    private BulkRegistrationService bulkRegistrationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${user.bulk.max-rows:200000}")
+    private int maxRows;
+
+    /**
+     * 批量注册
+     * POST /api/users/bulk-register
+     * 请求体为 UserRegisterDTO 数组，边解析边按块处理，内存中只保留当前块；响应为 NDJSON 流：
+     * 每行一个结果（BulkRegisterRowVO），每处理完一块输出一行进度（type=progress），最后输出一行汇总（type=summary）。
+     * 请求体不是数组或为空数组时返回 400；超过行数上限或中途解析失败时停止读取，
+     * 输出一行错误（type=error）后再输出汇总，已处理的块不回滚
+     */
+    @PostMapping
+    public ResponseEntity<?> bulkRegister(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        JsonParser parser = objectMapper.createParser(request.getInputStream());
+        try (parser) {
+            JsonToken first;
+            try {
+                first = parser.nextToken() == JsonToken.START_ARRAY ? parser.nextToken() : null;
+            } catch (JsonProcessingException e) {
+                first = null;
+            }
+            if (first == null || first == JsonToken.END_ARRAY) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "请求体必须是 JSON 数组，导入数量必须在1到" + maxRows + "之间");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+
+            response.setContentType(NDJSON.toString());
+            OutputStream out = response.getOutputStream();
+            RowIterator rows = new RowIterator(parser);
+            NdjsonListener listener = new NdjsonListener(out);
+            long start = System.currentTimeMillis();
+            String failure = null;
+            try {
+                bulkRegistrationService.register(rows, listener);
+                if (rows.truncated) {
+                    failure = "导入数量超过上限 " + maxRows + "，之后的数据未处理";
+                }
+            } catch (UncheckedIOException e) {
+                if (!(e.getCause() instanceof JsonProcessingException parseError)) {
+                    throw e;
+                }
+                // 解析失败时当前块尚未处理，只有已输出进度的块生效
+                failure = "请求体解析失败，已处理前 " + listener.processed + " 行: " + parseError.getOriginalMessage();
+            }
+            if (failure != null) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("type", "error");
+                error.put("error", failure);
+                writeLine(out, error);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("type", "summary");
+            result.put("total", listener.processed);
+            result.put("created", listener.created);
+            result.put("failed", listener.failed);
+            result.put("elapsedMs", System.currentTimeMillis() - start);
+            writeLine(out, result);
+            out.flush();
+        }
+        // 响应已直接写出
+        return null;
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 逐行输出结果和进度，并记录已完成块的累计值
+     */
+    private class NdjsonListener implements BulkRegistrationService.Listener {
+
+        private final OutputStream out;
+        private int processed;
+        private int created;
+        private int failed;
+
+        NdjsonListener(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void onRow(BulkRegisterRowVO row) {
+            writeLine(out, row);
+        }
+
+        @Override
+        public void onChunk(int processed, int created, int failed) {
+            this.processed = processed;
+            this.created = created;
+            this.failed = failed;
+            Map<String, Object> progress = new LinkedHashMap<>();
+            progress.put("type", "progress");
+            progress.put("processed", processed);
+            progress.put("created", created);
+            progress.put("failed", failed);
+            writeLine(out, progress);
+            flush(out);
+        }
+    }
+
+    /**
+     * 逐个读取数组元素，最多 maxRows 个；parser 已指向第一个元素
+     */
+    private class RowIterator implements Iterator<UserRegisterDTO> {
+
+        private final JsonParser parser;
+        private int read;
+        private boolean truncated;
+
+        RowIterator(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (parser.currentToken() == JsonToken.END_ARRAY) {
+                return false;
+            }
+            if (read == maxRows) {
+                truncated = true;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public UserRegisterDTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                UserRegisterDTO dto = parser.currentToken() == JsonToken.VALUE_NULL
+                        ? null
+                        : objectMapper.readValue(parser, UserRegisterDTO.class);
+                read++;
+                if (parser.nextToken() == null) {
+                    throw new JsonParseException(parser, "数组未结束");
+                }
+                return dto;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.example.userlogin.controller;
 
+import com.example.userlogin.audit.AuditEventType;
+import com.example.userlogin.audit.AuditLog;
 import com.example.userlogin.dto.UserLoginDTO;
+import com.example.userlogin.service.LoginRateLimiter;
+import com.example.userlogin.service.RateLimitedException;
+import com.example.userlogin.service.ServiceBusyException;
 import com.example.userlogin.service.UserService;
 import com.example.userlogin.util.JwtUtil;
+import com.example.userlogin.util.TokenRevocationList;
+import com.example.userlogin.util.VerifiedToken;
 import com.example.userlogin.vo.UserVO;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +37,15 @@ public class LoginController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private AuditLog auditLog;
+
     @Value("${jwt.cookie-name}")
     private String cookieName;
 
@@ -36,8 +54,25 @@ public class LoginController {
      * POST /api/login
      */
     @PostMapping
-    public ResponseEntity<?> login(@Valid @RequestBody UserLoginDTO loginDTO, HttpServletResponse httpResponse) {
-        Optional<UserVO> userVO = userService.login(loginDTO);
+    public ResponseEntity<?> login(@Valid @RequestBody UserLoginDTO loginDTO,
+                                   HttpServletRequest httpRequest, HttpServletResponse httpResponse) {
+        Optional<UserVO> userVO;
+        try {
+            loginRateLimiter.checkLogin(httpRequest.getRemoteAddr(), loginDTO.getUsername());
+            userVO = userService.login(loginDTO);
+        } catch (RateLimitedException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(error);
+        } catch (ServiceBusyException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
+        }
         if (userVO.isPresent()) {
             UserVO user = userVO.get();
             String token = jwtUtil.generateToken(user.getId(), user.getUsername());
@@ -62,11 +97,47 @@ public class LoginController {
     }
 
     /**
-     * 用户登出 - 清除 cookie
-     * POST /api/logout
+     * 用户登出 - 吊销当前 token 并清除 cookie
+     * POST /api/login/logout
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpServletResponse httpResponse) {
+    public ResponseEntity<?> logout(@CookieValue(name = "${jwt.cookie-name}", required = false) String token,
+                                    HttpServletResponse httpResponse) {
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+        revocationList.revoke(verified);
+        if (verified != null && verified.userId() != null) {
+            auditLog.record(AuditEventType.LOGOUT, verified.userId(), null);
+        }
+        clearCookie(httpResponse);
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "登出成功");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 退出所有设备 - 吊销该用户此前签发的全部 token 并清除 cookie
+     * POST /api/login/logout-all
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(@CookieValue(name = "${jwt.cookie-name}", required = false) String token,
+                                       HttpServletResponse httpResponse) {
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+        if (verified == null || verified.userId() == null || revocationList.isRevoked(verified)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "未登录或登录已过期");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+        revocationList.revokeAll(verified.userId());
+        auditLog.record(AuditEventType.LOGOUT_ALL, verified.userId(), null);
+        clearCookie(httpResponse);
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "已退出所有设备");
+        return ResponseEntity.ok(response);
+    }
+
+    private void clearCookie(HttpServletResponse httpResponse) {
         Cookie cookie = new Cookie(cookieName, "");
         cookie.setHttpOnly(true);
         cookie.setSecure(false);
@@ -74,9 +145,5 @@ public class LoginController {
         cookie.setMaxAge(0);
         cookie.setAttribute("SameSite", "Lax");
         httpResponse.addCookie(cookie);
-
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "登出成功");
-        return ResponseEntity.ok(response);
     }
 }
@@ -1,10 +1,15 @@
 package com.example.userlogin.controller;
 
 import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.service.LoginRateLimiter;
+import com.example.userlogin.service.RateLimitedException;
+import com.example.userlogin.service.ServiceBusyException;
 import com.example.userlogin.service.UserService;
 import com.example.userlogin.vo.UserVO;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,18 +25,35 @@ public class RegisterController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     /**
      * 用户注册
      * POST /api/register
      */
     @PostMapping
-    public ResponseEntity<?> register(@Valid @RequestBody UserRegisterDTO registerDTO) {
+    public ResponseEntity<?> register(@Valid @RequestBody UserRegisterDTO registerDTO,
+                                      HttpServletRequest httpRequest) {
         try {
+            loginRateLimiter.checkRegister(httpRequest.getRemoteAddr(), registerDTO.getUsername());
             UserVO userVO = userService.createUser(registerDTO);
             Map<String, Object> response = new HashMap<>();
             response.put("message", "注册成功");
             response.put("user", userVO);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (RateLimitedException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(error);
+        } catch (ServiceBusyException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -2,10 +2,20 @@ package com.example.userlogin.controller;
 
 import com.example.userlogin.dto.UserLoginDTO;
 import com.example.userlogin.dto.UserUpdateDTO;
+import com.example.userlogin.index.UsernameSuggester;
+import com.example.userlogin.service.LoginRateLimiter;
+import com.example.userlogin.service.RateLimitedException;
+import com.example.userlogin.service.ServiceBusyException;
+import com.example.userlogin.service.UserExportService;
 import com.example.userlogin.service.UserService;
+import com.example.userlogin.vo.CursorPageVO;
+import com.example.userlogin.vo.SliceVO;
 import com.example.userlogin.vo.UserVO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,7 +24,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -26,12 +38,37 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private UsernameSuggester usernameSuggester;
+
+    @Autowired
+    private UserExportService userExportService;
+
     /**
      * 用户登录
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody UserLoginDTO loginDTO) {
-        Optional<UserVO> userVO = userService.login(loginDTO);
+    public ResponseEntity<?> login(@Valid @RequestBody UserLoginDTO loginDTO, HttpServletRequest httpRequest) {
+        Optional<UserVO> userVO;
+        try {
+            loginRateLimiter.checkLogin(httpRequest.getRemoteAddr(), loginDTO.getUsername());
+            userVO = userService.login(loginDTO);
+        } catch (RateLimitedException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(error);
+        } catch (ServiceBusyException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
+        }
         if (userVO.isPresent()) {
             Map<String, Object> response = new HashMap<>();
             response.put("message", "登录成功");
@@ -50,17 +87,35 @@ public class UserController {
      * @param size 每页大小（默认10）
      * @param sortBy 排序字段（默认id，支持: id, username, email, createdAt, updatedAt）
      * @param sortOrder 排序顺序（ASC或DESC，默认ASC）
+     * @param after 游标分页：上一页返回的 nextCursor，传空值（after=）获取第一页；
+     *              传入时忽略 page，sortBy 仅支持 id（即创建时间顺序）, username
+     * @param withTotal 是否返回总数（默认true），false 时不执行 count 查询，只返回 hasNext
      */
     @GetMapping
-    public ResponseEntity<Page<UserVO>> getAllUsers(
+    public ResponseEntity<?> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortOrder) {
+            @RequestParam(defaultValue = "ASC") String sortOrder,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
         
         @SuppressWarnings("null")
         Sort.Direction direction = Sort.Direction.fromString(sortOrder.toUpperCase());
+        if (after != null) {
+            try {
+                CursorPageVO<UserVO> cursorPage = userService.getUsersAfter(after, size, sortBy, direction);
+                return ResponseEntity.ok(cursorPage);
+            } catch (IllegalArgumentException e) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+        }
         PageRequest pageRequest = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        if (!withTotal) {
+            return ResponseEntity.ok(SliceVO.from(userService.getAllUsersSlice(pageRequest)));
+        }
         Page<UserVO> userPage = userService.getAllUsers(pageRequest);
         return ResponseEntity.ok(userPage);
     }
@@ -72,18 +127,23 @@ public class UserController {
      * @param size 每页大小（默认10）
      * @param sortBy 排序字段（默认id）
      * @param sortOrder 排序顺序（ASC或DESC，默认ASC）
+     * @param withTotal 是否返回总数（默认true），false 时不执行 count 查询
      */
     @GetMapping("/search/username")
-    public ResponseEntity<Page<UserVO>> searchByUsername(
+    public ResponseEntity<?> searchByUsername(
             @RequestParam String username,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortOrder) {
+            @RequestParam(defaultValue = "ASC") String sortOrder,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
         
         @SuppressWarnings("null")
         Sort.Direction direction = Sort.Direction.fromString(sortOrder.toUpperCase());
         PageRequest pageRequest = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        if (!withTotal) {
+            return ResponseEntity.ok(SliceVO.from(userService.searchUsersByUsernameSlice(username, pageRequest)));
+        }
         Page<UserVO> userPage = userService.searchUsersByUsername(username, pageRequest);
         return ResponseEntity.ok(userPage);
     }
@@ -95,22 +155,88 @@ public class UserController {
      * @param size 每页大小（默认10）
      * @param sortBy 排序字段（默认id）
      * @param sortOrder 排序顺序（ASC或DESC，默认ASC）
+     * @param withTotal 是否返回总数（默认true），false 时不执行 count 查询
      */
     @GetMapping("/search/email")
-    public ResponseEntity<Page<UserVO>> searchByEmail(
+    public ResponseEntity<?> searchByEmail(
             @RequestParam String email,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortOrder) {
+            @RequestParam(defaultValue = "ASC") String sortOrder,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
         
         @SuppressWarnings("null")
         Sort.Direction direction = Sort.Direction.fromString(sortOrder.toUpperCase());
         PageRequest pageRequest = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        if (!withTotal) {
+            return ResponseEntity.ok(SliceVO.from(userService.searchUsersByEmailSlice(email, pageRequest)));
+        }
         Page<UserVO> userPage = userService.searchUsersByEmail(email, pageRequest);
         return ResponseEntity.ok(userPage);
     }
 
+    /**
+     * 用户名前缀补全
+     * @param prefix 用户名前缀（忽略大小写）
+     * @param limit 返回数量（默认10，最大100）
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        int n = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(userService.suggestUsernames(prefix, n));
+    }
+
+    /**
+     * 前缀补全索引状态：用户名数量、节点数、估算堆内存
+     */
+    @GetMapping("/suggest/stats")
+    public ResponseEntity<Map<String, Object>> suggestStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", usernameSuggester.isEnabled());
+        stats.put("ready", usernameSuggester.isReady());
+        stats.put("size", usernameSuggester.size());
+        stats.put("nodes", usernameSuggester.nodeCount());
+        stats.put("estimatedHeapBytes", usernameSuggester.estimateHeapBytes());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * 导出全部用户（按 id 排序）
+     * GET /api/users/export?format=ndjson|csv
+     * 响应体边读库边写出，不分页、不执行 count 查询，适合全量同步；开始写出后出错只能中断连接
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                         HttpServletResponse response) throws IOException {
+        UserExportService.Format exportFormat;
+        try {
+            exportFormat = UserExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"users." + exportFormat.extension() + "\"");
+        try {
+            userExportService.export(exportFormat, response.getOutputStream());
+        } catch (ServiceBusyException e) {
+            // 尚未写出任何内容，清除已设置的响应头后返回 503
+            response.reset();
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
+        }
+        // 响应已直接写出
+        return null;
+    }
+
     /**
      * 根据ID获取用户
      */
@@ -134,6 +260,12 @@ public class UserController {
         try {
             UserVO updatedUser = userService.updateUser(id, updateDTO);
             return ResponseEntity.ok(updatedUser);
+        } catch (ServiceBusyException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
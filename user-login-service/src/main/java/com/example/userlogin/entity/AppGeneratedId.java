@@ -0,0 +1,17 @@
+package com.example.userlogin.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 主键由应用生成（{@link AppIdentifierGenerator}），插入前即确定，不依赖数据库自增
+ */
+@IdGeneratorType(AppIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface AppGeneratedId {
+}
@@ -0,0 +1,35 @@
+package com.example.userlogin.entity;
+
+import com.example.userlogin.util.IdGenerator;
+import com.example.userlogin.util.SnowflakeIdGenerator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hibernate 主键生成器，委托给 Spring 容器中的 {@link IdGenerator}
+ *
+ * Hibernate 自行实例化生成器，因此通过静态字段绑定；容器启动时由 IdGeneratorConfig 设置，
+ * 未设置时（如脱离 Spring 使用实体）退回节点号为0的 Snowflake 生成器。
+ */
+public class AppIdentifierGenerator implements IdentifierGenerator {
+
+    private static volatile IdGenerator delegate;
+
+    public static void use(IdGenerator idGenerator) {
+        delegate = idGenerator;
+    }
+
+    private static IdGenerator current() {
+        IdGenerator generator = delegate;
+        return generator != null ? generator : DefaultHolder.INSTANCE;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return current().nextId();
+    }
+
+    private static final class DefaultHolder {
+        static final IdGenerator INSTANCE = new SnowflakeIdGenerator(0);
+    }
+}
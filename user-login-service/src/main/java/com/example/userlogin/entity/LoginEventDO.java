@@ -0,0 +1,37 @@
+package com.example.userlogin.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 登录记录 - 每次成功登录一行
+ *
+ * 由 {@link com.example.userlogin.service.LoginEventRecorder} 后台批量写入，请求线程不直接写库
+ */
+@Entity
+@Table(name = "login_events", indexes = @Index(name = "idx_login_events_user", columnList = "user_id, login_at"))
+public class LoginEventDO {
+
+    @Id
+    @AppGeneratedId
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "login_at", nullable = false)
+    private LocalDateTime loginAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getLoginAt() {
+        return loginAt;
+    }
+}
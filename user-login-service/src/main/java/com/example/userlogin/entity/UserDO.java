@@ -20,7 +20,7 @@ import java.time.LocalDateTime;
 public class UserDO {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AppGeneratedId
     private Long id;
 
     @NotBlank(message = "用户名不能为空")
@@ -43,6 +43,12 @@ public class UserDO {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * 最近登录时间，只由登录记录写入器更新，实体保存时不覆盖
+     */
+    @Column(name = "last_login_at", insertable = false, updatable = false)
+    private LocalDateTime lastLoginAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -79,6 +85,10 @@ public class UserDO {
         return updatedAt;
     }
 
+    public LocalDateTime getLastLoginAt() {
+        return lastLoginAt;
+    }
+
     // Setters
     public void setId(Long id) {
         this.id = id;
@@ -0,0 +1,32 @@
+package com.example.userlogin.event;
+
+/**
+ * 用户变更事件 - 由 UserService 在注册、更新、删除用户时发布
+ *
+ * @param type             变更类型
+ * @param id               用户ID
+ * @param username         变更后的用户名（删除时为删除前的值）
+ * @param email            变更后的邮箱（删除时为删除前的值）
+ * @param previousUsername 变更前的用户名（仅更新时有值）
+ * @param previousEmail    变更前的邮箱（仅更新时有值）
+ */
+public record UserChangedEvent(Type type, long id, String username, String email,
+                               String previousUsername, String previousEmail) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static UserChangedEvent created(long id, String username, String email) {
+        return new UserChangedEvent(Type.CREATED, id, username, email, null, null);
+    }
+
+    public static UserChangedEvent updated(long id, String username, String email,
+                                           String previousUsername, String previousEmail) {
+        return new UserChangedEvent(Type.UPDATED, id, username, email, previousUsername, previousEmail);
+    }
+
+    public static UserChangedEvent deleted(long id, String username, String email) {
+        return new UserChangedEvent(Type.DELETED, id, username, email, null, null);
+    }
+}
@@ -1,7 +1,14 @@
 package com.example.userlogin.filter;
 
+import com.example.userlogin.jfr.TokenVerificationEvent;
 import com.example.userlogin.util.JwtUtil;
-import io.jsonwebtoken.Claims;
+import com.example.userlogin.util.TokenRevocationList;
+import com.example.userlogin.util.VerifiedToken;
+import com.example.userlogin.util.VerifiedTokenCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -16,9 +23,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT 鉴权过滤器 - 从 Cookie 读取 token 并校验
+ *
+ * 指标：user.auth.token（校验耗时，source=cache 命中缓存 / jwt 完整校验），
+ * user.auth.rejected（拒绝次数，reason=missing 未携带 token / invalid 无效或已过期 / revoked 已吊销）；
+ * 每次校验同时产生 JFR 事件 {@link TokenVerificationEvent}
  */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -32,9 +44,33 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${jwt.cookie-name}")
     private String cookieName;
 
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Counter missingCounter;
+    private Counter invalidCounter;
+    private Counter revokedCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        cachedTimer = tokenTimer("cache");
+        verifiedTimer = tokenTimer("jwt");
+        missingCounter = rejectedCounter("missing");
+        invalidCounter = rejectedCounter("invalid");
+        revokedCounter = rejectedCounter("revoked");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
@@ -50,9 +86,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         String token = getTokenFromCookie(request);
-        Claims claims = jwtUtil.parseToken(token);
+        VerifiedToken verified = verifyToken(token);
 
-        if (claims == null) {
+        if (verified == null || revocationList.isRevoked(verified)) {
+            (token == null || token.isBlank() ? missingCounter
+                    : verified == null ? invalidCounter : revokedCounter).increment();
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType(MediaType.APPLICATION_JSON_VALUE);
             response.setCharacterEncoding("UTF-8");
@@ -60,11 +98,47 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        Long userId = jwtUtil.getUserId(claims);
-        request.setAttribute(REQUEST_ATTR_USER_ID, userId);
+        request.setAttribute(REQUEST_ATTR_USER_ID, verified.userId());
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 校验 token，优先查询已校验 token 缓存，未命中时完整解析并写入缓存
+     */
+    private VerifiedToken verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        VerifiedToken verified = tokenCache.get(token);
+        if (verified != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.finish(true, true);
+            return verified;
+        }
+        verified = jwtUtil.verifyToken(token);
+        tokenCache.put(token, verified);
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        event.finish(false, verified != null);
+        return verified;
+    }
+
+    private Timer tokenTimer(String source) {
+        return Timer.builder("user.auth.token")
+                .description("token 校验耗时")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("user.auth.rejected")
+                .description("鉴权失败被拒绝的请求数")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
     private boolean isPublicPath(String path) {
         for (String publicPath : PUBLIC_PATHS) {
             if (path.equals(publicPath) || path.startsWith(publicPath + "/")) {
@@ -0,0 +1,367 @@
+package com.example.userlogin.index;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.regex.Pattern;
+
+/**
+ * 三元组（trigram）倒排索引，用于子串搜索（忽略大小写和重音）
+ *
+ * 每个值拆成所有长度为 3 的子串，记录 trigram → id 列表。查询时对查询串的所有 trigram 求交集得到候选，
+ * 查询代价只与候选数量相关，与总行数无关。索引不保存原值：查询串只有一个 trigram 时结果是精确的，
+ * 更长时 trigram 都出现但不连续的值也会成为候选，由调用方按原条件过滤（见 {@link #isExact(String)}）。
+ *
+ * 倒排表是升序的 long[]（每个 id 8 字节，没有装箱对象），另有一个小的增删缓冲区，
+ * 缓冲区超过 {@link #DELTA_LIMIT} 时合并进主数组，避免每次写入都复制大数组。
+ * 全量加载期间（{@link #finishLoad()} 之前）只追加、不排序，加载完成时统一排序去重；加载期间不支持移除。
+ * 读写由 StampedLock 保护，查询之间互不阻塞。
+ * 值和查询串按 MySQL utf8mb4_0900_ai_ci 的方式归一化：兼容分解（全角字符视为半角）、去除重音、小写，
+ * 使索引结果与数据库 LIKE 回退一致（é 匹配 e）。排序规则中多字符的等价（如 ß 与 ss）不做处理。
+ */
+public class NgramIndex {
+
+    /**
+     * 可用索引查询的最短查询串长度
+     */
+    public static final int GRAM = 3;
+
+    /**
+     * 增删缓冲区上限，超过后合并进主数组
+     */
+    static final int DELTA_LIMIT = 1024;
+
+    private static final long[] EMPTY = new long[0];
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * 一个 trigram 的倒排表：ids 为升序主数组（加载期间无序），added/removed 为升序缓冲区，
+     * 有效内容为 ids + added - removed，added 与 ids 不相交，removed 是 ids 的子集
+     */
+    private static final class Posting {
+        long[] ids = EMPTY;
+        int size;
+        long[] added = EMPTY;
+        int addedSize;
+        long[] removed = EMPTY;
+        int removedSize;
+
+        int count() {
+            return size + addedSize - removedSize;
+        }
+
+        boolean contains(long id) {
+            if (Arrays.binarySearch(added, 0, addedSize, id) >= 0) {
+                return true;
+            }
+            return Arrays.binarySearch(ids, 0, size, id) >= 0
+                    && Arrays.binarySearch(removed, 0, removedSize, id) < 0;
+        }
+
+        void append(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+            }
+            ids[size++] = id;
+        }
+
+        void add(long id) {
+            int r = Arrays.binarySearch(removed, 0, removedSize, id);
+            if (r >= 0) {
+                removedSize = delete(removed, removedSize, r);
+                return;
+            }
+            if (Arrays.binarySearch(ids, 0, size, id) >= 0) {
+                return;
+            }
+            int a = Arrays.binarySearch(added, 0, addedSize, id);
+            if (a < 0) {
+                added = insert(added, addedSize, -a - 1, id);
+                addedSize++;
+                mergeIfFull();
+            }
+        }
+
+        void remove(long id) {
+            int a = Arrays.binarySearch(added, 0, addedSize, id);
+            if (a >= 0) {
+                addedSize = delete(added, addedSize, a);
+                return;
+            }
+            if (Arrays.binarySearch(ids, 0, size, id) >= 0) {
+                int r = Arrays.binarySearch(removed, 0, removedSize, id);
+                if (r < 0) {
+                    removed = insert(removed, removedSize, -r - 1, id);
+                    removedSize++;
+                    mergeIfFull();
+                }
+            }
+        }
+
+        void mergeIfFull() {
+            if (addedSize + removedSize >= DELTA_LIMIT) {
+                ids = toArray();
+                size = ids.length;
+                added = EMPTY;
+                addedSize = 0;
+                removed = EMPTY;
+                removedSize = 0;
+            }
+        }
+
+        /**
+         * 合并后的升序数组
+         */
+        long[] toArray() {
+            long[] result = new long[count()];
+            int i = 0;
+            int a = 0;
+            int r = 0;
+            int n = 0;
+            while (i < size || a < addedSize) {
+                long next;
+                if (a == addedSize || (i < size && ids[i] < added[a])) {
+                    next = ids[i++];
+                    if (r < removedSize && removed[r] == next) {
+                        r++;
+                        continue;
+                    }
+                } else {
+                    next = added[a++];
+                }
+                result[n++] = next;
+            }
+            return result;
+        }
+
+        /**
+         * 按升序遍历合并后的内容（不复制），把同时出现在 others[from..] 中的 id 写入 out；
+         * 匹配数超过 out.length 时立即停止并返回 -1
+         */
+        int intersect(Posting[] others, int from, long[] out) {
+            int i = 0;
+            int a = 0;
+            int r = 0;
+            int n = 0;
+            candidates:
+            while (i < size || a < addedSize) {
+                long next;
+                if (a == addedSize || (i < size && ids[i] < added[a])) {
+                    next = ids[i++];
+                    if (r < removedSize && removed[r] == next) {
+                        r++;
+                        continue;
+                    }
+                } else {
+                    next = added[a++];
+                }
+                for (int k = from; k < others.length; k++) {
+                    if (!others[k].contains(next)) {
+                        continue candidates;
+                    }
+                }
+                if (n == out.length) {
+                    return -1;
+                }
+                out[n++] = next;
+            }
+            return n;
+        }
+
+        /**
+         * 加载完成：排序去重，释放多余容量
+         */
+        void seal() {
+            Arrays.sort(ids, 0, size);
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (n == 0 || ids[n - 1] != ids[i]) {
+                    ids[n++] = ids[i];
+                }
+            }
+            size = n;
+            if (ids.length != n) {
+                ids = Arrays.copyOf(ids, n);
+            }
+        }
+
+        private static long[] insert(long[] array, int size, int index, long id) {
+            long[] target = size == array.length ? Arrays.copyOf(array, Math.max(4, size * 2)) : array;
+            System.arraycopy(target, index, target, index + 1, size - index);
+            target[index] = id;
+            return target;
+        }
+
+        private static int delete(long[] array, int size, int index) {
+            System.arraycopy(array, index + 1, array, index, size - index - 1);
+            return size - 1;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<Long, Posting> postings = new HashMap<>();
+    private boolean loading = true;
+
+    /**
+     * 加入 id 对应的值（重复加入无影响）
+     */
+    public void add(long id, String value) {
+        if (value == null) {
+            return;
+        }
+        long[] grams = grams(normalize(value));
+        long stamp = lock.writeLock();
+        try {
+            for (long gram : grams) {
+                Posting posting = postings.computeIfAbsent(gram, k -> new Posting());
+                if (loading) {
+                    posting.append(id);
+                } else {
+                    posting.add(id);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 移除 id 之前加入的值，value 必须与加入时相同（忽略大小写）
+     */
+    public void remove(long id, String value) {
+        if (value == null) {
+            return;
+        }
+        long[] grams = grams(normalize(value));
+        long stamp = lock.writeLock();
+        try {
+            if (loading) {
+                throw new IllegalStateException("索引加载完成前不支持移除");
+            }
+            for (long gram : grams) {
+                Posting posting = postings.get(gram);
+                if (posting != null) {
+                    posting.remove(id);
+                    if (posting.count() == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 全量加载完成，排序各倒排表，之后的写入走增删缓冲区
+     */
+    public void finishLoad() {
+        long stamp = lock.writeLock();
+        try {
+            if (loading) {
+                postings.values().forEach(Posting::seal);
+                loading = false;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 查询所有 trigram 都出现在值中的 id（升序）
+     *
+     * @param maxMatches 最多返回的候选数，超出时返回 null
+     * @return 候选 id；query 短于 {@link #GRAM}、加载未完成或候选过多时返回 null，调用方应回退到数据库查询
+     */
+    public long[] search(String query, int maxMatches) {
+        if (query == null) {
+            return null;
+        }
+        String normalized = normalize(query);
+        if (normalized.length() < GRAM) {
+            return null;
+        }
+        long[] grams = grams(normalized);
+        long stamp = lock.readLock();
+        try {
+            if (loading) {
+                return null;
+            }
+            Posting[] lists = new Posting[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                Posting posting = postings.get(grams[i]);
+                if (posting == null || posting.count() == 0) {
+                    return EMPTY;
+                }
+                lists[i] = posting;
+            }
+            // 从最短的倒排表开始，逐个检查是否在其余倒排表中；只有一个 trigram 时数量即结果数
+            Arrays.sort(lists, (x, y) -> Integer.compare(x.count(), y.count()));
+            if (lists.length == 1 && lists[0].count() > maxMatches) {
+                return null;
+            }
+            long[] matches = new long[Math.min(lists[0].count(), maxMatches)];
+            int n = lists[0].intersect(lists, 1, matches);
+            if (n < 0) {
+                return null;
+            }
+            return n == matches.length ? matches : Arrays.copyOf(matches, n);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * query 的候选是否就是精确结果（归一化后只有一个 trigram）
+     */
+    public static boolean isExact(String query) {
+        return query != null && normalize(query).length() == GRAM;
+    }
+
+    public int gramCount() {
+        long stamp = lock.readLock();
+        try {
+            return postings.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 所有倒排表的条目总数
+     */
+    public long postingCount() {
+        long stamp = lock.readLock();
+        try {
+            long total = 0;
+            for (Posting posting : postings.values()) {
+                total += posting.count();
+            }
+            return total;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 拆分为去重后的 trigram，每个 trigram 的 3 个字符打包为一个 long
+     */
+    private static long[] grams(String s) {
+        if (s.length() < GRAM) {
+            return EMPTY;
+        }
+        long[] grams = new long[s.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.userlogin.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 压缩前缀树（radix trie），用于前缀补全（忽略大小写）
+ *
+ * 单子节点链合并为一条边，边上的字符保存在 char[] 中，子节点按首字符有序存放在数组里，
+ * 不使用 Map，节点开销尽量小。读多写少，用读写锁保护（不使用 synchronized，避免虚拟线程 pinning）。
+ */
+public class RadixTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] NO_LABEL = new char[0];
+
+    private final Node root = new Node(NO_LABEL);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+    private int nodeCount = 1;
+
+    /**
+     * 加入一个值，按小写作为 key
+     */
+    public void add(String value) {
+        char[] key = normalize(value);
+        lock.writeLock().lock();
+        try {
+            Node node = root;
+            int pos = 0;
+            while (true) {
+                if (pos == key.length) {
+                    if (node.addValue(value)) {
+                        size++;
+                    }
+                    return;
+                }
+                int idx = node.indexOf(key[pos]);
+                if (idx < 0) {
+                    Node leaf = new Node(Arrays.copyOfRange(key, pos, key.length));
+                    leaf.addValue(value);
+                    node.insertChild(-idx - 1, leaf);
+                    nodeCount++;
+                    size++;
+                    return;
+                }
+                Node child = node.children[idx];
+                int common = commonPrefix(child.label, key, pos);
+                if (common < child.label.length) {
+                    // 在公共前缀处拆分边
+                    Node split = new Node(Arrays.copyOf(child.label, common));
+                    child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                    split.children = new Node[]{child};
+                    node.children[idx] = split;
+                    nodeCount++;
+                    child = split;
+                }
+                node = child;
+                pos += common;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除一个值
+     */
+    public void remove(String value) {
+        char[] key = normalize(value);
+        lock.writeLock().lock();
+        try {
+            Node parent = null;
+            int parentIdx = -1;
+            Node node = root;
+            int pos = 0;
+            while (pos < key.length) {
+                int idx = node.indexOf(key[pos]);
+                if (idx < 0) {
+                    return;
+                }
+                Node child = node.children[idx];
+                if (commonPrefix(child.label, key, pos) < child.label.length) {
+                    return;
+                }
+                parent = node;
+                parentIdx = idx;
+                node = child;
+                pos += child.label.length;
+            }
+            if (!node.removeValue(value)) {
+                return;
+            }
+            size--;
+            if (parent == null || node.values != null) {
+                return;
+            }
+            // 清理空节点，并把只剩一个子节点的节点与子节点合并
+            if (node.children.length == 0) {
+                parent.removeChild(parentIdx);
+                nodeCount--;
+                if (parent != root && parent.values == null && parent.children.length == 1) {
+                    parent.mergeWithOnlyChild();
+                    nodeCount--;
+                }
+            } else if (node.children.length == 1) {
+                node.mergeWithOnlyChild();
+                nodeCount--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 按字典序返回以 prefix 开头的前 limit 个值
+     */
+    public List<String> findByPrefix(String prefix, int limit) {
+        char[] key = normalize(prefix);
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        if (limit <= 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int pos = 0;
+            while (pos < key.length) {
+                int idx = node.indexOf(key[pos]);
+                if (idx < 0) {
+                    return result;
+                }
+                Node child = node.children[idx];
+                int common = commonPrefix(child.label, key, pos);
+                if (pos + common < key.length && common < child.label.length) {
+                    return result;
+                }
+                node = child;
+                pos += common;
+            }
+            collect(node, result, limit);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 估算占用的堆内存（字节），按 64 位 JVM、压缩指针估算，包含保存的字符串
+     */
+    public long estimateHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return estimate(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collect(Node node, List<String> out, int limit) {
+        if (node.values instanceof String s) {
+            out.add(s);
+        } else if (node.values instanceof String[] arr) {
+            for (String s : arr) {
+                if (out.size() >= limit) {
+                    return;
+                }
+                out.add(s);
+            }
+        }
+        for (Node child : node.children) {
+            if (out.size() >= limit) {
+                return;
+            }
+            collect(child, out, limit);
+        }
+    }
+
+    private static long estimate(Node node) {
+        // 对象头 12 + 3 个引用 12 → 24
+        long bytes = 24;
+        bytes += align(16 + 2L * node.label.length);
+        if (node.children.length > 0) {
+            bytes += align(16 + 4L * node.children.length);
+        }
+        if (node.values instanceof String s) {
+            bytes += stringBytes(s);
+        } else if (node.values instanceof String[] arr) {
+            bytes += align(16 + 4L * arr.length);
+            for (String s : arr) {
+                bytes += stringBytes(s);
+            }
+        }
+        for (Node child : node.children) {
+            bytes += estimate(child);
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String s) {
+        // String 对象 24 + byte[]（Latin1 每字符 1 字节，否则 2 字节）
+        boolean latin1 = s.chars().allMatch(c -> c < 256);
+        return 24 + align(16 + (long) s.length() * (latin1 ? 1 : 2));
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static int commonPrefix(char[] label, char[] key, int pos) {
+        int max = Math.min(label.length, key.length - pos);
+        int i = 0;
+        while (i < max && label[i] == key[pos + i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static char[] normalize(String value) {
+        return value.toLowerCase(Locale.ROOT).toCharArray();
+    }
+
+    private static final class Node {
+        char[] label;
+        Node[] children = NO_CHILDREN;
+        /**
+         * 以该节点结尾的原始值：null、String，或大小写不同的多个值 String[]
+         */
+        Object values;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        /**
+         * 按首字符二分查找子节点，未找到返回 -(插入位置) - 1
+         */
+        int indexOf(char c) {
+            int lo = 0;
+            int hi = children.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char m = children[mid].label[0];
+                if (m < c) {
+                    lo = mid + 1;
+                } else if (m > c) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        void insertChild(int at, Node child) {
+            Node[] next = new Node[children.length + 1];
+            System.arraycopy(children, 0, next, 0, at);
+            next[at] = child;
+            System.arraycopy(children, at, next, at + 1, children.length - at);
+            children = next;
+        }
+
+        void removeChild(int at) {
+            if (children.length == 1) {
+                children = NO_CHILDREN;
+                return;
+            }
+            Node[] next = new Node[children.length - 1];
+            System.arraycopy(children, 0, next, 0, at);
+            System.arraycopy(children, at + 1, next, at, children.length - at - 1);
+            children = next;
+        }
+
+        void mergeWithOnlyChild() {
+            Node child = children[0];
+            char[] merged = Arrays.copyOf(label, label.length + child.label.length);
+            System.arraycopy(child.label, 0, merged, label.length, child.label.length);
+            label = merged;
+            children = child.children;
+            values = child.values;
+        }
+
+        boolean addValue(String value) {
+            if (values == null) {
+                values = value;
+                return true;
+            }
+            if (values instanceof String s) {
+                if (s.equals(value)) {
+                    return false;
+                }
+                values = new String[]{s, value};
+                return true;
+            }
+            String[] arr = (String[]) values;
+            for (String s : arr) {
+                if (s.equals(value)) {
+                    return false;
+                }
+            }
+            String[] next = Arrays.copyOf(arr, arr.length + 1);
+            next[arr.length] = value;
+            values = next;
+            return true;
+        }
+
+        boolean removeValue(String value) {
+            if (values instanceof String s) {
+                if (s.equals(value)) {
+                    values = null;
+                    return true;
+                }
+                return false;
+            }
+            if (values instanceof String[] arr) {
+                for (int i = 0; i < arr.length; i++) {
+                    if (arr[i].equals(value)) {
+                        if (arr.length == 2) {
+                            values = arr[1 - i];
+                        } else {
+                            String[] next = new String[arr.length - 1];
+                            System.arraycopy(arr, 0, next, 0, i);
+                            System.arraycopy(arr, i + 1, next, i, arr.length - i - 1);
+                            values = next;
+                        }
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.userlogin.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 注册唯一性预检查的布隆过滤器
+ *
+ * 启动时加载全部用户名和邮箱，注册、更新时追加。过滤器判定"一定不存在"时
+ * 注册流程可以跳过 existsByUsername / existsByEmail 查询。
+ * 值按数据库排序规则的宽松形式归一化（兼容分解、去除重音、小写，ß 视为 ss），宁可多判存在也不漏判；
+ * 加载完成前一律返回"可能存在"。
+ */
+@Component
+public class UserExistenceFilter implements UserIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final boolean enabled;
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private final Counter skippedQueries;
+    private volatile boolean ready;
+
+    public UserExistenceFilter(
+            @Value("${user.bloom.enabled:true}") boolean enabled,
+            @Value("${user.bloom.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${user.bloom.fpp:0.01}") double fpp,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.usernames = new BloomFilter(enabled ? expectedInsertions : 1, fpp);
+        this.emails = new BloomFilter(enabled ? expectedInsertions : 1, fpp);
+        this.skippedQueries = Counter.builder("user.bloom.skipped.queries")
+                .description("布隆过滤器判定不存在而跳过的 exists 查询次数")
+                .register(meterRegistry);
+        Gauge.builder("user.bloom.fill.ratio", usernames, BloomFilter::fillRatio)
+                .tag("field", "username")
+                .register(meterRegistry);
+        Gauge.builder("user.bloom.fill.ratio", emails, BloomFilter::fillRatio)
+                .tag("field", "email")
+                .register(meterRegistry);
+        Gauge.builder("user.bloom.expected.fpp", usernames, BloomFilter::expectedFpp)
+                .tag("field", "username")
+                .register(meterRegistry);
+        Gauge.builder("user.bloom.expected.fpp", emails, BloomFilter::expectedFpp)
+                .tag("field", "email")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void onUserAdded(long id, String username, String email) {
+        put(username, email);
+    }
+
+    /**
+     * 记录用户名和邮箱，注册时在写库前调用，保证并发注册同名用户时不会漏判
+     */
+    public void put(String username, String email) {
+        if (!enabled) {
+            return;
+        }
+        if (username != null) {
+            usernames.put(normalize(username));
+        }
+        if (email != null) {
+            emails.put(normalize(email));
+        }
+    }
+
+    @Override
+    public void onUserRemoved(long id, String username, String email) {
+        // 布隆过滤器不支持删除，旧值保留只会增加误判，不影响正确性
+    }
+
+    @Override
+    public void onLoaded() {
+        ready = true;
+    }
+
+    /**
+     * 用户名是否可能已存在，false 表示一定不存在
+     */
+    public boolean mightContainUsername(String username) {
+        return check(usernames, username);
+    }
+
+    /**
+     * 邮箱是否可能已存在，false 表示一定不存在
+     */
+    public boolean mightContainEmail(String email) {
+        return check(emails, email);
+    }
+
+    private boolean check(BloomFilter filter, String value) {
+        if (!enabled || !ready || value == null) {
+            return true;
+        }
+        if (filter.mightContain(normalize(value))) {
+            return true;
+        }
+        skippedQueries.increment();
+        return false;
+    }
+
+    private static String normalize(String value) {
+        // NFKD 同时处理全角字符、连字等兼容形式，与 utf8mb4_0900_ai_ci 一样视为相同
+        String decomposed = Normalizer.normalize(value.strip(), Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).replace("ß", "ss");
+    }
+}
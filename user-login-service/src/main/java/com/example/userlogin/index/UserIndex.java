@@ -0,0 +1,30 @@
+package com.example.userlogin.index;
+
+/**
+ * 进程内用户索引
+ *
+ * 启动时由 {@link UserIndexLoader} 流式扫描 users 表统一加载，
+ * 之后根据 UserChangedEvent 在事务提交后增量维护。
+ */
+public interface UserIndex {
+
+    /**
+     * 是否启用，未启用的索引不参与加载和维护
+     */
+    boolean isEnabled();
+
+    /**
+     * 加入一个用户（加载或注册、更新后）
+     */
+    void onUserAdded(long id, String username, String email);
+
+    /**
+     * 移除一个用户（删除或更新前的旧值）
+     */
+    void onUserRemoved(long id, String username, String email);
+
+    /**
+     * 全表加载完成，之后索引结果可用
+     */
+    void onLoaded();
+}
@@ -0,0 +1,118 @@
+package com.example.userlogin.index;
+
+import com.example.userlogin.event.UserChangedEvent;
+import com.example.userlogin.repository.UserIdentity;
+import com.example.userlogin.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 用户索引加载与维护
+ *
+ * 启动完成后对 users 表做一次流式扫描，同时填充所有启用的 {@link UserIndex}；
+ * 运行期间在事务提交后把用户变更分发给各索引。
+ * 扫描期间提交的变更可能在扫描结果中，也可能不在，先缓存起来，扫描结束后按顺序补上
+ * （重复加入、移除不存在的用户对索引无影响）。
+ */
+@Component
+public class UserIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIndexLoader.class);
+
+    private final List<UserIndex> indexes;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    /**
+     * 扫描期间的变更；loading 只在持有 pendingLock 时由 true 改为 false
+     */
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private final List<UserChangedEvent> pending = new ArrayList<>();
+    private volatile boolean loading = true;
+
+    public UserIndexLoader(List<UserIndex> indexes, UserRepository userRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.indexes = indexes.stream().filter(UserIndex::isEnabled).toList();
+        this.userRepository = userRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (indexes.isEmpty()) {
+            loading = false;
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long count = readOnlyTx.execute(status -> {
+            long n = 0;
+            try (Stream<UserIdentity> users = userRepository.streamIdentities()) {
+                for (UserIdentity user : (Iterable<UserIdentity>) users::iterator) {
+                    for (UserIndex index : indexes) {
+                        index.onUserAdded(user.getId(), user.getUsername(), user.getEmail());
+                    }
+                    n++;
+                }
+            }
+            return n;
+        });
+        int buffered;
+        pendingLock.lock();
+        try {
+            indexes.forEach(UserIndex::onLoaded);
+            buffered = pending.size();
+            pending.forEach(this::apply);
+            pending.clear();
+            loading = false;
+        } finally {
+            pendingLock.unlock();
+        }
+        log.info("用户索引加载完成: {} 个用户, 扫描期间变更 {} 个, {} 个索引, 耗时 {} ms",
+                count, buffered, indexes.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (loading) {
+            pendingLock.lock();
+            try {
+                if (loading) {
+                    pending.add(event);
+                    return;
+                }
+            } finally {
+                pendingLock.unlock();
+            }
+        }
+        apply(event);
+    }
+
+    private void apply(UserChangedEvent event) {
+        for (UserIndex index : indexes) {
+            switch (event.type()) {
+                case CREATED -> index.onUserAdded(event.id(), event.username(), event.email());
+                case DELETED -> index.onUserRemoved(event.id(), event.username(), event.email());
+                case UPDATED -> {
+                    if (!Objects.equals(event.username(), event.previousUsername())
+                            || !Objects.equals(event.email(), event.previousEmail())) {
+                        index.onUserRemoved(event.id(), event.previousUsername(), event.previousEmail());
+                        index.onUserAdded(event.id(), event.username(), event.email());
+                    }
+                }
+            }
+        }
+    }
+}
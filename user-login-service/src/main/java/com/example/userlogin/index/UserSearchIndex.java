@@ -0,0 +1,95 @@
+package com.example.userlogin.index;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户名/邮箱子串搜索索引（可选）
+ *
+ * 数据库中 lower(col) like '%x%' 无法使用 B-tree 索引，每次搜索都是全表扫描。
+ * 开启后在内存中为 username 和 email 维护 trigram 索引，先查出候选 id，
+ * 再只从数据库取当前页。加载完成前、查询串过短或候选过多时返回 null，回退到数据库查询。
+ * 索引不保存原值，候选不精确时（查询串长于一个 trigram）由调用方在这些 id 中按原条件过滤。
+ */
+@Component
+public class UserSearchIndex implements UserIndex {
+
+    private final boolean enabled;
+    private final int maxMatches;
+    private final NgramIndex usernames = new NgramIndex();
+    private final NgramIndex emails = new NgramIndex();
+    private volatile boolean ready;
+
+    /**
+     * 索引查询结果
+     *
+     * @param ids   候选 id（升序）
+     * @param exact 为 false 时 ids 中可能有不匹配的 id，需要再按原条件过滤
+     */
+    public record Candidates(long[] ids, boolean exact) {
+    }
+
+    public UserSearchIndex(
+            @Value("${user.search-index.enabled:false}") boolean enabled,
+            @Value("${user.search-index.max-matches:5000}") int maxMatches) {
+        this.enabled = enabled;
+        this.maxMatches = maxMatches;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void onUserAdded(long id, String username, String email) {
+        usernames.add(id, username);
+        emails.add(id, email);
+    }
+
+    @Override
+    public void onUserRemoved(long id, String username, String email) {
+        usernames.remove(id, username);
+        emails.remove(id, email);
+    }
+
+    @Override
+    public void onLoaded() {
+        usernames.finishLoad();
+        emails.finishLoad();
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 查询用户名可能包含 keyword 的用户 id，无法使用索引时返回 null
+     */
+    public Candidates findByUsername(String keyword) {
+        return search(usernames, keyword);
+    }
+
+    /**
+     * 查询邮箱可能包含 keyword 的用户 id，无法使用索引时返回 null
+     */
+    public Candidates findByEmail(String keyword) {
+        return search(emails, keyword);
+    }
+
+    /**
+     * 两个索引的倒排表条目总数（每条 8 字节）
+     */
+    public long postingCount() {
+        return usernames.postingCount() + emails.postingCount();
+    }
+
+    private Candidates search(NgramIndex index, String keyword) {
+        if (!ready) {
+            return null;
+        }
+        long[] ids = index.search(keyword, maxMatches);
+        return ids != null ? new Candidates(ids, NgramIndex.isExact(keyword)) : null;
+    }
+}
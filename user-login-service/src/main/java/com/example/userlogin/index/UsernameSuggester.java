@@ -0,0 +1,77 @@
+package com.example.userlogin.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 用户名前缀补全索引
+ *
+ * 启动时加载全部用户名到 {@link RadixTrie}，之后随注册、更新、删除同步维护，
+ * 前缀查询在内存中完成，不访问数据库。
+ */
+@Component
+public class UsernameSuggester implements UserIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameSuggester.class);
+
+    private final boolean enabled;
+    private final RadixTrie trie = new RadixTrie();
+    private volatile boolean ready;
+
+    public UsernameSuggester(@Value("${user.suggest.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void onUserAdded(long id, String username, String email) {
+        if (username != null) {
+            trie.add(username);
+        }
+    }
+
+    @Override
+    public void onUserRemoved(long id, String username, String email) {
+        if (username != null) {
+            trie.remove(username);
+        }
+    }
+
+    @Override
+    public void onLoaded() {
+        ready = true;
+        log.info("用户名补全索引: {} 个用户名, {} 个节点, 约 {} KB",
+                trie.size(), trie.nodeCount(), trie.estimateHeapBytes() / 1024);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 按字典序返回以 prefix 开头（忽略大小写）的前 limit 个用户名
+     */
+    public List<String> suggest(String prefix, int limit) {
+        return trie.findByPrefix(prefix, limit);
+    }
+
+    public int size() {
+        return trie.size();
+    }
+
+    public int nodeCount() {
+        return trie.nodeCount();
+    }
+
+    public long estimateHeapBytes() {
+        return trie.estimateHeapBytes();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.userlogin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * JFR 事件：一次登录（UserService.login）
+ *
+ * 用户名不以明文记录，只记录 SHA-256 前 8 字节，可以把同一用户的多次登录关联起来。
+ * 耗时内的用户查询、密码校验对应同一线程上的 {@link RepositoryCallEvent} 和 password-hash 线程的执行。
+ */
+@Name("com.example.userlogin.Login")
+@Label("Login")
+@Category({"User Login", "Service"})
+@Description("UserService.login 调用")
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    public static final String SUCCESS = "success";
+    public static final String UNKNOWN_USER = "unknown_user";
+    public static final String BAD_PASSWORD = "bad_password";
+    public static final String BUSY = "busy";
+    public static final String ERROR = "error";
+
+    private static final MessageDigest SHA256;
+
+    static {
+        try {
+            SHA256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Label("Username Hash")
+    @Description("用户名 SHA-256 的前 8 字节（十六进制）")
+    String usernameHash;
+
+    @Label("Outcome")
+    @Description("success / unknown_user / bad_password / busy / error")
+    String outcome;
+
+    /**
+     * 结束计时，超过阈值时写入事件；哈希只在需要写入时计算
+     */
+    public void finish(String username, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.usernameHash = hash(username);
+            this.outcome = outcome;
+            commit();
+        }
+    }
+
+    static String hash(String username) {
+        if (username == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = (MessageDigest) SHA256.clone();
+            byte[] bytes = digest.digest(username.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes, 0, 8);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
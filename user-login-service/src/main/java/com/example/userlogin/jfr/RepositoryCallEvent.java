@@ -0,0 +1,71 @@
+package com.example.userlogin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * JFR 事件：一次仓储方法调用（对应一次或多次数据库往返）
+ */
+@Name("com.example.userlogin.RepositoryCall")
+@Label("Repository Call")
+@Category({"User Login", "Database"})
+@Description("UserRepository 方法调用")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Method")
+    @Description("仓储接口及方法名，如 UserRepository.findByUsername")
+    String method;
+
+    @Label("Rows")
+    @Description("返回的行数；更新语句为影响行数；无法确定时为 -1")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+
+    public void finish(String method, Object result, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.rows = failed ? -1 : rowsOf(result);
+            this.failed = failed;
+            commit();
+        }
+    }
+
+    static long rowsOf(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Integer affected) {
+            return affected;
+        }
+        if (result instanceof Iterable<?> || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.userlogin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：鉴权过滤器对请求 token 的一次校验（先查已校验 token 缓存，未命中时由 JwtUtil 完整校验）
+ */
+@Name("com.example.userlogin.TokenVerification")
+@Label("Token Verification")
+@Category({"User Login", "Security"})
+@Description("JwtAuthFilter 校验 token")
+@StackTrace(false)
+public class TokenVerificationEvent extends Event {
+
+    @Label("Cache Hit")
+    @Description("命中已校验 token 缓存")
+    boolean cacheHit;
+
+    @Label("Valid")
+    boolean valid;
+
+    public void finish(boolean cacheHit, boolean valid) {
+        end();
+        if (shouldCommit()) {
+            this.cacheHit = cacheHit;
+            this.valid = valid;
+            commit();
+        }
+    }
+}
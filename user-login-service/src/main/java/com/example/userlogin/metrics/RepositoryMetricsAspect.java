@@ -0,0 +1,43 @@
+package com.example.userlogin.metrics;
+
+import com.example.userlogin.jfr.RepositoryCallEvent;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * 累计每个请求内的仓储调用次数和耗时，并为每次调用产生 JFR 事件 {@link RepositoryCallEvent}
+ *
+ * 单次调用的耗时分布由 Spring Boot 的 spring.data.repository.invocations 记录，
+ * 这里只做按请求的汇总，用于发现 N+1 查询和单个接口的数据库耗时占比。
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    @Around("execution(* com.example.userlogin.repository..*(..))")
+    public Object countQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestQueryStats stats = RequestQueryStats.current();
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (stats == null && !event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            if (stats != null) {
+                stats.record(System.nanoTime() - start);
+            }
+            Signature signature = joinPoint.getSignature();
+            event.finish(signature.getDeclaringType().getSimpleName() + "." + signature.getName(), result, failed);
+        }
+    }
+}
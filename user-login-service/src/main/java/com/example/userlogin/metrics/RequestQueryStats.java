@@ -0,0 +1,52 @@
+package com.example.userlogin.metrics;
+
+import jakarta.servlet.ServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 单个请求内的仓储调用统计（次数和累计耗时）
+ *
+ * 由 {@link com.example.userlogin.filter.RequestMetricsFilter} 创建并保存在请求属性中，
+ * {@link RepositoryMetricsAspect} 累加，请求结束时记录为指标。只在请求线程上访问。
+ */
+public class RequestQueryStats {
+
+    static final String REQUEST_ATTR = RequestQueryStats.class.getName();
+
+    private int count;
+    private long nanos;
+
+    void record(long elapsedNanos) {
+        count++;
+        nanos += elapsedNanos;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * 当前请求的统计，不在请求线程上（异步任务、启动加载）时返回 null
+     */
+    static RequestQueryStats current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (RequestQueryStats) attributes.getAttribute(REQUEST_ATTR, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * 为请求创建统计并保存到请求属性
+     */
+    public static RequestQueryStats attach(ServletRequest request) {
+        RequestQueryStats stats = new RequestQueryStats();
+        request.setAttribute(REQUEST_ATTR, stats);
+        return stats;
+    }
+}
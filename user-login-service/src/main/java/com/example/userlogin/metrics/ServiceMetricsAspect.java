@@ -0,0 +1,53 @@
+package com.example.userlogin.metrics;
+
+import com.example.userlogin.service.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * UserService 每个公开方法的耗时和结果（user.service，标签 method、outcome）
+ *
+ * outcome：success；empty（返回 null 或空 Optional，如登录失败、用户不存在）；
+ * busy（密码哈希线程池繁忙）；error（其他异常）。
+ * 优先级高于事务切面，耗时包含事务提交。
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.example.userlogin.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = result == null || (result instanceof Optional<?> optional && optional.isEmpty())
+                    ? "empty" : "success";
+            return result;
+        } catch (ServiceBusyException e) {
+            outcome = "busy";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("user.service")
+                    .description("UserService 方法耗时")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.userlogin.repository;
+
+/**
+ * 用户标识投影 - 只包含 id、用户名和邮箱
+ * 用于构建内存索引时流式扫描 users 表
+ */
+public interface UserIdentity {
+
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+}
@@ -1,21 +1,55 @@
 package com.example.userlogin.repository;
 
 import com.example.userlogin.entity.UserDO;
+import com.example.userlogin.vo.UserVO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserDO, Long> {
 
+    /**
+     * 列表、搜索使用的 DTO 投影：只查询 UserVO 的列，结果不进入持久化上下文
+     */
+    String SELECT_USER_VO =
+            "select new com.example.userlogin.vo.UserVO(u.id, u.username, u.email, u.createdAt, u.updatedAt) from UserDO u";
+    String COUNT_USERS = "select count(u) from UserDO u";
+    // 模糊搜索条件：转义输入中的 % 和 _，忽略大小写
+    String WHERE_USERNAME_LIKE =
+            " where upper(u.username) like upper(concat('%', ?#{escape([0])}, '%')) escape ?#{escapeCharacter()}";
+    String WHERE_EMAIL_LIKE =
+            " where upper(u.email) like upper(concat('%', ?#{escape([0])}, '%')) escape ?#{escapeCharacter()}";
+
     /**
      * 根据用户名查找用户
      */
     Optional<UserDO> findByUsername(String username);
 
+    /**
+     * 根据 id 查找用户，不自带事务：继承的 findById 总在只读事务中执行（只读事务路由到从库），
+     * 本方法在调用方的上下文中执行，非只读上下文中读主库
+     */
+    Optional<UserDO> findUserById(Long id);
+
     /**
      * 根据邮箱查找用户
      */
@@ -32,12 +66,107 @@ public interface UserRepository extends JpaRepository<UserDO, Long> {
     boolean existsByEmail(String email);
 
     /**
-     * 根据用户名模糊搜索（分页）
+     * 用户总数，不自带事务（继承的 count 总在只读事务中执行，路由到从库）；非只读上下文中在主库计数
+     */
+    @Query(COUNT_USERS)
+    long countAll();
+
+    /**
+     * 分页获取用户，直接查询 UserVO 所需列（不含密码），不加载实体
+     */
+    @Query(value = SELECT_USER_VO, countQuery = COUNT_USERS)
+    Page<UserVO> findUserPage(Pageable pageable);
+
+    /**
+     * 分页获取用户，不执行 count 查询，只判断是否有下一页
+     */
+    @Query(SELECT_USER_VO)
+    Slice<UserVO> findUserSlice(Pageable pageable);
+
+    /**
+     * 根据用户名模糊搜索（分页，忽略大小写）
+     */
+    @Query(value = SELECT_USER_VO + WHERE_USERNAME_LIKE, countQuery = COUNT_USERS + WHERE_USERNAME_LIKE)
+    Page<UserVO> searchByUsername(String username, Pageable pageable);
+
+    /**
+     * 根据用户名模糊搜索，不执行 count 查询
+     */
+    @Query(SELECT_USER_VO + WHERE_USERNAME_LIKE)
+    Slice<UserVO> searchSliceByUsername(String username, Pageable pageable);
+
+    /**
+     * 根据邮箱模糊搜索（分页，忽略大小写）
+     */
+    @Query(value = SELECT_USER_VO + WHERE_EMAIL_LIKE, countQuery = COUNT_USERS + WHERE_EMAIL_LIKE)
+    Page<UserVO> searchByEmail(String email, Pageable pageable);
+
+    /**
+     * 根据邮箱模糊搜索，不执行 count 查询
+     */
+    @Query(SELECT_USER_VO + WHERE_EMAIL_LIKE)
+    Slice<UserVO> searchSliceByEmail(String email, Pageable pageable);
+
+    /**
+     * 批量检查已存在的用户名（集合查询）
+     */
+    @Query("select u.username from UserDO u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * 批量检查已存在的邮箱（集合查询）
+     */
+    @Query("select u.email from UserDO u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * 仅当密码仍为 oldPassword 时替换为 newPassword（登录时升级密码哈希），返回更新行数
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update UserDO u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int replacePassword(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
+
+    /**
+     * 按用户名前缀查询（忽略大小写，前缀补全索引未就绪时使用），按小写用户名的字符编码排序，与前缀树结果一致
+     * （转为二进制排序，不受数据库排序规则影响）；prefix 需已转为小写。lower() 使该查询无法使用 username 索引，只作为回退
+     */
+    @Query("select u.username from UserDO u where lower(u.username) like concat(:#{escape(#prefix)}, '%')"
+            + " escape :#{escapeCharacter()} order by cast(lower(u.username) as Binary)")
+    List<String> findUsernamesByLowerPrefix(@Param("prefix") String prefix, Limit limit);
+
+    /**
+     * 在给定 id 中筛选用户名包含关键字的（校验子串索引的候选）
+     */
+    @Query("select u.id from UserDO u where u.id in :ids and upper(u.username)"
+            + " like upper(concat('%', :#{escape(#keyword)}, '%')) escape :#{escapeCharacter()}")
+    List<Long> filterIdsByUsername(@Param("keyword") String username, @Param("ids") Collection<Long> ids);
+
+    /**
+     * 在给定 id 中筛选邮箱包含关键字的（校验子串索引的候选）
+     */
+    @Query("select u.id from UserDO u where u.id in :ids and upper(u.email)"
+            + " like upper(concat('%', :#{escape(#keyword)}, '%')) escape :#{escapeCharacter()}")
+    List<Long> filterIdsByEmail(@Param("keyword") String email, @Param("ids") Collection<Long> ids);
+
+    /**
+     * 按 id 集合分页查询，不执行 count 查询（总数由调用方给出）
+     */
+    @Query(SELECT_USER_VO + " where u.id in :ids")
+    Slice<UserVO> findUserSliceByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
+
+    /**
+     * 流式读取所有用户的 id、用户名和邮箱，用于构建内存索引
+     * 需要在事务内使用并关闭 Stream；MySQL 需在连接串中开启 useCursorFetch 才会按 fetch size 分批读取
      */
-    Page<UserDO> findByUsernameContainingIgnoreCase(String username, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.id as id, u.username as username, u.email as email from UserDO u")
+    Stream<UserIdentity> streamIdentities();
 
     /**
-     * 根据邮箱模糊搜索（分页）
+     * 游标（keyset）分页查询，只查询 UserSummary 的列（不含密码），不加载实体
+     * 按 (排序字段, id) 定位起点，不使用 OFFSET，深翻页与第一页代价相同；排序字段须为 UserSummary 的属性
      */
-    Page<UserDO> findByEmailContainingIgnoreCase(String email, Pageable pageable);
+    Window<UserSummary> findBy(ScrollPosition position, Sort sort, Limit limit);
 }
@@ -0,0 +1,20 @@
+package com.example.userlogin.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户列表投影 - 只包含 UserVO 所需的列（不含密码）
+ * 用于游标分页：keyset 查询不支持类投影（UserVO），由服务层转换
+ */
+public interface UserSummary {
+
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
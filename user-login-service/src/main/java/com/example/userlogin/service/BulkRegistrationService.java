@@ -0,0 +1,257 @@
+package com.example.userlogin.service;
+
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.event.UserChangedEvent;
+import com.example.userlogin.index.UserExistenceFilter;
+import com.example.userlogin.repository.UserRepository;
+import com.example.userlogin.util.IdGenerator;
+import com.example.userlogin.vo.BulkRegisterRowVO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 批量注册服务
+ *
+ * 按块处理：从迭代器读取一块（请求体边解析边读取，内存中只保留当前块），逐行校验 DTO，块内去重，用 IN 查询批量检查用户名/邮箱是否已存在，
+ * 主键由 {@link IdGenerator} 预先生成，密码由 {@link PasswordHasher} 并行哈希，再用 JDBC batch 一次写入整块。
+ * 每块一个事务，已提交的块不受后续失败影响。
+ */
+@Service
+public class BulkRegistrationService {
+
+    private static final String INSERT_SQL =
+            "insert into users (id, username, password, email, created_at, updated_at) values (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * 批量注册进度回调
+     */
+    public interface Listener {
+
+        /**
+         * 单行处理结果
+         */
+        void onRow(BulkRegisterRowVO row);
+
+        /**
+         * 一块处理完成（累计值）
+         */
+        void onChunk(int processed, int created, int failed);
+    }
+
+    /**
+     * 批量注册汇总
+     */
+    public record Summary(int total, int created, int failed, long elapsedMs) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private UserCountCache userCountCache;
+
+    @Autowired
+    private UserExistenceFilter userExistenceFilter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BulkRegistrationService(PlatformTransactionManager transactionManager,
+                                   @Value("${user.bulk.chunk-size:1000}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 批量注册
+     */
+    public Summary register(Iterator<UserRegisterDTO> users, Listener listener) {
+        long start = System.currentTimeMillis();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<UserRegisterDTO> chunk = new ArrayList<>(chunkSize);
+        int processed = 0;
+        int created = 0;
+        int failed = 0;
+        while (users.hasNext()) {
+            chunk.add(users.next());
+            if (chunk.size() < chunkSize && users.hasNext()) {
+                continue;
+            }
+            int chunkCreated = processChunk(chunk, processed, seenUsernames, seenEmails, listener);
+            processed += chunk.size();
+            created += chunkCreated;
+            failed += chunk.size() - chunkCreated;
+            listener.onChunk(processed, created, failed);
+            chunk.clear();
+        }
+        return new Summary(processed, created, failed, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 处理一块数据，返回成功注册的行数
+     */
+    private int processChunk(List<UserRegisterDTO> chunk, int offset,
+                             Set<String> seenUsernames, Set<String> seenEmails, Listener listener) {
+        // 1. 逐行校验并在整个导入范围内去重
+        List<Row> rows = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            UserRegisterDTO dto = chunk.get(i);
+            int index = offset + i;
+            String error = validate(dto, seenUsernames, seenEmails);
+            if (error != null) {
+                listener.onRow(BulkRegisterRowVO.failed(index, dto == null ? null : dto.getUsername(), error));
+            } else {
+                rows.add(new Row(index, idGenerator.nextId(), dto, null));
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        // 2. 集合查询检查数据库中已存在的用户名和邮箱
+        Set<String> existingUsernames = lowerCaseSet(userRepository.findExistingUsernames(
+                rows.stream().map(r -> r.dto.getUsername()).toList()));
+        List<String> emails = rows.stream().map(r -> r.dto.getEmail()).filter(e -> e != null).toList();
+        Set<String> existingEmails = emails.isEmpty()
+                ? Set.of()
+                : lowerCaseSet(userRepository.findExistingEmails(emails));
+
+        List<Row> toInsert = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existingUsernames.contains(lower(row.dto.getUsername()))) {
+                listener.onRow(BulkRegisterRowVO.failed(row.index, row.dto.getUsername(),
+                        "用户名已存在: " + row.dto.getUsername()));
+            } else if (row.dto.getEmail() != null && existingEmails.contains(lower(row.dto.getEmail()))) {
+                listener.onRow(BulkRegisterRowVO.failed(row.index, row.dto.getUsername(),
+                        "邮箱已存在: " + row.dto.getEmail()));
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return 0;
+        }
+        List<String> hashes = passwordHasher.hashAll(toInsert.stream().map(r -> r.dto.getPassword()).toList());
+        for (int i = 0; i < toInsert.size(); i++) {
+            toInsert.set(i, toInsert.get(i).withPasswordHash(hashes.get(i)));
+        }
+
+        // 3. JDBC batch 写入；检查之后被并发注册抢占时整块回滚，改为逐行写入定位冲突行
+        List<Row> inserted;
+        try {
+            transactionTemplate.executeWithoutResult(status -> batchInsert(toInsert));
+            inserted = toInsert;
+        } catch (DataIntegrityViolationException e) {
+            inserted = insertOneByOne(toInsert, listener);
+        }
+        if (inserted.isEmpty()) {
+            return 0;
+        }
+
+        // 4. 输出结果并同步索引、计数缓存
+        for (Row row : inserted) {
+            listener.onRow(BulkRegisterRowVO.created(row.index, row.dto.getUsername(), row.id));
+            userExistenceFilter.put(row.dto.getUsername(), row.dto.getEmail());
+            eventPublisher.publishEvent(UserChangedEvent.created(row.id, row.dto.getUsername(), row.dto.getEmail()));
+        }
+        userCountCache.adjust(inserted.size());
+        return inserted.size();
+    }
+
+    private String validate(UserRegisterDTO dto, Set<String> seenUsernames, Set<String> seenEmails) {
+        if (dto == null) {
+            return "数据为空";
+        }
+        Set<ConstraintViolation<UserRegisterDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (!seenUsernames.add(lower(dto.getUsername()))) {
+            return "导入数据中用户名重复: " + dto.getUsername();
+        }
+        if (dto.getEmail() != null && !seenEmails.add(lower(dto.getEmail()))) {
+            return "导入数据中邮箱重复: " + dto.getEmail();
+        }
+        return null;
+    }
+
+    private void batchInsert(List<Row> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.id);
+            ps.setString(2, row.dto.getUsername());
+            ps.setString(3, row.passwordHash);
+            ps.setString(4, row.dto.getEmail());
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+        });
+    }
+
+    private List<Row> insertOneByOne(List<Row> rows, Listener listener) {
+        List<Row> inserted = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> batchInsert(List.of(row)));
+                inserted.add(row);
+            } catch (DataIntegrityViolationException e) {
+                listener.onRow(BulkRegisterRowVO.failed(row.index, row.dto.getUsername(),
+                        "用户名或邮箱已存在: " + row.dto.getUsername()));
+            }
+        }
+        return inserted;
+    }
+
+    private static Set<String> lowerCaseSet(List<String> values) {
+        Set<String> set = new HashSet<>(values.size() * 2);
+        for (String v : values) {
+            if (v != null) {
+                set.add(lower(v));
+            }
+        }
+        return set;
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private record Row(int index, long id, UserRegisterDTO dto, String passwordHash) {
+
+        Row withPasswordHash(String hash) {
+            return new Row(index, id, dto, hash);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.userlogin.service;
+
+import com.example.userlogin.util.IdGenerator;
+import com.example.userlogin.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 登录记录写入器（write-behind）
+ *
+ * 登录成功时只把 (userId, 时间) 放入有界无锁环形队列（{@link MpscRingBuffer}），不访问数据库；
+ * 后台线程每 flushIntervalMs 取出积压的记录，按 batchSize 分批在一个事务中写入：
+ * login_events 批量插入，同一用户的多次登录合并为一条 users.last_login_at 更新（取最晚时间）。
+ * 队列满时丢弃记录并计数，登录本身不受影响。
+ * 停止时（在 Web 服务停止接收请求之后）先写完队列中剩余的记录再退出。
+ */
+@Component
+public class LoginEventRecorder implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginEventRecorder.class);
+
+    private static final String INSERT_SQL = "insert into login_events (id, user_id, login_at) values (?, ?, ?)";
+    private static final String UPDATE_LAST_LOGIN_SQL =
+            "update users set last_login_at = ? where id = ? and (last_login_at is null or last_login_at < ?)";
+
+    /**
+     * 一次成功登录
+     */
+    private record LoginRecord(long userId, long loginAtMillis) {
+    }
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final MpscRingBuffer<LoginRecord> buffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IdGenerator idGenerator;
+
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public LoginEventRecorder(
+            @Value("${user.login-events.enabled:true}") boolean enabled,
+            @Value("${user.login-events.buffer-capacity:8192}") int bufferCapacity,
+            @Value("${user.login-events.batch-size:500}") int batchSize,
+            @Value("${user.login-events.flush-interval-ms:1000}") long flushIntervalMs,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            IdGenerator idGenerator,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idGenerator = idGenerator;
+
+        Gauge.builder("user.login-events.pending", buffer, MpscRingBuffer::size)
+                .description("等待写入的登录记录数")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("user.login-events.dropped")
+                .description("队列已满被丢弃的登录记录数")
+                .register(meterRegistry);
+        this.written = Counter.builder("user.login-events.written")
+                .description("已写入的登录记录数")
+                .register(meterRegistry);
+        this.failed = Counter.builder("user.login-events.failed")
+                .description("写库失败丢弃的登录记录数")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("user.login-events.flush")
+                .description("每批登录记录的写库耗时")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录一次成功登录，不阻塞、不访问数据库
+     */
+    public void record(long userId) {
+        if (!enabled || !running) {
+            return;
+        }
+        if (!buffer.offer(new LoginRecord(userId, System.currentTimeMillis()))) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "login-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("登录记录写入线程未在 30 秒内结束，剩余 {} 条未写入", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 在 Web 服务（DEFAULT_PHASE - 2048）之后停止，停止前不再有新的登录
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runWriter() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            drainAll();
+        }
+        // 停止标志设置前已入队的记录在这里写完
+        drainAll();
+    }
+
+    private void drainAll() {
+        List<LoginRecord> batch = new ArrayList<>(Math.min(batchSize, buffer.capacity()));
+        while (buffer.drain(batch::add, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<LoginRecord> batch) {
+        long start = System.nanoTime();
+        // 同一用户只保留最晚的登录时间
+        Map<Long, Long> lastLogin = new HashMap<>();
+        for (LoginRecord record : batch) {
+            lastLogin.merge(record.userId(), record.loginAtMillis(), Math::max);
+        }
+        List<Map.Entry<Long, Long>> updates = new ArrayList<>(lastLogin.entrySet());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, record) -> {
+                    ps.setLong(1, idGenerator.nextId());
+                    ps.setLong(2, record.userId());
+                    ps.setTimestamp(3, new Timestamp(record.loginAtMillis()));
+                });
+                jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, updates, updates.size(), (ps, entry) -> {
+                    Timestamp at = new Timestamp(entry.getValue());
+                    ps.setTimestamp(1, at);
+                    ps.setLong(2, entry.getKey());
+                    ps.setTimestamp(3, at);
+                });
+            });
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.warn("写入 {} 条登录记录失败: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
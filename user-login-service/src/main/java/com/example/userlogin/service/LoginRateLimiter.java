@@ -0,0 +1,112 @@
+package com.example.userlogin.service;
+
+import com.example.userlogin.util.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录、注册接口的准入控制
+ *
+ * 分别按客户端 IP 和用户名限流（{@link RateLimiter}），在查询数据库之前拒绝暴力破解和批量注册流量：
+ * 先检查 IP，再检查用户名，任一超限即抛出 {@link RateLimitedException}。
+ * 用户名按小写计，与数据库大小写不敏感的唯一约束一致。
+ * 部署在反向代理之后时需设置 server.forward-headers-strategy，使客户端 IP 取自 X-Forwarded-For。
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final String MESSAGE = "请求过于频繁，请稍后重试";
+
+    private final boolean enabled;
+    private final Limit loginByIp;
+    private final Limit loginByUsername;
+    private final Limit registerByIp;
+    private final Limit registerByUsername;
+
+    public LoginRateLimiter(
+            @Value("${user.rate-limit.enabled:true}") boolean enabled,
+            @Value("${user.rate-limit.max-keys:100000}") int maxKeys,
+            @Value("${user.rate-limit.login.ip.per-minute:60}") double loginIpPerMinute,
+            @Value("${user.rate-limit.login.ip.burst:20}") int loginIpBurst,
+            @Value("${user.rate-limit.login.username.per-minute:10}") double loginUsernamePerMinute,
+            @Value("${user.rate-limit.login.username.burst:5}") int loginUsernameBurst,
+            @Value("${user.rate-limit.register.ip.per-minute:10}") double registerIpPerMinute,
+            @Value("${user.rate-limit.register.ip.burst:5}") int registerIpBurst,
+            @Value("${user.rate-limit.register.username.per-minute:5}") double registerUsernamePerMinute,
+            @Value("${user.rate-limit.register.username.burst:3}") int registerUsernameBurst,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.loginByIp = new Limit("login", "ip",
+                new RateLimiter(loginIpPerMinute, loginIpBurst, maxKeys), meterRegistry);
+        this.loginByUsername = new Limit("login", "username",
+                new RateLimiter(loginUsernamePerMinute, loginUsernameBurst, maxKeys), meterRegistry);
+        this.registerByIp = new Limit("register", "ip",
+                new RateLimiter(registerIpPerMinute, registerIpBurst, maxKeys), meterRegistry);
+        this.registerByUsername = new Limit("register", "username",
+                new RateLimiter(registerUsernamePerMinute, registerUsernameBurst, maxKeys), meterRegistry);
+    }
+
+    /**
+     * 登录准入检查
+     */
+    public void checkLogin(String clientIp, String username) {
+        check(loginByIp, loginByUsername, clientIp, username);
+    }
+
+    /**
+     * 注册准入检查
+     */
+    public void checkRegister(String clientIp, String username) {
+        check(registerByIp, registerByUsername, clientIp, username);
+    }
+
+    private void check(Limit byIp, Limit byUsername, String clientIp, String username) {
+        if (!enabled) {
+            return;
+        }
+        if (clientIp != null) {
+            byIp.acquire(clientIp);
+        }
+        if (username != null) {
+            byUsername.acquire(username.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * 一个限流维度及其指标（user.rate-limit.rejected、user.rate-limit.keys，标签 endpoint、key）
+     */
+    private static final class Limit {
+
+        private final RateLimiter limiter;
+        private final Counter rejected;
+
+        Limit(String endpoint, String keyType, RateLimiter limiter, MeterRegistry meterRegistry) {
+            this.limiter = limiter;
+            this.rejected = Counter.builder("user.rate-limit.rejected")
+                    .description("被限流拒绝的请求数")
+                    .tag("endpoint", endpoint)
+                    .tag("key", keyType)
+                    .register(meterRegistry);
+            Gauge.builder("user.rate-limit.keys", limiter, RateLimiter::size)
+                    .description("限流表中的 key 数")
+                    .tag("endpoint", endpoint)
+                    .tag("key", keyType)
+                    .register(meterRegistry);
+        }
+
+        void acquire(String key) {
+            long waitNanos = limiter.tryAcquire(key);
+            if (waitNanos > 0) {
+                rejected.increment();
+                throw new RateLimitedException(MESSAGE,
+                        Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+            }
+        }
+    }
+}
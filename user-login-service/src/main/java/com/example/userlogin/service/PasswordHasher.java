@@ -0,0 +1,204 @@
+package com.example.userlogin.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 密码哈希服务（BCrypt）
+ *
+ * 哈希和校验在独立的、按 CPU 核数设定的有界线程池中执行，不占用请求线程。
+ * 队列满或等待超时时立即抛出 {@link ServiceBusyException}（返回 503），
+ * 撞库等突发流量只会被限流，不会拖垮其他接口。
+ * 兼容历史明文密码：校验时按常量时间比较，并标记为需要重新哈希。
+ * 启动时按配置的成本因子预先生成一个占位哈希，用户名不存在时用它校验，
+ * 使不存在的用户名和密码错误的耗时相同，无法通过响应时间探测用户名是否存在。
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./A-Za-z0-9]{53}$");
+    private static final String BUSY_MESSAGE = "服务繁忙，请稍后重试";
+
+    private final int strength;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final String dummyHash;
+
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(
+            @Value("${user.password.bcrypt-strength:10}") int strength,
+            @Value("${user.password.hash-threads:0}") int threads,
+            @Value("${user.password.queue-capacity:64}") int queueCapacity,
+            @Value("${user.password.timeout-ms:5000}") long timeoutMs,
+            MeterRegistry meterRegistry) {
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeoutMs = timeoutMs;
+        this.dummyHash = encoder.encode(UUID.randomUUID().toString());
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("user.password.hash")
+                .description("密码哈希耗时")
+                .tag("op", "hash")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("user.password.hash")
+                .description("密码哈希耗时")
+                .tag("op", "verify")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("user.password.queue.wait")
+                .description("密码哈希任务排队时间")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("user.password.rejected")
+                .description("线程池已满或等待超时而拒绝的哈希任务数")
+                .register(meterRegistry);
+        Gauge.builder("user.password.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("user.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 哈希密码
+     */
+    public String hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword), hashTimer);
+    }
+
+    /**
+     * 校验密码，stored 可以是 BCrypt 哈希或历史明文
+     */
+    public boolean matches(String rawPassword, String stored) {
+        if (rawPassword == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        return submit(() -> encoder.matches(rawPassword, stored), verifyTimer);
+    }
+
+    /**
+     * 占位哈希：成本因子与当前配置相同，不对应任何用户的密码
+     */
+    public String getDummyHash() {
+        return dummyHash;
+    }
+
+    /**
+     * 是否需要重新哈希：历史明文，或哈希强度与当前配置不同
+     */
+    public boolean needsRehash(String stored) {
+        if (stored == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT.matcher(stored);
+        return !matcher.matches() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * 批量哈希（批量导入用）
+     * 每轮最多提交线程数个任务并等待完成，不占满队列；线程池拒绝时在调用线程上计算
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        int wave = executor.getMaximumPoolSize();
+        for (int start = 0; start < rawPasswords.size(); start += wave) {
+            List<Future<String>> futures = new ArrayList<>(wave);
+            for (String raw : rawPasswords.subList(start, Math.min(rawPasswords.size(), start + wave))) {
+                Callable<String> task = () -> hashTimer.recordCallable(() -> encoder.encode(raw));
+                try {
+                    futures.add(executor.submit(task));
+                } catch (RejectedExecutionException e) {
+                    futures.add(CompletableFuture.completedFuture(encoder.encode(raw)));
+                }
+            }
+            for (Future<String> future : futures) {
+                hashes.add(await(future, Long.MAX_VALUE));
+            }
+        }
+        return hashes;
+    }
+
+    private static boolean isHashed(String stored) {
+        return BCRYPT.matcher(stored).matches();
+    }
+
+    private <T> T submit(Callable<T> work, Timer timer) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException(BUSY_MESSAGE);
+        }
+        return await(future, timeoutMs);
+    }
+
+    private <T> T await(Future<T> future, long timeout) {
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceBusyException(BUSY_MESSAGE);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException(BUSY_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
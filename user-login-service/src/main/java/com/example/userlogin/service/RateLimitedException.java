@@ -0,0 +1,18 @@
+package com.example.userlogin.service;
+
+/**
+ * 请求过于频繁被限流，调用方应返回 429 并通过 Retry-After 告知等待时间
+ */
+public class RateLimitedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
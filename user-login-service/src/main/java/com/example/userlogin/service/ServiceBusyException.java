@@ -0,0 +1,11 @@
+package com.example.userlogin.service;
+
+/**
+ * 服务繁忙（资源池已满），调用方应返回 503 并提示稍后重试
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.userlogin.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * 用户总数缓存（可选）
+ *
+ * 缓存不带过滤条件的用户总数，注册和删除时增减，避免分页列表每次都执行 COUNT(*)。
+ * 计数在事务提交后才调整，回滚不调整；超过 TTL 后重新查询一次，修正可能的偏差。
+ *
+ * 重新查询期间有事务正在提交或已调整过计数时，无法判断查询结果是否包含这些变更，
+ * 此时只返回查询结果、不写入缓存，避免覆盖掉已调整的计数或重复计入。
+ */
+@Component
+public class UserCountCache {
+
+    /**
+     * 缓存的总数；version 在每次调整时递增，用于判断重新查询期间是否有调整
+     */
+    private record Count(long total, long loadedAt, long version) {
+    }
+
+    private static final long UNKNOWN = -1;
+
+    private final boolean enabled;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final AtomicReference<Count> count = new AtomicReference<>(new Count(UNKNOWN, 0, 0));
+    /**
+     * 已进入提交、尚未调整计数的事务数
+     */
+    private final AtomicInteger committing = new AtomicInteger();
+
+    @Autowired
+    public UserCountCache(
+            @Value("${user.count-cache.enabled:false}") boolean enabled,
+            @Value("${user.count-cache.ttl-ms:60000}") long ttlMs) {
+        this(enabled, ttlMs, System::currentTimeMillis);
+    }
+
+    public UserCountCache(boolean enabled, long ttlMs, LongSupplier clock) {
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取总数，未缓存或已过期时通过 counter 重新查询
+     */
+    public long getTotal(LongSupplier counter) {
+        Count cached = count.get();
+        if (cached.total() != UNKNOWN && clock.getAsLong() - cached.loadedAt() < ttlMs) {
+            return cached.total();
+        }
+        boolean quiet = committing.get() == 0;
+        long total = counter.getAsLong();
+        if (quiet && committing.get() == 0) {
+            // 查询期间有调整时 version 已变化，放弃写入
+            count.compareAndSet(cached, new Count(total, clock.getAsLong(), cached.version() + 1));
+        }
+        return total;
+    }
+
+    /**
+     * 调整总数，存在事务时在提交后生效
+     */
+    public void adjust(long delta) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean entered;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    entered = true;
+                    committing.incrementAndGet();
+                }
+
+                @Override
+                public void afterCommit() {
+                    apply(delta);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    // 提交失败时 beforeCommit 已执行但不会调用 afterCommit
+                    if (entered) {
+                        committing.decrementAndGet();
+                    }
+                }
+            });
+        } else {
+            apply(delta);
+        }
+    }
+
+    private void apply(long delta) {
+        count.updateAndGet(c -> new Count(c.total() == UNKNOWN ? UNKNOWN : Math.max(0, c.total() + delta),
+                c.loadedAt(), c.version() + 1));
+    }
+}
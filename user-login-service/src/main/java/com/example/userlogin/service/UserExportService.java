@@ -0,0 +1,221 @@
+package com.example.userlogin.service;
+
+import com.example.userlogin.vo.UserVO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 用户导出服务
+ *
+ * 在一个只读事务中以只进游标（fetch size 为 user.export.fetch-size）逐行读取 users 表，
+ * 每行直接编码写入输出流，不加载实体、不构建列表，内存占用与总行数无关。
+ * MySQL 需在连接串中开启 useCursorFetch 才会按 fetch size 分批读取，否则驱动会把结果集全部读入内存。
+ * 导出期间一直占用一个数据库连接，同时进行的导出数受 user.export.max-concurrent 限制。
+ */
+@Service
+public class UserExportService {
+
+    private static final String SELECT_SQL =
+            "select id, username, email, created_at, updated_at from users order by id";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 导出格式
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson;charset=UTF-8", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * 按名称（忽略大小写）解析，不支持时抛出 IllegalArgumentException
+         */
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("不支持的导出格式: " + name + "，可选 ndjson、csv");
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectWriter userWriter;
+    private final int fetchSize;
+    private final Semaphore permits;
+
+    public UserExportService(
+            @Value("${user.export.fetch-size:1000}") int fetchSize,
+            @Value("${user.export.max-concurrent:2}") int maxConcurrent,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper) {
+        this.fetchSize = fetchSize;
+        this.permits = new Semaphore(maxConcurrent);
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.userWriter = objectMapper.writerFor(UserVO.class);
+    }
+
+    /**
+     * 按 id 顺序把全部用户写入 out，返回导出行数；不关闭 out
+     * 已有 max-concurrent 个导出在进行时抛出 {@link ServiceBusyException}，此时尚未写入任何内容
+     */
+    public long export(Format format, OutputStream out) {
+        if (!permits.tryAcquire()) {
+            throw new ServiceBusyException("导出任务过多，请稍后重试");
+        }
+        try {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+            RowWriter writer = format == Format.CSV ? new CsvRowWriter(buffered) : new NdjsonRowWriter(buffered);
+            long rows = readOnlyTx.execute(status -> {
+                writer.begin();
+                long[] count = {0};
+                jdbcTemplate.query(this::prepareCursor, (RowCallbackHandler) rs -> {
+                    writer.write(rs);
+                    count[0]++;
+                });
+                return count[0];
+            });
+            buffered.flush();
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PreparedStatement prepareCursor(Connection connection) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(SELECT_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(fetchSize);
+        return ps;
+    }
+
+    /**
+     * 把结果集当前行编码写入输出流
+     */
+    private abstract static class RowWriter {
+
+        protected final OutputStream out;
+
+        RowWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void begin() {
+        }
+
+        abstract void write(ResultSet rs) throws SQLException;
+
+        protected void writeBytes(byte[] bytes) {
+            try {
+                out.write(bytes);
+            } catch (IOException e) {
+                // 客户端断开时中止查询，事务回滚并释放连接
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 每行一个 JSON 对象，字段与 /api/users 返回的 UserVO 相同
+     */
+    private class NdjsonRowWriter extends RowWriter {
+
+        private static final byte[] NEWLINE = {'\n'};
+
+        NdjsonRowWriter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        void write(ResultSet rs) throws SQLException {
+            UserVO user = new UserVO(rs.getLong(1), rs.getString(2), rs.getString(3),
+                    rs.getObject(4, LocalDateTime.class), rs.getObject(5, LocalDateTime.class));
+            try {
+                writeBytes(userWriter.writeValueAsBytes(user));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            writeBytes(NEWLINE);
+        }
+    }
+
+    /**
+     * RFC 4180：首行为表头，含逗号、引号或换行的字段加引号，空值为空字段
+     */
+    private static class CsvRowWriter extends RowWriter {
+
+        private final StringBuilder line = new StringBuilder(256);
+
+        CsvRowWriter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        void begin() {
+            writeBytes("id,username,email,createdAt,updatedAt\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void write(ResultSet rs) throws SQLException {
+            line.setLength(0);
+            line.append(rs.getLong(1)).append(',');
+            appendField(rs.getString(2)).append(',');
+            appendField(rs.getString(3)).append(',');
+            appendField(rs.getObject(4, LocalDateTime.class)).append(',');
+            appendField(rs.getObject(5, LocalDateTime.class)).append("\r\n");
+            writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private StringBuilder appendField(Object value) {
+            if (value == null) {
+                return line;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return line.append(text);
+            }
+            return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.userlogin.service;
+
+import com.example.userlogin.entity.UserDO;
+import com.example.userlogin.util.BoundedExpiringCache;
+import com.example.userlogin.util.SingleFlight;
+import com.example.userlogin.vo.UserVO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 用户近端缓存（进程内）
+ *
+ * 按 id 和用户名分别缓存用户快照，供 getUserById、getUserByUsername 使用。
+ * 快照不含密码：多实例部署时其他实例的失效要等 TTL 才生效，登录必须从主库读取密码哈希，不能使用缓存。
+ * 更新、删除用户时立即失效，事务提交后再失效一次；并用失效戳防止
+ * 失效前开始的数据库读取在失效后把旧值写回缓存。未命中时的读库必须读主库：
+ * 失效戳无法识别从库复制延迟带来的旧行。
+ * 未命中时同一 key 的并发读库合并为一次（{@link SingleFlight}），合并按失效戳区分：
+ * 失效之后到达的请求不会共享失效之前开始的读取。登录的主库读取同样合并，但结果不写入缓存。
+ */
+@Component
+public class UserNearCache {
+
+    /**
+     * 不可变的用户快照（不含密码）
+     */
+    public record CachedUser(Long id, String username, String email,
+                             LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static CachedUser of(UserDO userDO) {
+            return new CachedUser(userDO.getId(), userDO.getUsername(),
+                    userDO.getEmail(), userDO.getCreatedAt(), userDO.getUpdatedAt());
+        }
+
+        public UserVO toVO() {
+            return new UserVO(id, username, email, createdAt, updatedAt);
+        }
+    }
+
+    private final boolean enabled;
+    private final BoundedExpiringCache<Long, CachedUser> byId;
+    private final BoundedExpiringCache<String, CachedUser> byUsername;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final boolean coalesce;
+    private final SingleFlight<FlightKey, Optional<CachedUser>> idFlights;
+    private final SingleFlight<FlightKey, Optional<CachedUser>> usernameFlights;
+    private final SingleFlight<FlightKey, Optional<UserDO>> loginFlights;
+
+    public UserNearCache(boolean enabled, int maxSize, long ttlMs, MeterRegistry meterRegistry) {
+        this(enabled, maxSize, ttlMs, true, 5000, meterRegistry);
+    }
+
+    @Autowired
+    public UserNearCache(
+            @Value("${user.cache.enabled:true}") boolean enabled,
+            @Value("${user.cache.max-size:10000}") int maxSize,
+            @Value("${user.cache.ttl-ms:60000}") long ttlMs,
+            @Value("${user.cache.coalesce.enabled:true}") boolean coalesce,
+            @Value("${user.cache.coalesce.timeout-ms:5000}") long coalesceTimeoutMs,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.byId = new BoundedExpiringCache<>(maxSize, ttlMs);
+        this.byUsername = new BoundedExpiringCache<>(maxSize, ttlMs);
+        this.coalesce = coalesce;
+        this.idFlights = new SingleFlight<>(coalesceTimeoutMs);
+        this.usernameFlights = new SingleFlight<>(coalesceTimeoutMs);
+        this.loginFlights = new SingleFlight<>(coalesceTimeoutMs);
+        registerMetrics(meterRegistry, "id", byId);
+        registerMetrics(meterRegistry, "username", byUsername);
+        registerMetrics(meterRegistry, "id", idFlights);
+        registerMetrics(meterRegistry, "username", usernameFlights);
+        registerMetrics(meterRegistry, "login", loginFlights);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 读库前取得失效戳，写回缓存时传入
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public CachedUser getById(long id) {
+        return enabled ? byId.get(id) : null;
+    }
+
+    public CachedUser getByUsername(String username) {
+        return enabled && username != null ? byUsername.get(username) : null;
+    }
+
+    /**
+     * 按 id 读库并写入缓存，并发的同一 id 读取合并为一次
+     */
+    public Optional<CachedUser> loadById(long id, Supplier<Optional<CachedUser>> loader) {
+        return load(idFlights, id, loader);
+    }
+
+    /**
+     * 按用户名读库并写入缓存，并发的同一用户名读取合并为一次
+     */
+    public Optional<CachedUser> loadByUsername(String username, Supplier<Optional<CachedUser>> loader) {
+        return load(usernameFlights, username, loader);
+    }
+
+    /**
+     * 登录时从主库读取用户（含密码哈希），并发的同一用户名读取合并为一次；结果不写入缓存，
+     * 读取结束后到达的登录重新查询。合并的调用方共享同一个实体，只能读取不能修改
+     */
+    public Optional<UserDO> loadForLogin(String username, Supplier<Optional<UserDO>> loader) {
+        return coalesce && username != null
+                ? loginFlights.execute(new FlightKey(username, stamp()), loader)
+                : loader.get();
+    }
+
+    private Optional<CachedUser> load(SingleFlight<FlightKey, Optional<CachedUser>> flights, Object key,
+                                      Supplier<Optional<CachedUser>> loader) {
+        long stamp = stamp();
+        Optional<CachedUser> user = coalesce && key != null
+                ? flights.execute(new FlightKey(key, stamp), loader)
+                : loader.get();
+        user.ifPresent(u -> put(u, stamp));
+        return user;
+    }
+
+    /**
+     * 缓存数据库读取结果；读取期间发生过失效时放弃写入
+     */
+    public void put(CachedUser user, long stamp) {
+        if (!enabled || user == null || invalidations.get() != stamp) {
+            return;
+        }
+        byId.put(user.id(), user);
+        byUsername.put(user.username(), user);
+        // 写入期间发生失效时撤回，避免与失效交错留下旧值
+        if (invalidations.get() != stamp) {
+            byId.invalidate(user.id());
+            byUsername.invalidate(user.username());
+        }
+    }
+
+    /**
+     * 失效一个用户，usernames 传入修改前后的用户名；存在事务时提交后再失效一次。
+     * 关闭缓存时也推进失效戳，合并读取依赖它区分失效前后的请求
+     */
+    public void invalidate(long id, String... usernames) {
+        evict(id, usernames);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id, usernames);
+                }
+            });
+        }
+    }
+
+    private void evict(long id, String... usernames) {
+        invalidations.incrementAndGet();
+        byId.invalidate(id);
+        for (String username : usernames) {
+            if (username != null) {
+                byUsername.invalidate(username);
+            }
+        }
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        byId.clear();
+        byUsername.clear();
+    }
+
+    private static void registerMetrics(MeterRegistry registry, String name, BoundedExpiringCache<?, ?> cache) {
+        FunctionCounter.builder("user.cache.hits", cache, BoundedExpiringCache::getHitCount)
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("user.cache.misses", cache, BoundedExpiringCache::getMissCount)
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("user.cache.evictions", cache, BoundedExpiringCache::getEvictionCount)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("user.cache.hit.rate", cache, BoundedExpiringCache::getHitRate)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("user.cache.size", cache, BoundedExpiringCache::size)
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    private static void registerMetrics(MeterRegistry registry, String name, SingleFlight<?, ?> flights) {
+        FunctionCounter.builder("user.cache.loads", flights, SingleFlight::getExecutionCount)
+                .description("未命中时实际执行的读库次数")
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("user.cache.loads.collapsed", flights, SingleFlight::getCollapsedCount)
+                .description("合并到进行中读库、未单独查询的次数")
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("user.cache.loads.timeouts", flights, SingleFlight::getTimeoutCount)
+                .description("等待合并读库超时后自行查询的次数")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    /**
+     * 合并读取的 key：查询条件加发起时的失效戳
+     */
+    private record FlightKey(Object key, long stamp) {
+    }
+}
@@ -1,21 +1,46 @@
 package com.example.userlogin.service;
 
+import com.example.userlogin.audit.AuditEventType;
+import com.example.userlogin.audit.AuditLog;
 import com.example.userlogin.dto.UserLoginDTO;
 import com.example.userlogin.dto.UserRegisterDTO;
 import com.example.userlogin.dto.UserUpdateDTO;
 import com.example.userlogin.entity.UserDO;
+import com.example.userlogin.event.UserChangedEvent;
+import com.example.userlogin.index.UserExistenceFilter;
+import com.example.userlogin.index.UserSearchIndex;
+import com.example.userlogin.index.UsernameSuggester;
+import com.example.userlogin.jfr.LoginEvent;
 import com.example.userlogin.repository.UserRepository;
+import com.example.userlogin.repository.UserSummary;
+import com.example.userlogin.util.KeysetCursor;
 import com.example.userlogin.util.UserConverter;
+import com.example.userlogin.vo.CursorPageVO;
 import com.example.userlogin.vo.UserVO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -24,24 +49,73 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCountCache userCountCache;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UsernameSuggester usernameSuggester;
+
+    @Autowired
+    private UserExistenceFilter userExistenceFilter;
+
+    @Autowired
+    private UserNearCache userNearCache;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private LoginEventRecorder loginEventRecorder;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     /**
      * 创建新用户（注册）
+     * 密码哈希耗时较长，方法本身不开启事务，避免哈希期间占用数据库连接；写库在 saveAndFlush 自身的事务中完成
      */
     @SuppressWarnings("null")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserVO createUser(UserRegisterDTO registerDTO) {
-        // 检查用户名是否已存在
-        if (userRepository.existsByUsername(registerDTO.getUsername())) {
+        // 检查用户名是否已存在（布隆过滤器判定一定不存在时跳过查询）
+        if (userExistenceFilter.mightContainUsername(registerDTO.getUsername())
+                && userRepository.existsByUsername(registerDTO.getUsername())) {
             throw new RuntimeException("用户名已存在: " + registerDTO.getUsername());
         }
 
         // 检查邮箱是否已存在
-        if (registerDTO.getEmail() != null && userRepository.existsByEmail(registerDTO.getEmail())) {
+        if (registerDTO.getEmail() != null
+                && userExistenceFilter.mightContainEmail(registerDTO.getEmail())
+                && userRepository.existsByEmail(registerDTO.getEmail())) {
             throw new RuntimeException("邮箱已存在: " + registerDTO.getEmail());
         }
+        String passwordHash = passwordHasher.hash(registerDTO.getPassword());
+        userExistenceFilter.put(registerDTO.getUsername(), registerDTO.getEmail());
 
-        // DTO转DO
+        // DTO转DO，立即写库，由唯一约束兜底过滤器无法覆盖的冲突（如并发注册、排序规则差异）
         UserDO userDO = UserConverter.toUserDO(registerDTO);
-        UserDO savedUser = userRepository.save(userDO);
+        userDO.setPassword(passwordHash);
+        UserDO savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(userDO);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("用户名或邮箱已存在: " + registerDTO.getUsername());
+        }
+        userCountCache.adjust(1);
+        eventPublisher.publishEvent(UserChangedEvent.created(
+                savedUser.getId(), savedUser.getUsername(), savedUser.getEmail()));
 
         // DO转VO
         return UserConverter.toVO(savedUser);
@@ -49,57 +123,221 @@ public class UserService {
 
     /**
      * 根据ID获取用户
+     * 优先读取近端缓存；缓存命中时不开启事务，不占用数据库连接。
+     * 未命中时从主库读取（非只读上下文）：从库可能落后于刚提交的更新，
+     * 失效之后从从库读到的旧行会被写回缓存并保留整个 TTL
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<UserVO> getUserById(long id) {
-        return userRepository.findById(id)
-                .map(UserConverter::toVO);
+        return findCachedById(id).map(UserNearCache.CachedUser::toVO);
     }
 
     /**
-     * 根据用户名获取用户
+     * 根据用户名获取用户，未命中时同样从主库读取
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<UserVO> getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .map(UserConverter::toVO);
+        return findCachedByUsername(username).map(UserNearCache.CachedUser::toVO);
+    }
+
+    private Optional<UserNearCache.CachedUser> findCachedById(long id) {
+        UserNearCache.CachedUser cached = userNearCache.getById(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return userNearCache.loadById(id,
+                () -> userRepository.findUserById(id).map(UserNearCache.CachedUser::of));
+    }
+
+    private Optional<UserNearCache.CachedUser> findCachedByUsername(String username) {
+        UserNearCache.CachedUser cached = userNearCache.getByUsername(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return userNearCache.loadByUsername(username,
+                () -> userRepository.findByUsername(username).map(UserNearCache.CachedUser::of));
     }
 
     /**
      * 分页获取所有用户
+     * 开启总数缓存时只查询当前页，总数取自缓存
      */
+    @Transactional(readOnly = true)
     public Page<UserVO> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable)
-                .map(UserConverter::toVO);
+        if (userCountCache.isEnabled()) {
+            Slice<UserVO> slice = userRepository.findUserSlice(pageable);
+            long total = userCountCache.getTotal(this::countOnPrimary);
+            return new PageImpl<>(slice.getContent(), pageable, total);
+        }
+        return userRepository.findUserPage(pageable);
+    }
+
+    /**
+     * 刷新总数缓存时在主库计数：结果会被缓存整个 TTL，不能再叠加从库的复制延迟。
+     * 挂起当前只读事务后在非事务上下文中查询，不开启读写事务，不影响读写粘滞
+     */
+    private long countOnPrimary() {
+        TransactionTemplate notSupported = new TransactionTemplate(transactionManager);
+        notSupported.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        Long total = notSupported.execute(status -> userRepository.countAll());
+        return total != null ? total : 0;
+    }
+
+    /**
+     * 分页获取所有用户（不查询总数）
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserVO> getAllUsersSlice(Pageable pageable) {
+        return userRepository.findUserSlice(pageable);
+    }
+
+    /**
+     * 游标分页获取所有用户
+     * 按 (sortBy, id) 定位，不使用 OFFSET，任意深度的翻页代价与第一页相同
+     *
+     * @param after 上一页返回的 nextCursor，为空表示第一页
+     */
+    @Transactional(readOnly = true)
+    public CursorPageVO<UserVO> getUsersAfter(String after, int size, String sortBy, Sort.Direction direction) {
+        if (!KeysetCursor.SORT_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("游标分页不支持的排序字段: " + sortBy + "，可选 id（创建时间顺序）、username");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("每页大小必须大于0");
+        }
+        ScrollPosition position = (after == null || after.isEmpty())
+                ? ScrollPosition.keyset()
+                : KeysetCursor.decode(after, sortBy, direction).toScrollPosition();
+        Sort sort = "id".equals(sortBy)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+
+        Window<UserSummary> window = userRepository.findBy(position, sort, Limit.of(size));
+        List<UserVO> content = window.map(UserConverter::toVO).getContent();
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = KeysetCursor.of(sortBy, direction, window.positionAt(window.size() - 1)).encode();
+        }
+        return new CursorPageVO<>(content, size, window.hasNext(), nextCursor);
     }
 
     /**
      * 根据用户名搜索用户（分页）
      * 支持模糊查询（忽略大小写）
      */
+    @Transactional(readOnly = true)
     public Page<UserVO> searchUsersByUsername(String username, Pageable pageable) {
-        return userRepository.findByUsernameContainingIgnoreCase(username, pageable)
-                .map(UserConverter::toVO);
+        UserSearchIndex.Candidates candidates = userSearchIndex.findByUsername(username);
+        if (candidates != null) {
+            return findPageByIds(matchingIds(candidates, ids -> userRepository.filterIdsByUsername(username, ids)), pageable);
+        }
+        return userRepository.searchByUsername(username, pageable);
+    }
+
+    /**
+     * 根据用户名搜索用户（不查询总数）
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserVO> searchUsersByUsernameSlice(String username, Pageable pageable) {
+        UserSearchIndex.Candidates candidates = userSearchIndex.findByUsername(username);
+        if (candidates != null) {
+            return findPageByIds(matchingIds(candidates, ids -> userRepository.filterIdsByUsername(username, ids)), pageable);
+        }
+        return userRepository.searchSliceByUsername(username, pageable);
     }
 
     /**
      * 根据邮箱搜索用户（分页）
      * 支持模糊查询（忽略大小写）
      */
+    @Transactional(readOnly = true)
     public Page<UserVO> searchUsersByEmail(String email, Pageable pageable) {
-        return userRepository.findByEmailContainingIgnoreCase(email, pageable)
-                .map(UserConverter::toVO);
+        UserSearchIndex.Candidates candidates = userSearchIndex.findByEmail(email);
+        if (candidates != null) {
+            return findPageByIds(matchingIds(candidates, ids -> userRepository.filterIdsByEmail(email, ids)), pageable);
+        }
+        return userRepository.searchByEmail(email, pageable);
+    }
+
+    /**
+     * 根据邮箱搜索用户（不查询总数）
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserVO> searchUsersByEmailSlice(String email, Pageable pageable) {
+        UserSearchIndex.Candidates candidates = userSearchIndex.findByEmail(email);
+        if (candidates != null) {
+            return findPageByIds(matchingIds(candidates, ids -> userRepository.filterIdsByEmail(email, ids)), pageable);
+        }
+        return userRepository.searchSliceByEmail(email, pageable);
+    }
+
+    /**
+     * 用户名前缀补全
+     * 优先使用内存前缀树，索引未就绪时回退到数据库前缀查询；两者都忽略大小写、按小写用户名排序
+     */
+    @Transactional(readOnly = true)
+    public List<String> suggestUsernames(String prefix, int limit) {
+        if (usernameSuggester.isReady()) {
+            return usernameSuggester.suggest(prefix, limit);
+        }
+        return userRepository.findUsernamesByLowerPrefix(prefix.toLowerCase(Locale.ROOT), Limit.of(limit));
+    }
+
+    /**
+     * 索引候选不精确时，在候选 id 中按原条件过滤（主键查询，数量不超过 max-matches）
+     */
+    private long[] matchingIds(UserSearchIndex.Candidates candidates, Function<List<Long>, List<Long>> filter) {
+        if (candidates.exact() || candidates.ids().length == 0) {
+            return candidates.ids();
+        }
+        List<Long> matched = filter.apply(Arrays.stream(candidates.ids()).boxed().toList());
+        return matched.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    /**
+     * 按索引查出的 id 取当前页，总数即匹配的 id 数量
+     */
+    private Page<UserVO> findPageByIds(long[] ids, Pageable pageable) {
+        if (ids.length == 0) {
+            return Page.empty(pageable);
+        }
+        List<Long> idList = Arrays.stream(ids).boxed().toList();
+        Slice<UserVO> slice = userRepository.findUserSliceByIdIn(idList, pageable);
+        return new PageImpl<>(slice.getContent(), pageable, ids.length);
     }
 
     /**
      * 更新用户信息
+     * 先在事务外哈希新密码，避免哈希期间占用数据库连接；读取、修改、保存在同一个读写事务中完成（读主库），
+     * 不会用过期的数据覆盖并发提交的修改
      */
     @SuppressWarnings("null")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserVO updateUser(long id, UserUpdateDTO updateDTO) {
-        UserDO userDO = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("用户不存在，ID: " + id));
+        String passwordHash = null;
+        if (updateDTO.getPassword() != null && !updateDTO.getPassword().isEmpty()) {
+            passwordHash = passwordHasher.hash(updateDTO.getPassword());
+        }
+        String newPasswordHash = passwordHash;
+        String[] previousUsername = new String[1];
+        UserDO updatedUser = transactionTemplate.execute(status -> {
+            UserDO userDO = userRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("用户不存在，ID: " + id));
+            previousUsername[0] = userDO.getUsername();
+            String previousEmail = userDO.getEmail();
 
-        // 使用Converter更新DO
-        UserConverter.updateUserDO(userDO, updateDTO);
-        UserDO updatedUser = userRepository.save(userDO);
+            // 使用Converter更新DO
+            UserConverter.updateUserDO(userDO, updateDTO);
+            if (newPasswordHash != null) {
+                userDO.setPassword(newPasswordHash);
+            }
+            UserDO saved = userRepository.save(userDO);
+            eventPublisher.publishEvent(UserChangedEvent.updated(id, saved.getUsername(),
+                    saved.getEmail(), previousUsername[0], previousEmail));
+            return saved;
+        });
+        // 提交后再失效缓存，避免提交前被其他请求用旧数据重新填充
+        userNearCache.invalidate(id, previousUsername[0], updatedUser.getUsername());
 
         // DO转VO
         return UserConverter.toVO(updatedUser);
@@ -109,20 +347,65 @@ public class UserService {
      * 删除用户
      */
     public void deleteUser(long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("用户不存在，ID: " + id);
-        }
-        userRepository.deleteById(id);
+        UserDO userDO = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("用户不存在，ID: " + id));
+        userRepository.delete(userDO);
+        userNearCache.invalidate(id, userDO.getUsername());
+        userCountCache.adjust(-1);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(id, userDO.getUsername(), userDO.getEmail()));
     }
 
     /**
      * 用户登录验证
+     * 成功登录交给 {@link LoginEventRecorder} 异步记录，本方法不写库（密码哈希升级除外）；成功和失败都写审计日志。
+     * 不使用近端缓存也不走从库：密码哈希在非只读上下文中从主库读取，改密码后旧密码立即失效（包括其他实例）；
+     * 同一用户名的并发登录合并为一次主库查询（按失效戳区分，不缓存结果）
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<UserVO> login(UserLoginDTO loginDTO) {
-        Optional<UserDO> userDO = userRepository.findByUsername(loginDTO.getUsername());
-        if (userDO.isPresent() && userDO.get().getPassword().equals(loginDTO.getPassword())) {
-            return Optional.of(UserConverter.toVO(userDO.get()));
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        String outcome = LoginEvent.ERROR;
+        try {
+            Optional<UserDO> user = userNearCache.loadForLogin(loginDTO.getUsername(),
+                    () -> userRepository.findByUsername(loginDTO.getUsername()));
+            if (user.isEmpty()) {
+                // 用户不存在时同样做一次完整的哈希校验，响应时间不暴露用户名是否存在
+                passwordHasher.matches(loginDTO.getPassword(), passwordHasher.getDummyHash());
+                outcome = LoginEvent.UNKNOWN_USER;
+                auditLog.record(AuditEventType.LOGIN_FAILURE, 0, loginDTO.getUsername());
+                return Optional.empty();
+            }
+            if (!passwordHasher.matches(loginDTO.getPassword(), user.get().getPassword())) {
+                outcome = LoginEvent.BAD_PASSWORD;
+                auditLog.record(AuditEventType.LOGIN_FAILURE, user.get().getId(), loginDTO.getUsername());
+                return Optional.empty();
+            }
+            upgradePasswordHash(user.get(), loginDTO.getPassword());
+            loginEventRecorder.record(user.get().getId());
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, user.get().getId(), loginDTO.getUsername());
+            outcome = LoginEvent.SUCCESS;
+            return Optional.of(UserConverter.toVO(user.get()));
+        } catch (ServiceBusyException e) {
+            outcome = LoginEvent.BUSY;
+            throw e;
+        } finally {
+            event.finish(loginDTO.getUsername(), outcome);
+        }
+    }
+
+    /**
+     * 历史明文密码或哈希强度变化时，登录成功后重新哈希；线程池繁忙时跳过，下次登录再升级
+     */
+    private void upgradePasswordHash(UserDO user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            String newHash = passwordHasher.hash(rawPassword);
+            userRepository.replacePassword(user.getId(), user.getPassword(), newHash);
+        } catch (ServiceBusyException e) {
+            // 不影响本次登录
         }
-        return Optional.empty();
     }
 }
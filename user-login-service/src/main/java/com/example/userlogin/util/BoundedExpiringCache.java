@@ -0,0 +1,158 @@
+package com.example.userlogin.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 有界、带过期时间的进程内缓存
+ *
+ * 基于 ConcurrentHashMap 实现，读写均无锁；超过容量时先清理过期条目，
+ * 仍超出则按迭代顺序淘汰一部分条目。提供命中、未命中和淘汰计数。
+ */
+public class BoundedExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedExpiringCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock 当前时间（毫秒），测试中可替换
+     */
+    public BoundedExpiringCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize 必须大于0");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttlMillis 必须大于0");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取缓存值，不存在或已过期返回 null
+     */
+    public V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis <= clock.getAsLong()) {
+            map.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * 写入缓存，按默认 TTL 过期
+     */
+    public void put(K key, V value) {
+        put(key, value, Long.MAX_VALUE);
+    }
+
+    /**
+     * 写入缓存，在 expiresAtMillis 与默认 TTL 两者中较早的时间过期
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        long now = clock.getAsLong();
+        long expiresAt = Math.min(expiresAtMillis, now + ttlMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        map.put(key, new Entry<>(value, expiresAt));
+        if (map.size() > maxSize) {
+            evict(now);
+        }
+    }
+
+    /**
+     * 移除指定条目
+     */
+    public void invalidate(K key) {
+        map.remove(key);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        map.clear();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 命中率（0~1），尚无请求时返回 0
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    private void evict(long now) {
+        // 同一时刻只允许一个线程做清理，其余线程直接返回
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().getValue().expiresAtMillis <= now) {
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+            // 仍然超出容量时淘汰到容量的 90%，避免每次写入都触发清理
+            int target = maxSize - maxSize / 10;
+            it = map.entrySet().iterator();
+            while (map.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.userlogin.util;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * long 到 long 的定时过期映射
+ *
+ * 开放寻址（线性探测）存放在三个并行的 long 数组中，没有装箱对象；读取走 StampedLock 乐观读，
+ * 无锁、不分配内存。每个条目带截止时间，到期后读取即视为不存在，并由时间轮回收：
+ * 条目按截止时间挂到 wheelSlots 个槽之一（每槽 tickMillis），写入时推进时间轮，
+ * 清除已到期的条目，因此内存只与有效期内的条目数有关。
+ * key 不能为 0（0 表示空位）。
+ */
+public class ExpiringLongMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private final long tickMillis;
+    private final LongSupplier clock;
+
+    private long[] keys = new long[MIN_CAPACITY];
+    private long[] values = new long[MIN_CAPACITY];
+    private long[] deadlines = new long[MIN_CAPACITY];
+    private int size;
+
+    /**
+     * 时间轮：每个槽是一个 key 数组，槽内可能有截止时间在后续轮次或已被覆盖的 key，推进时逐个核对
+     */
+    private final long[][] wheel;
+    private final int[] wheelSizes;
+    private long currentTick;
+
+    /**
+     * @param tickMillis 时间轮精度
+     * @param wheelSlots 时间轮槽数，tickMillis * wheelSlots 宜不小于常见的有效期
+     */
+    public ExpiringLongMap(long tickMillis, int wheelSlots) {
+        this(tickMillis, wheelSlots, System::currentTimeMillis);
+    }
+
+    public ExpiringLongMap(long tickMillis, int wheelSlots, LongSupplier clock) {
+        if (tickMillis <= 0 || wheelSlots <= 0) {
+            throw new IllegalArgumentException("tickMillis、wheelSlots 必须大于0");
+        }
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.wheel = new long[wheelSlots][];
+        this.wheelSizes = new int[wheelSlots];
+        this.currentTick = clock.getAsLong() / tickMillis - 1;
+    }
+
+    /**
+     * 查询未过期的值，不存在或已过期返回 defaultValue
+     */
+    public long get(long key, long defaultValue) {
+        long now = clock.getAsLong();
+        long stamp = lock.tryOptimisticRead();
+        long found = find(key, now, defaultValue);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(key, now, defaultValue);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 写入或覆盖条目，deadlineMillis 之后自动失效；已过期的截止时间不写入
+     */
+    public void put(long key, long value, long deadlineMillis) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key 不能为 0");
+        }
+        long stamp = lock.writeLock();
+        try {
+            long now = clock.getAsLong();
+            advance(now);
+            if (deadlineMillis <= now) {
+                return;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            boolean reschedule = keys[i] == 0 || tickOf(deadlines[i]) != tickOf(deadlineMillis);
+            if (keys[i] == 0) {
+                keys[i] = key;
+                size++;
+            }
+            values[i] = value;
+            deadlines[i] = deadlineMillis;
+            if (reschedule) {
+                schedule(key, deadlineMillis);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 推进时间轮，回收已到期的条目
+     */
+    public void expire() {
+        long stamp = lock.writeLock();
+        try {
+            advance(clock.getAsLong());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 当前条目数（含已过期但尚未回收的）
+     */
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int n = size;
+        if (lock.validate(stamp)) {
+            return n;
+        }
+        stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 乐观读期间数组可能被替换或修改，只用局部引用并限制探测次数，结果由调用方校验
+     */
+    private long find(long key, long now, long defaultValue) {
+        long[] k = keys;
+        long[] v = values;
+        long[] d = deadlines;
+        if (k.length != v.length || k.length != d.length) {
+            return defaultValue;
+        }
+        int mask = k.length - 1;
+        int i = slot(key, mask);
+        for (int probes = 0; probes < k.length; probes++) {
+            long current = k[i];
+            if (current == key) {
+                return d[i] > now ? v[i] : defaultValue;
+            }
+            if (current == 0) {
+                return defaultValue;
+            }
+            i = (i + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    private void advance(long now) {
+        // 只处理已经整体过去的 tick，其中同一轮次的条目一定都已到期；间隔超过一圈时每个槽只需处理一次
+        long target = now / tickMillis - 1;
+        long from = Math.max(currentTick + 1, target - wheel.length + 1);
+        for (long tick = from; tick <= target; tick++) {
+            drainSlot((int) Math.floorMod(tick, (long) wheel.length), now);
+        }
+        if (target > currentTick) {
+            currentTick = target;
+        }
+        if (keys.length > MIN_CAPACITY && size * 8 < keys.length) {
+            resize(keys.length / 2);
+        }
+    }
+
+    /**
+     * 删除槽内已到期的条目，保留后续轮次的，丢弃已被改挂到其他槽的
+     */
+    private void drainSlot(int slotIndex, long now) {
+        long[] slotKeys = wheel[slotIndex];
+        int n = wheelSizes[slotIndex];
+        int kept = 0;
+        for (int j = 0; j < n; j++) {
+            long key = slotKeys[j];
+            int i = indexOf(key);
+            if (i < 0) {
+                continue;
+            }
+            if (deadlines[i] <= now) {
+                removeAt(i);
+            } else if (Math.floorMod(tickOf(deadlines[i]), (long) wheel.length) == slotIndex) {
+                slotKeys[kept++] = key;
+            }
+        }
+        wheelSizes[slotIndex] = kept;
+        // 槽收缩后释放大数组
+        if (slotKeys != null && kept < slotKeys.length / 4 && slotKeys.length > MIN_CAPACITY) {
+            long[] shrunk = new long[Math.max(MIN_CAPACITY, kept * 2)];
+            System.arraycopy(slotKeys, 0, shrunk, 0, kept);
+            wheel[slotIndex] = shrunk;
+        }
+    }
+
+    private void schedule(long key, long deadlineMillis) {
+        int slotIndex = (int) Math.floorMod(tickOf(deadlineMillis), (long) wheel.length);
+        long[] slotKeys = wheel[slotIndex];
+        int n = wheelSizes[slotIndex];
+        if (slotKeys == null) {
+            slotKeys = wheel[slotIndex] = new long[MIN_CAPACITY];
+        } else if (n == slotKeys.length) {
+            long[] grown = new long[n * 2];
+            System.arraycopy(slotKeys, 0, grown, 0, n);
+            slotKeys = wheel[slotIndex] = grown;
+        }
+        slotKeys[n] = key;
+        wheelSizes[slotIndex] = n + 1;
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 线性探测的删除：把后续同簇中可以前移的条目移到空位，不留墓碑
+     */
+    private void removeAt(int i) {
+        int mask = keys.length - 1;
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long key = keys[j];
+            if (key == 0) {
+                break;
+            }
+            int home = slot(key, mask);
+            // home 不在 (gap, j] 区间内时，该条目可以移到 gap
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = key;
+                values[gap] = values[j];
+                deadlines[gap] = deadlines[j];
+                gap = j;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        deadlines[gap] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        long[] oldDeadlines = deadlines;
+        long[] newKeys = new long[capacity];
+        long[] newValues = new long[capacity];
+        long[] newDeadlines = new long[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int j = slot(key, mask);
+                while (newKeys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                newKeys[j] = key;
+                newValues[j] = oldValues[i];
+                newDeadlines[j] = oldDeadlines[i];
+            }
+        }
+        // 乐观读可能看到不同长度的数组组合，find 会检查长度
+        keys = newKeys;
+        values = newValues;
+        deadlines = newDeadlines;
+    }
+
+    private long tickOf(long millis) {
+        return millis / tickMillis;
+    }
+
+    private static int slot(long key, int mask) {
+        // Snowflake ID 低位是序列号，先打散
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.userlogin.util;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 本服务自签 JWT 的 HMAC 快速通道
+ *
+ * 只处理 header 与本服务签发格式完全一致的 token：用池化的 Mac 直接验签，
+ * 再从 payload 字节中直接读取 userId、jti 和 exp，不经过 jjwt 的 JSON 解析。
+ * 无法处理的 token 返回 {@link #NOT_HANDLED}，由调用方回退到 jjwt。
+ */
+final class HmacJwtEngine {
+
+    /**
+     * 快速通道无法判断时的返回值（按引用比较）
+     */
+    static final VerifiedToken NOT_HANDLED = new VerifiedToken(null, Long.MIN_VALUE, 0);
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final byte[] KEY_USER_ID = "\"userId\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_JTI = "\"jti\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_EXP = "\"exp\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_NBF = "\"nbf\":".getBytes(StandardCharsets.US_ASCII);
+    private static final int[] BASE64_URL_VALUES = new int[128];
+
+    static {
+        Arrays.fill(BASE64_URL_VALUES, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_URL_VALUES[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private final SecretKey secretKey;
+    private final String headerSegment;
+    private final AtomicReferenceArray<Scratch> pool;
+
+    /**
+     * @param secretKey     签名密钥
+     * @param headerSegment jjwt 对该密钥生成的 header（Base64URL 编码）
+     */
+    HmacJwtEngine(SecretKey secretKey, String headerSegment) {
+        this.secretKey = secretKey;
+        this.headerSegment = headerSegment;
+        this.pool = new AtomicReferenceArray<>(Runtime.getRuntime().availableProcessors() * 2);
+        // 提前校验算法可用
+        release(borrow());
+    }
+
+    /**
+     * 签发 token，payload 字段顺序与 jjwt 输出一致
+     */
+    String sign(Long userId, String username, long tokenId, long issuedAtMillis, long expiresAtMillis) {
+        StringBuilder json = new StringBuilder(96).append('{');
+        if (userId != null) {
+            json.append("\"userId\":").append(userId.longValue()).append(',');
+        }
+        if (username != null) {
+            json.append("\"username\":");
+            appendJsonString(json, username);
+            json.append(",\"sub\":");
+            appendJsonString(json, username);
+            json.append(',');
+        }
+        json.append("\"jti\":\"").append(tokenId).append("\",")
+                .append("\"iat\":").append(issuedAtMillis / 1000)
+                .append(",\"exp\":").append(expiresAtMillis / 1000)
+                .append('}');
+
+        String signingInput = headerSegment + '.'
+                + BASE64_URL.encodeToString(json.toString().getBytes(StandardCharsets.UTF_8));
+        Scratch scratch = borrow();
+        try {
+            int len = scratch.load(signingInput, 0, signingInput.length());
+            scratch.mac.update(scratch.buf, 0, len);
+            byte[] signature = scratch.mac.doFinal();
+            return signingInput + '.' + BASE64_URL.encodeToString(signature);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    /**
+     * 校验 token
+     *
+     * @return VerifiedToken；签名错误或已过期返回 null；无法处理返回 {@link #NOT_HANDLED}
+     */
+    VerifiedToken verify(String token, long nowMillis) {
+        int headerEnd = headerSegment.length();
+        if (token.length() <= headerEnd + 1
+                || token.charAt(headerEnd) != '.'
+                || !token.startsWith(headerSegment)) {
+            return NOT_HANDLED;
+        }
+        int payloadEnd = token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return NOT_HANDLED;
+        }
+
+        Scratch scratch = borrow();
+        try {
+            // 验签：HMAC(header.payload) 与签名段常量时间比较
+            int inputLen = scratch.load(token, 0, payloadEnd);
+            scratch.mac.update(scratch.buf, 0, inputLen);
+            scratch.finish();
+            int sigLen = decodeBase64Url(token, payloadEnd + 1, token.length(), scratch.actual);
+            if (sigLen < 0) {
+                return NOT_HANDLED;
+            }
+            if (sigLen != scratch.expected.length
+                    || !MessageDigest.isEqual(scratch.expected, scratch.actual)) {
+                return null;
+            }
+
+            // 签名正确，payload 一定由本服务签发，可直接按字节读取字段
+            byte[] payload = scratch.ensurePayload(payloadEnd - headerEnd);
+            int payloadLen = decodeBase64Url(token, headerEnd + 1, payloadEnd, payload);
+            if (payloadLen < 0 || indexOf(payload, payloadLen, KEY_NBF) >= 0) {
+                return NOT_HANDLED;
+            }
+            long exp = readLong(payload, payloadLen, KEY_EXP);
+            long userId = readLong(payload, payloadLen, KEY_USER_ID);
+            if (exp == Long.MIN_VALUE || userId == Long.MIN_VALUE) {
+                return NOT_HANDLED;
+            }
+            long tokenId = 0;
+            if (indexOf(payload, payloadLen, KEY_JTI) >= 0) {
+                tokenId = readLong(payload, payloadLen, KEY_JTI, '"');
+                if (tokenId == Long.MIN_VALUE) {
+                    return NOT_HANDLED;
+                }
+            }
+            long expiresAtMillis = exp * 1000;
+            if (nowMillis > expiresAtMillis) {
+                return null;
+            }
+            return new VerifiedToken(userId, expiresAtMillis, tokenId);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    private Scratch borrow() {
+        int start = ThreadLocalRandom.current().nextInt(pool.length());
+        for (int i = 0; i < pool.length(); i++) {
+            Scratch s = pool.getAndSet((start + i) % pool.length(), null);
+            if (s != null) {
+                return s;
+            }
+        }
+        return new Scratch(secretKey);
+    }
+
+    private void release(Scratch scratch) {
+        scratch.mac.reset();
+        int start = ThreadLocalRandom.current().nextInt(pool.length());
+        for (int i = 0; i < pool.length(); i++) {
+            if (pool.compareAndSet((start + i) % pool.length(), null, scratch)) {
+                return;
+            }
+        }
+    }
+
+    private static long readLong(byte[] buf, int len, byte[] key) {
+        return readLong(buf, len, key, '\0');
+    }
+
+    /**
+     * 读取形如 "key":123 的整数值（terminator 非 0 时为 "key":"123" 形式的数字字符串），
+     * 不存在或不是整数返回 Long.MIN_VALUE
+     */
+    private static long readLong(byte[] buf, int len, byte[] key, char terminator) {
+        int pos = indexOf(buf, len, key);
+        if (pos < 0) {
+            return Long.MIN_VALUE;
+        }
+        pos += key.length;
+        boolean negative = pos < len && buf[pos] == '-';
+        if (negative) {
+            pos++;
+        }
+        int start = pos;
+        long value = 0;
+        while (pos < len && buf[pos] >= '0' && buf[pos] <= '9') {
+            if (pos - start >= 18) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (buf[pos++] - '0');
+        }
+        if (terminator != 0) {
+            if (pos == start || pos >= len || buf[pos] != terminator) {
+                return Long.MIN_VALUE;
+            }
+            pos++;
+        }
+        if (pos == start || pos >= len || (buf[pos] != ',' && buf[pos] != '}')) {
+            return Long.MIN_VALUE;
+        }
+        return negative ? -value : value;
+    }
+
+    private static int indexOf(byte[] buf, int len, byte[] key) {
+        outer:
+        for (int i = 0; i <= len - key.length; i++) {
+            for (int j = 0; j < key.length; j++) {
+                if (buf[i + j] != key[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 无填充 Base64URL 解码到 out，返回解码字节数；非法输入或 out 不足返回 -1
+     */
+    private static int decodeBase64Url(String s, int from, int to, byte[] out) {
+        int bits = 0;
+        int bitCount = 0;
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            int v = c < 128 ? BASE64_URL_VALUES[c] : -1;
+            if (v < 0) {
+                return -1;
+            }
+            bits = (bits << 6) | v;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                if (n >= out.length) {
+                    return -1;
+                }
+                out[n++] = (byte) (bits >> bitCount);
+            }
+        }
+        return bitCount >= 6 ? -1 : n;
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * 池化的 Mac 及配套缓冲区
+     */
+    private static final class Scratch {
+        final Mac mac;
+        final byte[] expected;
+        final byte[] actual;
+        byte[] buf = new byte[512];
+        byte[] payload = new byte[256];
+
+        Scratch(SecretKey key) {
+            try {
+                this.mac = Mac.getInstance(key.getAlgorithm());
+                this.mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("初始化 HMAC 失败: " + key.getAlgorithm(), e);
+            }
+            this.expected = new byte[mac.getMacLength()];
+            this.actual = new byte[mac.getMacLength()];
+        }
+
+        /**
+         * 计算 MAC 写入 expected
+         */
+        void finish() {
+            try {
+                mac.doFinal(expected, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * 将 ASCII 字符串片段写入 buf，返回长度
+         */
+        int load(String s, int from, int to) {
+            int len = to - from;
+            if (buf.length < len) {
+                buf = new byte[Math.max(len, buf.length * 2)];
+            }
+            for (int i = 0; i < len; i++) {
+                buf[i] = (byte) s.charAt(from + i);
+            }
+            return len;
+        }
+
+        byte[] ensurePayload(int encodedLen) {
+            int max = encodedLen * 3 / 4 + 1;
+            if (payload.length < max) {
+                payload = new byte[Math.max(max, payload.length * 2)];
+            }
+            return payload;
+        }
+    }
+}
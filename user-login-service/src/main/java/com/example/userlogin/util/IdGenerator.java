@@ -0,0 +1,14 @@
+package com.example.userlogin.util;
+
+/**
+ * 主键生成器
+ *
+ * 实体插入前由应用生成主键，不依赖数据库自增列，Hibernate 和 JDBC 才能批量插入。
+ */
+public interface IdGenerator {
+
+    /**
+     * 生成下一个主键，同一实例生成的值严格递增
+     */
+    long nextId();
+}
@@ -2,8 +2,12 @@ package com.example.userlogin.util;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -13,26 +17,83 @@ import java.util.Date;
 
 /**
  * JWT 工具类 - 生成和解析 JWT token
+ *
+ * 本服务签发的 token 走 HMAC 快速通道，其余 token 回退到预先构建的 jjwt 解析器。
+ * 每个 token 带一个 Snowflake ID（jti），按签发时间有序，用于吊销（{@link TokenRevocationList}）。
  */
 @Component
 public class JwtUtil {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
     private final SecretKey secretKey;
     private final long expirationMs;
+    private final JwtParser jwtParser;
+    private final HmacJwtEngine fastPath;
+    private final SnowflakeIdGenerator tokenIds;
     private static final String CLAIM_USER_ID = "userId";
     private static final String CLAIM_USERNAME = "username";
 
+    public JwtUtil(String secret, long expirationMs) {
+        this(secret, expirationMs, 0);
+    }
+
+    /**
+     * @param nodeId 实例节点号，与主键生成器共用 id.node-id，保证多实例签发的 token ID 不重复
+     */
+    @Autowired
     public JwtUtil(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration-ms}") long expirationMs) {
+            @Value("${jwt.expiration-ms}") long expirationMs,
+            @Value("${id.node-id:0}") int nodeId) {
+        this.tokenIds = new SnowflakeIdGenerator(nodeId);
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        // JwtParser 不可变且线程安全，只需构建一次
+        this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
+        this.fastPath = createFastPath();
+    }
+
+    /**
+     * 用 jjwt 签发一个探测 token 确定 header，并交叉验证快速通道的签名结果，
+     * 不一致时禁用快速通道
+     */
+    private HmacJwtEngine createFastPath() {
+        try {
+            String probe = Jwts.builder().subject("probe").signWith(secretKey).compact();
+            HmacJwtEngine engine = new HmacJwtEngine(secretKey, probe.substring(0, probe.indexOf('.')));
+            long now = System.currentTimeMillis();
+            String token = engine.sign(0L, "probe", 1L, now, now + 60_000);
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            VerifiedToken verified = engine.verify(token, now);
+            if (Long.valueOf(0L).equals(getUserId(claims)) && "1".equals(claims.getId())
+                    && verified != null && verified != HmacJwtEngine.NOT_HANDLED && verified.tokenId() == 1L) {
+                return engine;
+            }
+            log.warn("JWT 快速通道自检不一致，已禁用");
+        } catch (RuntimeException e) {
+            log.warn("JWT 快速通道初始化失败，已禁用: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 取一个新的 token ID：本实例此前签发的 token ID 都小于它，之后签发的都大于它
+     * （序列号用尽时生成器会借用之后的毫秒，按当前时间构造的 ID 不能保证这一点）
+     */
+    public long nextTokenId() {
+        return tokenIds.nextId();
     }
 
     /**
      * 生成 JWT token
      */
     public String generateToken(Long userId, String username) {
+        long tokenId = tokenIds.nextId();
+        if (fastPath != null) {
+            long now = System.currentTimeMillis();
+            return fastPath.sign(userId, username, tokenId, now, now + expirationMs);
+        }
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
 
@@ -40,6 +101,7 @@ public class JwtUtil {
                 .claim(CLAIM_USER_ID, userId)
                 .claim(CLAIM_USERNAME, username)
                 .subject(username)
+                .id(Long.toString(tokenId))
                 .issuedAt(now)
                 .expiration(expiry)
                 .signWith(secretKey)
@@ -56,16 +118,36 @@ public class JwtUtil {
             return null;
         }
         try {
-            return Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (JwtException e) {
             return null;
         }
     }
 
+    /**
+     * 校验 JWT token，返回 userId 和过期时间
+     *
+     * @return VerifiedToken 或 null（token 无效时）
+     */
+    public VerifiedToken verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        if (fastPath != null) {
+            VerifiedToken verified = fastPath.verify(token, System.currentTimeMillis());
+            if (verified != HmacJwtEngine.NOT_HANDLED) {
+                return verified;
+            }
+        }
+        Claims claims = parseToken(token);
+        if (claims == null) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+        return new VerifiedToken(getUserId(claims), expiresAt, getTokenId(claims));
+    }
+
     /**
      * 从 Claims 获取 userId
      */
@@ -78,6 +160,21 @@ public class JwtUtil {
         return null;
     }
 
+    /**
+     * 从 Claims 获取 token ID，没有或不是数字返回 0
+     */
+    public long getTokenId(Claims claims) {
+        String id = claims != null ? claims.getId() : null;
+        if (id == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     /**
      * 获取 token 过期时间（秒），用于 Max-Age
      */
@@ -0,0 +1,113 @@
+package com.example.userlogin.util;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 游标分页的不透明游标
+ *
+ * 记录上一页最后一行的 (排序字段值, id)，编码为 Base64URL 字符串返回给客户端，
+ * 下一次请求据此直接定位，无需 OFFSET。
+ */
+public class KeysetCursor {
+
+    /**
+     * 支持游标分页的排序字段
+     * keyset 条件 (col > ? or col = ? and id > ?) 要求排序列非空：created_at、updated_at 可为空
+     * （历史数据、JDBC 直接写入），值为 null 的行会被跳过，因此不支持；id 是按时间生成的 Snowflake ID，
+     * 按 id 排序即按创建时间排序
+     */
+    public static final Set<String> SORT_FIELDS = Set.of("id", "username");
+
+    private static final String VERSION = "v1";
+    private static final String ID = "id";
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final Long id;
+    private final Object value;
+
+    private KeysetCursor(String sortBy, Sort.Direction direction, Long id, Object value) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.id = id;
+        this.value = value;
+    }
+
+    /**
+     * 从分页结果的位置生成游标
+     */
+    public static KeysetCursor of(String sortBy, Sort.Direction direction, ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("不支持的分页位置: " + position);
+        }
+        Map<String, ?> keys = keyset.getKeys();
+        Object id = keys.get(ID);
+        if (!(id instanceof Long)) {
+            throw new IllegalArgumentException("分页位置缺少 id");
+        }
+        return new KeysetCursor(sortBy, direction, (Long) id, keys.get(sortBy));
+    }
+
+    /**
+     * 解析客户端传入的游标，并校验与本次请求的排序方式一致
+     */
+    public static KeysetCursor decode(String cursor, String sortBy, Sort.Direction direction) {
+        String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        // 格式: v1:方向:排序字段:id:排序字段值（值放最后，可包含冒号）
+        String[] parts = text.split(":", 5);
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        if (!parts[1].equals(direction.name()) || !parts[2].equals(sortBy)) {
+            throw new IllegalArgumentException("分页游标与排序参数不一致");
+        }
+        try {
+            Long id = Long.parseLong(parts[3]);
+            return new KeysetCursor(sortBy, direction, id, parseValue(sortBy, parts[4]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 编码为不透明字符串
+     */
+    public String encode() {
+        String text = VERSION + ":" + direction.name() + ":" + sortBy + ":" + id + ":"
+                + (ID.equals(sortBy) ? id : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 转换为 Spring Data 的 keyset 位置
+     */
+    public ScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (!ID.equals(sortBy)) {
+            keys.put(sortBy, value);
+        }
+        keys.put(ID, id);
+        return ScrollPosition.forward(keys);
+    }
+
+    private static Object parseValue(String sortBy, String raw) {
+        return switch (sortBy) {
+            case "id" -> Long.parseLong(raw);
+            case "username" -> raw;
+            default -> throw new IllegalArgumentException("不支持的排序字段: " + sortBy);
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.userlogin.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 有界无锁环形队列（多生产者、单消费者）
+ *
+ * 每个槽位带一个序号：序号等于写指针时可写，等于写指针 + 1 时可读。生产者用 CAS 抢占写指针后填入元素，
+ * 消费者按序号判断槽位是否已填好，读走后把序号推进一圈释放槽位。入队不加锁、不阻塞，队列满时直接返回 false，
+ * 适合在请求线程（包括虚拟线程）上投递事件。
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity 容量，向上取整到 2 的幂
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity 必须在 1 到 2^30 之间");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 入队，可由任意线程调用；队列已满返回 false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        while (true) {
+            long t = tail.get();
+            int index = (int) t & mask;
+            long diff = sequences.get(index) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    elements.lazySet(index, element);
+                    // 序号的 volatile 写发布元素
+                    sequences.set(index, t + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0：其他生产者已抢占该槽位，重读写指针
+        }
+    }
+
+    /**
+     * 取出最多 limit 个元素交给 consumer，返回取出的个数；只能由单个消费线程调用
+     */
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long h = head.get();
+        int n = 0;
+        while (n < limit) {
+            int index = (int) h & mask;
+            if (sequences.get(index) != h + 1) {
+                // 槽位为空，或生产者已抢占但尚未填入
+                break;
+            }
+            E element = elements.get(index);
+            elements.lazySet(index, null);
+            sequences.set(index, h + capacity);
+            h++;
+            head.lazySet(h);
+            consumer.accept(element);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * 当前元素数（近似值）
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.userlogin.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 按 key 限流的令牌桶（GCRA 实现），无锁
+ *
+ * 每个 key 只保存一个"理论到达时间"（TAT）：每次放行把 TAT 推后一个发放间隔，
+ * TAT 超出当前时间一个突发容量时拒绝。更新用 CAS，热路径上没有锁，也不需要后台补充令牌。
+ * TAT 不晚于当前时间的 key 等价于满桶，可以删除而不影响结果，key 表因此有界：
+ * 超过 maxKeys 时只删除这些 key；仍在限流中的 key 从不淘汰（否则大量新 key 可以把目标 key 挤出、重置其限流），
+ * 表中全是这样的 key 时拒绝新 key，直到最早的 TAT 到期。删除前先用 CAS 把 TAT 标记为已淘汰，
+ * 与并发放行的 CAS 互斥：放行先成功则不删除，淘汰先成功则放行方改用新桶重试，两者都不会丢失更新。
+ */
+public class RateLimiter {
+
+    /**
+     * 已从 key 表删除的桶的 TAT
+     */
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    /**
+     * 表中最早的 TAT，在此之前没有可删除的 key，表满时不必重复扫描
+     */
+    private final AtomicLong nextExpiry;
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param permitsPerMinute 持续速率
+     * @param burst            突发容量（满桶时可以连续放行的次数）
+     * @param maxKeys          key 表上限
+     */
+    public RateLimiter(double permitsPerMinute, int burst, int maxKeys) {
+        this(permitsPerMinute, burst, maxKeys, System::nanoTime);
+    }
+
+    public RateLimiter(double permitsPerMinute, int burst, int maxKeys, LongSupplier clock) {
+        if (permitsPerMinute <= 0 || burst <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("permitsPerMinute、burst、maxKeys 必须大于0");
+        }
+        this.intervalNanos = (long) (TimeUnit.MINUTES.toNanos(1) / permitsPerMinute);
+        this.burstNanos = intervalNanos * burst;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.nextExpiry = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * 尝试获取一个许可
+     *
+     * @return 0 表示放行；否则为需要等待的纳秒数，本次请求不消耗许可
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        while (true) {
+            AtomicLong tat = buckets.get(key);
+            if (tat == null) {
+                // 先清理再插入，避免新 key 刚插入就被淘汰
+                if (buckets.size() >= maxKeys && !evict(now)) {
+                    return Math.max(1, nextExpiry.get() - now);
+                }
+                tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            long wait = acquire(tat, now);
+            if (wait >= 0) {
+                return wait;
+            }
+            // 桶刚被淘汰（等价于满桶），用新桶重试
+            buckets.remove(key, tat);
+        }
+    }
+
+    /**
+     * @return 0 放行，正数为等待时间，-1 表示桶已被淘汰
+     */
+    private long acquire(AtomicLong tat, long now) {
+        while (true) {
+            long current = tat.get();
+            if (current == EVICTED) {
+                return -1;
+            }
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                nextExpiry.accumulateAndGet(next, (a, b) -> a - b <= 0 ? a : b);
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 删除满桶的 key，返回表中是否有空位；同一时刻只有一个线程清理，其余线程按表满处理
+     */
+    private boolean evict(long now) {
+        if (now - nextExpiry.get() < 0 || !evicting.compareAndSet(false, true)) {
+            return buckets.size() < maxKeys;
+        }
+        try {
+            long earliest = Long.MAX_VALUE;
+            boolean found = false;
+            for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+                AtomicLong tat = entry.getValue();
+                long current = tat.get();
+                if (current == EVICTED) {
+                    continue;
+                }
+                if (current - now <= 0) {
+                    // CAS 失败说明期间有放行，桶仍在使用，保留
+                    if (tat.compareAndSet(current, EVICTED)) {
+                        buckets.remove(entry.getKey(), tat);
+                        evictions.increment();
+                    }
+                } else if (!found || current - earliest < 0) {
+                    earliest = current;
+                    found = true;
+                }
+            }
+            // 剩余的 key 在 earliest 之前都不会到期
+            nextExpiry.set(found ? earliest : now);
+            return buckets.size() < maxKeys;
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
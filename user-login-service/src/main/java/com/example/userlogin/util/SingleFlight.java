@@ -0,0 +1,105 @@
+package com.example.userlogin.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 并发请求合并（single-flight）
+ *
+ * 同一 key 同时只执行一次加载：第一个调用方执行，其余调用方等待并共享它的结果或异常。
+ * 加载结束即移除，不缓存结果。等待超过 timeoutMs 的调用方不再等待，自行加载一次，
+ * 避免一次慢查询拖住所有等待者。
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public SingleFlight(long timeoutMs) {
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException("timeoutMs 必须大于0");
+        }
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * 执行或加入同一 key 正在进行的加载
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = inFlight.get(key);
+        if (flight == null) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            flight = inFlight.putIfAbsent(key, mine);
+            if (flight == null) {
+                return lead(key, mine, loader);
+            }
+        }
+        collapsed.increment();
+        try {
+            return flight.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            executions.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待合并查询结果时被中断", e);
+        }
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        executions.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (Throwable t) {
+            flight.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * 正在进行的加载数
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 实际执行的加载次数（含等待超时后自行加载的）
+     */
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    /**
+     * 加入已有加载、未单独执行的调用次数（含随后等待超时的）
+     */
+    public long getCollapsedCount() {
+        return collapsed.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.userlogin.util;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake 风格的时间有序主键生成器（无锁）
+ *
+ * 位布局（共 53 位，保证前端 JavaScript 的 Number 可以精确表示）：
+ * 41 位毫秒时间戳（自 2024-01-01 UTC 起，约 69 年）| 5 位节点号 | 7 位序列号。
+ * 同一节点每毫秒可生成 128 个；序列号用尽或时钟回拨时借用下一毫秒继续递增，
+ * 因此同一节点生成的主键严格单调，并大致按创建时间排序。
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    public static final int TIMESTAMP_BITS = 41;
+    public static final int NODE_BITS = 5;
+    public static final int SEQUENCE_BITS = 7;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    public static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    /**
+     * 保留给离线写入的工具（规模测试数据生成器），线上实例不能使用
+     */
+    public static final int RESERVED_NODE_ID = MAX_NODE_ID;
+
+    private static final long MAX_TIMESTAMP = (1L << TIMESTAMP_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+    /**
+     * 上一次生成的"时间戳 + 序列号"（不含节点号），相邻两次 CAS 之间只会递增
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点号必须在0到" + MAX_NODE_ID + "之间: " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = last.get();
+            // 新的一毫秒从序列号0开始；同一毫秒内或时钟回拨时在上一次基础上加1，
+            // 序列号溢出时自然进位到下一毫秒
+            next = Math.max(now, prev + 1);
+        } while (!last.compareAndSet(prev, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        if (timestamp > MAX_TIMESTAMP) {
+            throw new IllegalStateException("主键时间戳超出范围");
+        }
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & MAX_SEQUENCE);
+    }
+
+    /**
+     * 按各字段拼出主键，用于生成测试数据或构造某一时刻的主键下界
+     */
+    public static long compose(long epochMillis, int nodeId, int sequence) {
+        long timestamp = epochMillis - EPOCH_MILLIS;
+        if (timestamp < 0 || timestamp > MAX_TIMESTAMP) {
+            throw new IllegalArgumentException("时间超出主键可表示范围: " + epochMillis);
+        }
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点号必须在0到" + MAX_NODE_ID + "之间: " + nodeId);
+        }
+        if (sequence < 0 || sequence > MAX_SEQUENCE) {
+            throw new IllegalArgumentException("序列号必须在0到" + MAX_SEQUENCE + "之间: " + sequence);
+        }
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * 主键中的时间戳（毫秒，Unix 纪元）
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    /**
+     * 主键中的节点号
+     */
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    /**
+     * 主键中的序列号
+     */
+    public static int sequenceOf(long id) {
+        return (int) (id & MAX_SEQUENCE);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.userlogin.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 已吊销 token 列表
+ *
+ * 两种吊销方式：按 token ID（jti）吊销单个 token，或吊销某个用户在某一时刻之前签发的全部 token。
+ * token ID 是签发时生成的 Snowflake ID，本身按签发时间有序，"之前签发"即 token ID 小于吊销时从同一生成器取得的 ID
+ * （{@link JwtUtil#nextTokenId()}，生成器借用之后的毫秒时同样成立），
+ * 因此两种查询都只是一次 long 到 long 的查找（{@link ExpiringLongMap}），不访问数据库、不分配内存。
+ * 条目在对应 token 过期时由时间轮自动回收：单个 token 到其过期时间，按用户吊销到吊销时刻加 token 有效期。
+ * 列表只在本实例内存中，多实例部署时各实例需分别吊销。
+ */
+@Component
+public class TokenRevocationList {
+
+    private final long tokenTtlMillis;
+    private final IdGenerator tokenIds;
+    private final LongSupplier clock;
+    private final ExpiringLongMap revokedTokens;
+    private final ExpiringLongMap revokedBefore;
+
+    @Autowired
+    public TokenRevocationList(
+            @Value("${jwt.expiration-ms}") long tokenTtlMillis,
+            @Value("${jwt.revocation.tick-ms:60000}") long tickMillis,
+            JwtUtil jwtUtil) {
+        this(tokenTtlMillis, tickMillis, jwtUtil::nextTokenId, System::currentTimeMillis);
+    }
+
+    /**
+     * @param tokenIds 签发 token 所用的 ID 生成器
+     */
+    public TokenRevocationList(long tokenTtlMillis, long tickMillis, IdGenerator tokenIds, LongSupplier clock) {
+        this.tokenTtlMillis = tokenTtlMillis;
+        this.tokenIds = tokenIds;
+        this.clock = clock;
+        // 时间轮覆盖一个 token 有效期，大部分条目在第一轮即被回收
+        int slots = (int) Math.min(1 << 16, Math.max(1, tokenTtlMillis / tickMillis + 1));
+        this.revokedTokens = new ExpiringLongMap(tickMillis, slots, clock);
+        this.revokedBefore = new ExpiringLongMap(tickMillis, slots, clock);
+    }
+
+    /**
+     * 吊销单个 token
+     */
+    public void revoke(VerifiedToken token) {
+        if (token == null || token.tokenId() == 0) {
+            return;
+        }
+        revokedTokens.put(token.tokenId(), 1, token.expiresAtMillis());
+    }
+
+    /**
+     * 吊销用户当前时刻之前签发的全部 token
+     */
+    public void revokeAll(long userId) {
+        long now = clock.getAsLong();
+        // 本实例签发的 token 都早于从生成器新取的 ID；其他节点签发的按时间比较，同一毫秒内的一并吊销
+        long minTokenId = Math.max(tokenIds.nextId(), SnowflakeIdGenerator.compose(now + 1, 0, 0));
+        revokedBefore.put(userId, minTokenId, now + tokenTtlMillis);
+    }
+
+    /**
+     * token 是否已被吊销；不带 token ID 的 token（旧版本签发）视为早于任何按用户吊销
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        long tokenId = token.tokenId();
+        if (tokenId != 0 && revokedTokens.get(tokenId, 0) != 0) {
+            return true;
+        }
+        Long userId = token.userId();
+        return userId != null && userId != 0 && tokenId < revokedBefore.get(userId, Long.MIN_VALUE);
+    }
+
+    /**
+     * 回收已过期的条目，写入时也会顺带回收
+     */
+    public void expire() {
+        revokedTokens.expire();
+        revokedBefore.expire();
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedBefore.size();
+    }
+}
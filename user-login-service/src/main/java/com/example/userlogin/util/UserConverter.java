@@ -3,6 +3,7 @@ package com.example.userlogin.util;
 import com.example.userlogin.dto.UserRegisterDTO;
 import com.example.userlogin.dto.UserUpdateDTO;
 import com.example.userlogin.entity.UserDO;
+import com.example.userlogin.repository.UserSummary;
 import com.example.userlogin.vo.UserVO;
 
 /**
@@ -29,6 +30,19 @@ public class UserConverter {
         return vo;
     }
 
+    /**
+     * UserSummary转UserVO
+     * 将列表投影转换为视图对象
+     */
+    public static UserVO toVO(UserSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+
+        return new UserVO(summary.getId(), summary.getUsername(), summary.getEmail(),
+                summary.getCreatedAt(), summary.getUpdatedAt());
+    }
+
     /**
      * UserRegisterDTO转UserDO
      * 将注册请求数据转换为数据对象
@@ -0,0 +1,11 @@
+package com.example.userlogin.util;
+
+/**
+ * 已校验通过的 JWT token 信息
+ *
+ * @param userId          token 中的 userId（可能为 null）
+ * @param expiresAtMillis token 过期时间（毫秒时间戳）
+ * @param tokenId         token ID（jti，签发时生成的 Snowflake ID），旧版本签发的 token 没有，为 0
+ */
+public record VerifiedToken(Long userId, long expiresAtMillis, long tokenId) {
+}
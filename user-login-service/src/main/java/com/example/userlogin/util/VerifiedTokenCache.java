@@ -0,0 +1,113 @@
+package com.example.userlogin.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.LongSupplier;
+
+/**
+ * 已校验 token 缓存
+ *
+ * 以 token 字符串的 SHA-256 摘要为 key，缓存 userId 和过期时间，
+ * 同一浏览器重复携带同一 cookie 时只需一次哈希查找，无需重新解析和验签。
+ * 内存中不保存 token 原文。
+ */
+@Component
+public class VerifiedTokenCache {
+
+    /**
+     * 摘要原型，每次使用时克隆。不用 ThreadLocal 缓存：虚拟线程不复用，
+     * ThreadLocal 在每个请求上都会重新初始化
+     */
+    private static final MessageDigest SHA256;
+
+    static {
+        try {
+            SHA256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final boolean enabled;
+    private final BoundedExpiringCache<TokenDigest, VerifiedToken> cache;
+
+    @Autowired
+    public VerifiedTokenCache(
+            @Value("${jwt.cache.enabled:true}") boolean enabled,
+            @Value("${jwt.cache.max-size:10000}") int maxSize,
+            @Value("${jwt.cache.ttl-ms:300000}") long ttlMs) {
+        this(enabled, maxSize, ttlMs, System::currentTimeMillis);
+    }
+
+    public VerifiedTokenCache(boolean enabled, int maxSize, long ttlMs, LongSupplier clock) {
+        this.enabled = enabled;
+        this.cache = new BoundedExpiringCache<>(maxSize, ttlMs, clock);
+    }
+
+    /**
+     * 查询缓存，未命中或已过期返回 null
+     */
+    public VerifiedToken get(String token) {
+        if (!enabled || token == null) {
+            return null;
+        }
+        return cache.get(digest(token));
+    }
+
+    /**
+     * 缓存校验结果，到 token 过期时间后自动失效
+     */
+    public void put(String token, VerifiedToken verified) {
+        if (!enabled || token == null || verified == null) {
+            return;
+        }
+        cache.put(digest(token), verified, verified.expiresAtMillis());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    private static TokenDigest digest(String token) {
+        MessageDigest md;
+        try {
+            md = (MessageDigest) SHA256.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * SHA-256 摘要（256 位拆成 4 个 long）
+     */
+    private record TokenDigest(long h0, long h1, long h2, long h3) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.userlogin.vo;
+
+/**
+ * 批量注册单行结果
+ */
+public class BulkRegisterRowVO {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private int index;
+    private String username;
+    private String status;
+    private Long id;
+    private String error;
+
+    // 无参构造函数
+    public BulkRegisterRowVO() {
+    }
+
+    // 全参构造函数
+    public BulkRegisterRowVO(int index, String username, String status, Long id, String error) {
+        this.index = index;
+        this.username = username;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BulkRegisterRowVO created(int index, String username, Long id) {
+        return new BulkRegisterRowVO(index, username, CREATED, id, null);
+    }
+
+    public static BulkRegisterRowVO failed(int index, String username, String error) {
+        return new BulkRegisterRowVO(index, username, FAILED, null, error);
+    }
+
+    // Getter and Setter methods
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
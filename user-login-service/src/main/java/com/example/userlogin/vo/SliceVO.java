@@ -0,0 +1,77 @@
+package com.example.userlogin.vo;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * 不带总数的分页结果
+ * 只返回当前页数据和是否有下一页，不执行 count 查询
+ */
+public class SliceVO<T> {
+
+    private List<T> content;
+    private int number;
+    private int size;
+    private boolean hasNext;
+
+    // 无参构造函数
+    public SliceVO() {
+    }
+
+    // 全参构造函数
+    public SliceVO(List<T> content, int number, int size, boolean hasNext) {
+        this.content = content;
+        this.number = number;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * 由 Spring Data Slice 转换
+     */
+    public static <T> SliceVO<T> from(Slice<T> slice) {
+        return new SliceVO<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+
+    // Getter and Setter methods
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public void setNumber(int number) {
+        this.number = number;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getNumberOfElements() {
+        return content == null ? 0 : content.size();
+    }
+
+    public boolean isFirst() {
+        return number == 0;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
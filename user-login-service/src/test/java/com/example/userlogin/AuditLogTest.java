@@ -0,0 +1,222 @@
+package com.example.userlogin;
+
+import com.example.userlogin.audit.AuditEventType;
+import com.example.userlogin.audit.AuditLog;
+import com.example.userlogin.audit.AuditLogReader;
+import com.example.userlogin.audit.AuditRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 审计日志测试
+ *
+ * 1. 写满分段后切换到新分段，读取时按序号连续、字段完整（含多字节用户名截断）
+ * 2. 重启后从新分段开始，序号接着上次
+ * 3. 记录损坏（校验和不符）时读取在该处停止
+ * 4. 跟踪读取能看到写入线程随后写入的记录
+ * 5. 目录不可写时仍能启动，处于失败状态期间丢弃记录，目录恢复后切换到新分段继续写入
+ * 6. 切换分段失败后同样重试，恢复后序号接着失败前的最后一条
+ */
+public class AuditLogTest {
+
+    @TempDir
+    Path dir;
+
+    private AuditLog newLog() {
+        return new AuditLog(true, dir.toString(), 1, 32768, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testRotateReadAndRestart() throws Exception {
+        // 1 MB 分段约可容纳 8191 条
+        int count = 20000;
+        AuditLog auditLog = newLog();
+        auditLog.start();
+        for (int i = 1; i <= count; i++) {
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, i, "user" + i);
+        }
+        String longName = "张".repeat(40);
+        auditLog.record(AuditEventType.LOGIN_FAILURE, 0, longName);
+        auditLog.stop();
+
+        List<AuditRecord> records = readAll(0);
+        assertEquals(count + 1, records.size());
+        for (int i = 0; i < count; i++) {
+            AuditRecord record = records.get(i);
+            assertEquals(i + 1, record.sequence());
+            assertEquals(AuditEventType.LOGIN_SUCCESS, record.type());
+            assertEquals(i + 1, record.userId());
+            assertEquals("user" + (i + 1), record.username());
+            assertNull(record.clientAddress());
+        }
+        AuditRecord last = records.get(count);
+        assertEquals(AuditEventType.LOGIN_FAILURE, last.type());
+        // 80 字节放下 26 个三字节字符
+        assertEquals("张".repeat(26), last.username());
+        assertEquals(3, segmentCount());
+
+        AuditLog restarted = newLog();
+        restarted.start();
+        restarted.record(AuditEventType.LOGOUT, 7, null);
+        restarted.stop();
+        assertEquals(4, segmentCount());
+
+        List<AuditRecord> tail = readAll(count + 1);
+        assertEquals(2, tail.size());
+        assertEquals(count + 2, tail.get(1).sequence());
+        assertEquals(AuditEventType.LOGOUT, tail.get(1).type());
+        assertNull(tail.get(1).username());
+    }
+
+    @Test
+    public void testCorruptedRecordEndsSegment() throws Exception {
+        AuditLog auditLog = newLog();
+        auditLog.start();
+        for (int i = 1; i <= 10; i++) {
+            auditLog.record(AuditEventType.REGISTER, i, "user" + i);
+        }
+        auditLog.stop();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // 第 6 条记录的用户名
+            long offset = 64 + 5L * AuditRecord.SIZE + 48;
+            file.seek(offset);
+            file.write('X');
+        }
+        List<AuditRecord> records = readAll(0);
+        assertEquals(5, records.size());
+        assertEquals(5, records.get(4).sequence());
+    }
+
+    @Test
+    public void testFollow() throws Exception {
+        AuditLog auditLog = newLog();
+        auditLog.start();
+        List<AuditRecord> seen = new CopyOnWriteArrayList<>();
+        Thread follower = new Thread(() -> {
+            try {
+                new AuditLogReader(dir).follow(0, seen::add, 10);
+            } catch (InterruptedException e) {
+                // 结束跟踪
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        follower.start();
+        try {
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, 1, "alice");
+            auditLog.record(AuditEventType.LOGOUT_ALL, 1, null);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (seen.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            follower.interrupt();
+            follower.join();
+            auditLog.stop();
+        }
+        assertEquals(2, seen.size());
+        assertEquals(AuditEventType.LOGOUT_ALL, seen.get(1).type());
+    }
+
+    @Test
+    public void testStartWithUnwritableDirectory() throws Exception {
+        // 目录路径被普通文件占用，无法创建
+        Path blocked = dir.resolve("blocked");
+        Files.writeString(blocked, "x");
+        MeterRegistry registry = new SimpleMeterRegistry();
+        AuditLog auditLog = new AuditLog(true, blocked.toString(), 1, 32768, 100, registry);
+        auditLog.start();
+        try {
+            assertTrue(auditLog.isFailed());
+            assertEquals(1, registry.get("user.audit.failed").gauge().value());
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, 1, "lost");
+            waitUntil(() -> registry.get("user.audit.dropped").counter().count() == 1);
+
+            Files.delete(blocked);
+            waitUntil(() -> !auditLog.isFailed());
+            assertEquals(0, registry.get("user.audit.failed").gauge().value());
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, 2, "kept");
+        } finally {
+            auditLog.stop();
+        }
+        List<AuditRecord> records = new ArrayList<>();
+        new AuditLogReader(blocked).read(0, records::add);
+        assertEquals(1, records.size());
+        assertEquals("kept", records.get(0).username());
+        assertEquals(1, records.get(0).sequence());
+    }
+
+    @Test
+    public void testRecoverAfterRotateFailure() throws Exception {
+        Path logDir = dir.resolve("log");
+        MeterRegistry registry = new SimpleMeterRegistry();
+        AuditLog auditLog = new AuditLog(true, logDir.toString(), 1, 32768, 100, registry);
+        auditLog.start();
+        // 1 MB 分段可容纳 8191 条
+        int perSegment = 8191;
+        try {
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, 1, "first");
+            waitUntil(() -> registry.get("user.audit.written").counter().count() == 1);
+
+            // 目录被移走并被普通文件占用：当前分段仍可写，写满后切换失败
+            Files.move(logDir, dir.resolve("moved"));
+            Files.writeString(logDir, "x");
+            for (int i = 2; i <= perSegment + 10; i++) {
+                auditLog.record(AuditEventType.LOGIN_SUCCESS, i, "user" + i);
+            }
+            waitUntil(() -> registry.get("user.audit.dropped").counter().count() == 10);
+            assertTrue(auditLog.isFailed());
+            assertEquals(perSegment, registry.get("user.audit.written").counter().count());
+
+            Files.delete(logDir);
+            waitUntil(() -> !auditLog.isFailed());
+            auditLog.record(AuditEventType.LOGOUT, 1, "after");
+        } finally {
+            auditLog.stop();
+        }
+        List<AuditRecord> records = new ArrayList<>();
+        new AuditLogReader(logDir).read(0, records::add);
+        assertEquals(1, records.size());
+        assertEquals("after", records.get(0).username());
+        assertEquals(perSegment + 1, records.get(0).sequence());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "等待超时");
+            Thread.sleep(10);
+        }
+    }
+
+    private List<AuditRecord> readAll(long fromSequence) throws Exception {
+        List<AuditRecord> records = new ArrayList<>();
+        new AuditLogReader(dir).read(fromSequence, records::add);
+        return records;
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
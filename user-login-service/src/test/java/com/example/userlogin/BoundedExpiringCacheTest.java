@@ -0,0 +1,92 @@
+package com.example.userlogin;
+
+import com.example.userlogin.util.BoundedExpiringCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 有界过期缓存测试
+ *
+ * 1. 到默认 TTL 或写入时指定的过期时间（取较早者）后不再返回，读取时移除
+ * 2. 写入时已过期的条目不缓存
+ * 3. 超过容量时先清理过期条目，仍超出则淘汰到容量的 90%，条目数不超过上限
+ * 4. 命中、未命中、淘汰计数
+ */
+public class BoundedExpiringCacheTest {
+
+    @Test
+    public void testTtlExpiry() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(100, 1_000, now::get);
+        cache.put("a", "A");
+        cache.put("b", "B", now.get() + 300);
+        cache.put("c", "C", now.get() + 5_000);
+
+        now.addAndGet(299);
+        assertEquals("B", cache.get("b"));
+        now.addAndGet(1);
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+
+        // 指定的过期时间晚于默认 TTL 时按 TTL 过期
+        now.addAndGet(700);
+        assertNull(cache.get("a"));
+        assertNull(cache.get("c"));
+        assertEquals(0, cache.size());
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testAlreadyExpiredNotCached() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(100, 1_000, now::get);
+        cache.put("a", "A", now.get());
+        cache.put("b", "B", now.get() - 1);
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testEvictionBound() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        BoundedExpiringCache<Integer, Integer> cache = new BoundedExpiringCache<>(100, 60_000, now::get);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 100, "size " + cache.size() + " after " + i);
+        }
+        assertTrue(cache.getEvictionCount() >= 900);
+        // 最近写入的条目仍可读到
+        assertEquals(999, cache.get(999));
+    }
+
+    @Test
+    public void testEvictionPrefersExpired() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        BoundedExpiringCache<Integer, Integer> cache = new BoundedExpiringCache<>(10, 60_000, now::get);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, i, now.get() + 100);
+        }
+        for (int i = 5; i < 10; i++) {
+            cache.put(i, i);
+        }
+        now.addAndGet(100);
+        // 超出容量时只清理过期条目即可，未过期的条目全部保留
+        cache.put(10, 10);
+        assertEquals(6, cache.size());
+        assertEquals(5, cache.getEvictionCount());
+        for (int i = 5; i <= 10; i++) {
+            assertEquals(i, cache.get(i));
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedExpiringCache<>(0, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedExpiringCache<>(10, 0));
+    }
+}
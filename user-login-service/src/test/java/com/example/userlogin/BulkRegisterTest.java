@@ -0,0 +1,272 @@
+package com.example.userlogin;
+
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.service.BulkRegistrationService;
+import com.example.userlogin.service.PasswordHasher;
+import com.example.userlogin.vo.BulkRegisterRowVO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 批量注册测试
+ *
+ * 1. 按块处理：每块输出一行进度，结果按行号输出，成功行带主键
+ * 2. 导入数据内重复（忽略大小写，跨块）、数据库中已存在、校验失败的行单独失败，不影响其他行
+ * 3. 查重之后被并发注册抢占时整块写入失败，逐行重试后只有冲突行失败
+ * 4. 接口边解析边处理：空数组、非数组返回 400；超过行数上限、中途解析失败时输出错误行和汇总，已处理的块保留
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=bulk",
+        "user.bulk.chunk-size=100",
+        "user.bulk.max-rows=300"
+})
+@AutoConfigureMockMvc
+public class BulkRegisterTest {
+
+    /**
+     * 哈希密码前执行 beforeHash，模拟查重之后、写入之前的并发注册
+     */
+    @TestConfiguration
+    static class RacingHasherConfig {
+
+        static volatile Runnable beforeHash;
+
+        @Bean
+        @Primary
+        PasswordHasher racingPasswordHasher(MeterRegistry meterRegistry) {
+            return new PasswordHasher(4, 2, 64, 5000, meterRegistry) {
+                @Override
+                public List<String> hashAll(List<String> rawPasswords) {
+                    Runnable hook = beforeHash;
+                    if (hook != null) {
+                        beforeHash = null;
+                        hook.run();
+                    }
+                    return super.hashAll(rawPasswords);
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private BulkRegistrationService bulkRegistrationService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${jwt.cookie-name}")
+    private String cookieName;
+
+    private Cookie token;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        if (jdbcTemplate.queryForObject("select count(*) from users where username = 'bulkadmin'", Long.class) == 0) {
+            mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"bulkadmin\",\"password\":\"secret123\",\"email\":\"bulkadmin@example.com\"}"))
+                    .andExpect(status().isCreated());
+        }
+        token = mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"bulkadmin\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(cookieName);
+    }
+
+    @Test
+    public void testChunksAndDuplicates() {
+        insertDirectly(9_000_001L, "chunk7", "existing@example.com");
+        List<UserRegisterDTO> users = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            users.add(new UserRegisterDTO("chunk" + i, "secret123", "chunk" + i + "@example.com"));
+        }
+        // 跨块重复（忽略大小写）、邮箱重复、数据库中已存在、校验失败、空元素
+        users.set(150, new UserRegisterDTO("CHUNK5", "secret123", "other150@example.com"));
+        users.set(160, new UserRegisterDTO("chunk160", "secret123", "Chunk6@Example.com"));
+        users.set(170, new UserRegisterDTO("chunk170", "secret123", "existing@example.com"));
+        users.set(180, new UserRegisterDTO("x", "1", null));
+        users.set(190, null);
+
+        List<BulkRegisterRowVO> rows = new ArrayList<>();
+        List<int[]> progress = new ArrayList<>();
+        BulkRegistrationService.Summary summary = bulkRegistrationService.register(users.iterator(),
+                new BulkRegistrationService.Listener() {
+                    @Override
+                    public void onRow(BulkRegisterRowVO row) {
+                        rows.add(row);
+                    }
+
+                    @Override
+                    public void onChunk(int processed, int created, int failed) {
+                        progress.add(new int[]{processed, created, failed});
+                    }
+                });
+
+        assertEquals(250, summary.total());
+        assertEquals(244, summary.created());
+        assertEquals(6, summary.failed());
+        assertEquals(3, progress.size());
+        assertArrayEquals(new int[]{100, 99, 1}, progress.get(0));
+        assertArrayEquals(new int[]{250, 244, 6}, progress.get(2));
+        assertEquals(250, rows.size());
+
+        assertTrue(error(rows, 7).startsWith("用户名已存在"));
+        assertTrue(error(rows, 150).startsWith("导入数据中用户名重复"));
+        assertTrue(error(rows, 160).startsWith("导入数据中邮箱重复"));
+        assertTrue(error(rows, 170).startsWith("邮箱已存在"));
+        assertNotNull(error(rows, 180));
+        assertEquals("数据为空", error(rows, 190));
+        assertTrue(rows.stream().filter(r -> BulkRegisterRowVO.CREATED.equals(r.getStatus()))
+                .allMatch(r -> r.getId() != null));
+        assertEquals(244, jdbcTemplate.queryForObject(
+                "select count(*) from users where username like 'chunk%' and id <> 9000001", Integer.class));
+    }
+
+    @Test
+    public void testRowByRowRetry() {
+        List<UserRegisterDTO> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(new UserRegisterDTO("race" + i, "secret123", "race" + i + "@example.com"));
+        }
+        // 查重之后、写入之前另一个请求注册了 race3
+        RacingHasherConfig.beforeHash = () -> insertDirectly(9_000_002L, "race3", null);
+
+        List<BulkRegisterRowVO> rows = new ArrayList<>();
+        BulkRegistrationService.Summary summary = bulkRegistrationService.register(users.iterator(),
+                new BulkRegistrationService.Listener() {
+                    @Override
+                    public void onRow(BulkRegisterRowVO row) {
+                        rows.add(row);
+                    }
+
+                    @Override
+                    public void onChunk(int processed, int created, int failed) {
+                    }
+                });
+
+        assertEquals(4, summary.created());
+        assertEquals(1, summary.failed());
+        assertTrue(error(rows, 3).startsWith("用户名或邮箱已存在"));
+        assertEquals(5, jdbcTemplate.queryForObject(
+                "select count(*) from users where username like 'race%'", Integer.class));
+        assertEquals(9_000_002L, jdbcTemplate.queryForObject(
+                "select id from users where username = 'race3'", Long.class));
+    }
+
+    @Test
+    public void testStreamingEndpoint() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 150; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"username\":\"http").append(i).append("\",\"password\":\"secret123\"}");
+        }
+        body.append("]");
+
+        List<JsonNode> lines = postBulk(body.toString());
+        // 150 行结果、2 行进度、1 行汇总
+        assertEquals(150 + 2 + 1, lines.size());
+        assertEquals("progress", lines.get(100).get("type").asText());
+        assertEquals(100, lines.get(100).get("processed").asInt());
+        JsonNode summary = lines.get(lines.size() - 1);
+        assertEquals("summary", summary.get("type").asText());
+        assertEquals(150, summary.get("total").asInt());
+        assertEquals(150, summary.get("created").asInt());
+
+        mockMvc.perform(post("/api/users/bulk-register").cookie(token)
+                        .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/users/bulk-register").cookie(token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"username\":\"single\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/users/bulk-register")
+                        .contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testStreamingStopsAtLimitOrParseError() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 320; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"username\":\"limit").append(i).append("\",\"password\":\"secret123\"}");
+        }
+        body.append("]");
+
+        List<JsonNode> lines = postBulk(body.toString());
+        JsonNode error = lines.get(lines.size() - 2);
+        assertEquals("error", error.get("type").asText());
+        assertTrue(error.get("error").asText().contains("300"));
+        assertEquals(300, lines.get(lines.size() - 1).get("total").asInt());
+        assertEquals(300, jdbcTemplate.queryForObject(
+                "select count(*) from users where username like 'limit%'", Integer.class));
+
+        // 第二块中途截断：第一块已提交，第二块未处理
+        StringBuilder broken = new StringBuilder("[");
+        for (int i = 0; i < 150; i++) {
+            broken.append(i == 0 ? "" : ",")
+                    .append("{\"username\":\"broken").append(i).append("\",\"password\":\"secret123\"}");
+        }
+        broken.append(",{\"username\":");
+
+        lines = postBulk(broken.toString());
+        error = lines.get(lines.size() - 2);
+        assertEquals("error", error.get("type").asText());
+        assertTrue(error.get("error").asText().startsWith("请求体解析失败，已处理前 100 行"));
+        assertEquals(100, lines.get(lines.size() - 1).get("created").asInt());
+        assertEquals(100, jdbcTemplate.queryForObject(
+                "select count(*) from users where username like 'broken%'", Integer.class));
+    }
+
+    private List<JsonNode> postBulk(String body) throws Exception {
+        String response = mockMvc.perform(post("/api/users/bulk-register").cookie(token)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private void insertDirectly(long id, String username, String email) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("insert into users (id, username, password, email, created_at, updated_at)"
+                + " values (?, ?, ?, ?, ?, ?)", id, username, "x", email, now, now);
+    }
+
+    private static String error(List<BulkRegisterRowVO> rows, int index) {
+        return rows.stream().filter(r -> r.getIndex() == index).findFirst().orElseThrow().getError();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.userlogin;
+
+import com.example.userlogin.service.UserService;
+import com.example.userlogin.vo.CursorPageVO;
+import com.example.userlogin.vo.UserVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 游标分页测试
+ *
+ * 按每个支持的排序字段、两个方向逐页读完全表，结果与一次性排序的结果相同（不重复、不遗漏），
+ * 包括 created_at、updated_at 为空的行；不支持的排序字段被拒绝。
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=cursor"
+})
+public class CursorPaginationTest {
+
+    private static final int ROWS = 57;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        if (jdbcTemplate.queryForObject("select count(*) from users", Integer.class) > 0) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            // 每 5 行一行时间为空
+            Timestamp at = i % 5 == 0 ? null : Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i % 7));
+            rows.add(new Object[]{1000L + (i * 37 % ROWS), "user" + (char) ('a' + i % 26) + i, "x", at, at});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into users (id, username, password, created_at, updated_at) values (?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    public void testEverySortFieldBothDirections() {
+        for (String sortBy : List.of("id", "username")) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                for (int size : new int[]{1, 10, ROWS}) {
+                    List<UserVO> all = readAll(sortBy, direction, size);
+                    Comparator<UserVO> order = "id".equals(sortBy)
+                            ? Comparator.comparing(UserVO::getId)
+                            : Comparator.comparing(UserVO::getUsername);
+                    if (direction.isDescending()) {
+                        order = order.reversed();
+                    }
+                    List<UserVO> expected = new ArrayList<>(all);
+                    expected.sort(order);
+                    assertEquals(ROWS, all.size(), sortBy + " " + direction + " " + size);
+                    assertEquals(expected.stream().map(UserVO::getId).toList(),
+                            all.stream().map(UserVO::getId).toList(), sortBy + " " + direction + " " + size);
+                    assertEquals(ROWS, all.stream().map(UserVO::getId).distinct().count());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsNullableSortFields() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersAfter(null, 10, "createdAt", Sort.Direction.ASC));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersAfter(null, 10, "updatedAt", Sort.Direction.DESC));
+    }
+
+    private List<UserVO> readAll(String sortBy, Sort.Direction direction, int size) {
+        List<UserVO> all = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page <= ROWS; page++) {
+            CursorPageVO<UserVO> result = userService.getUsersAfter(cursor, size, sortBy, direction);
+            all.addAll(result.getContent());
+            if (!result.isHasNext()) {
+                return all;
+            }
+            cursor = result.getNextCursor();
+            assertNotNull(cursor);
+        }
+        fail("分页未结束");
+        return all;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.userlogin;
+
+import jakarta.servlet.http.Cookie;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 自定义 JFR 事件测试
+ *
+ * 在 JFR 记录期间执行注册、登录（成功、密码错误、用户不存在）和两次带 token 的查询，验证：
+ * 1. Login 事件记录结果和用户名哈希，不含明文用户名
+ * 2. TokenVerification 事件区分缓存命中和未命中
+ * 3. RepositoryCall 事件记录方法名和返回行数
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=jfr",
+        "user.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+public class JfrEventsTest {
+
+    private static final String LOGIN = "com.example.userlogin.Login";
+    private static final String TOKEN = "com.example.userlogin.TokenVerification";
+    private static final String REPOSITORY = "com.example.userlogin.RepositoryCall";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${jwt.cookie-name}")
+    private String cookieName;
+
+    @Test
+    public void testEventsRecorded() throws Exception {
+        List<RecordedEvent> events;
+        // 录制结束后转储到文件再读取：RecordingStream 在停止时可能重复投递或漏掉刚提交的事件
+        Path dump = Files.createTempFile("jfr-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of(LOGIN, TOKEN, REPOSITORY)) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"jfruser\",\"password\":\"secret123\",\"email\":\"jfr@example.com\"}"))
+                    .andExpect(status().isCreated());
+            login("jfruser", "wrong123", 401);
+            login("nobody", "secret123", 401);
+            Cookie cookie = login("jfruser", "secret123", 200).getCookie(cookieName);
+            mockMvc.perform(get("/api/users").cookie(cookie)).andExpect(status().isOk());
+            mockMvc.perform(get("/api/users").cookie(cookie)).andExpect(status().isOk());
+
+            recording.stop();
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+
+        List<RecordedEvent> logins = byName(events, LOGIN);
+        assertEquals(List.of("bad_password", "unknown_user", "success"),
+                logins.stream().map(e -> e.getString("outcome")).toList());
+        assertEquals(logins.get(0).getString("usernameHash"), logins.get(2).getString("usernameHash"));
+        assertEquals(16, logins.get(0).getString("usernameHash").length());
+        assertFalse(logins.get(0).getString("usernameHash").contains("jfruser"));
+
+        List<RecordedEvent> tokens = byName(events, TOKEN);
+        assertEquals(List.of(false, true), tokens.stream().map(e -> e.getBoolean("cacheHit")).toList());
+        assertTrue(tokens.stream().allMatch(e -> e.getBoolean("valid")));
+
+        List<RecordedEvent> calls = byName(events, REPOSITORY);
+        assertTrue(calls.stream().anyMatch(e -> e.getString("method").equals("UserRepository.findByUsername")
+                && e.getLong("rows") == 1), "缺少 findByUsername 事件");
+        assertTrue(calls.stream().anyMatch(e -> e.getString("method").equals("UserRepository.findByUsername")
+                && e.getLong("rows") == 0), "缺少用户不存在时的 findByUsername 事件");
+        assertTrue(calls.stream().anyMatch(e -> e.getString("method").equals("UserRepository.findUserPage")
+                && e.getLong("rows") == 1), "缺少分页查询事件");
+        assertTrue(calls.stream().allMatch(e -> !e.getBoolean("failed") && e.getDuration().toNanos() > 0));
+    }
+
+    private MockHttpServletResponse login(String username, String password, int expected)
+            throws Exception {
+        return mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().is(expected))
+                .andReturn().getResponse();
+    }
+
+    private static List<RecordedEvent> byName(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+    }
+}
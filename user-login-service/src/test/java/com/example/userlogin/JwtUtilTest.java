@@ -0,0 +1,124 @@
+package com.example.userlogin;
+
+import com.example.userlogin.util.JwtUtil;
+import com.example.userlogin.util.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JWT 工具类测试
+ *
+ * 验证 HMAC 快速通道与 jjwt 的结果一致：
+ * 1. 快速通道签发的 token 可被 jjwt 解析
+ * 2. jjwt 签发的 token 可被快速通道校验
+ * 3. 篡改、过期的 token 被拒绝
+ * 4. token ID（jti）两条通道解析一致，旧 token 没有 token ID
+ */
+public class JwtUtilTest {
+
+    private static final String SECRET =
+            "user-login-secret-key-min-256-bits-for-hs256-please-change-in-production-environment";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000);
+
+    @Test
+    public void testGeneratedTokenParsedByJjwt() {
+        String token = jwtUtil.generateToken(42L, "alice");
+
+        Claims claims = jwtUtil.parseToken(token);
+        assertNotNull(claims);
+        assertEquals(42L, jwtUtil.getUserId(claims));
+        assertEquals("alice", claims.getSubject());
+        assertEquals("alice", claims.get("username"));
+        assertNotNull(claims.getExpiration());
+    }
+
+    @Test
+    public void testFastPathMatchesJjwt() {
+        String token = jwtUtil.generateToken(7L, "bob");
+
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+        Claims claims = jwtUtil.parseToken(token);
+        assertNotNull(verified);
+        assertEquals(7L, verified.userId());
+        assertEquals(claims.getExpiration().getTime(), verified.expiresAtMillis());
+        assertEquals(jwtUtil.getTokenId(claims), verified.tokenId());
+        assertTrue(verified.tokenId() > 0);
+    }
+
+    @Test
+    public void testTokenIdsIncrease() {
+        long first = jwtUtil.verifyToken(jwtUtil.generateToken(7L, "bob")).tokenId();
+        long second = jwtUtil.verifyToken(jwtUtil.generateToken(7L, "bob")).tokenId();
+        assertTrue(second > first);
+    }
+
+    @Test
+    public void testTokenSignedByJjwtVerified() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Date now = new Date();
+        String token = Jwts.builder()
+                .claim("userId", 99L)
+                .claim("username", "carol")
+                .subject("carol")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + 60_000))
+                .signWith(key)
+                .compact();
+
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+        assertNotNull(verified);
+        assertEquals(99L, verified.userId());
+        assertEquals(0, verified.tokenId());
+    }
+
+    @Test
+    public void testUsernameEscaped() {
+        String username = "quo\"te\\back\nslash";
+        String token = jwtUtil.generateToken(1L, username);
+
+        Claims claims = jwtUtil.parseToken(token);
+        assertNotNull(claims);
+        assertEquals(username, claims.getSubject());
+        assertEquals(1L, jwtUtil.verifyToken(token).userId());
+    }
+
+    @Test
+    public void testTamperedTokenRejected() {
+        String token = jwtUtil.generateToken(5L, "dave");
+        String forged = jwtUtil.generateToken(6L, "eve");
+        String[] parts = token.split("\\.");
+        String[] forgedParts = forged.split("\\.");
+
+        assertNull(jwtUtil.verifyToken(parts[0] + "." + forgedParts[1] + "." + parts[2]));
+        assertNull(jwtUtil.verifyToken(token.substring(0, token.length() - 2) + "AA"));
+        assertNull(jwtUtil.verifyToken("not-a-token"));
+        assertNull(jwtUtil.verifyToken(""));
+        assertNull(jwtUtil.verifyToken(null));
+    }
+
+    @Test
+    public void testExpiredTokenRejected() {
+        JwtUtil expired = new JwtUtil(SECRET, -1_000);
+        String token = expired.generateToken(3L, "frank");
+
+        assertNull(jwtUtil.verifyToken(token));
+        assertNull(jwtUtil.parseToken(token));
+    }
+
+    @Test
+    public void testOtherKeyRejected() {
+        JwtUtil other = new JwtUtil(SECRET + "-other", 60_000);
+        String token = other.generateToken(8L, "grace");
+
+        assertNull(jwtUtil.verifyToken(token));
+    }
+}
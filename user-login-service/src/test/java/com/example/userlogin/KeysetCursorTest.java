@@ -0,0 +1,63 @@
+package com.example.userlogin;
+
+import com.example.userlogin.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 游标编码测试
+ *
+ * 1. 编码后解码得到相同的 keyset 位置（含带冒号的用户名）
+ * 2. 排序方式不一致、被篡改、非 Base64 的游标被拒绝
+ * 3. 只支持非空列 id、username
+ */
+public class KeysetCursorTest {
+
+    @Test
+    public void testRoundTrip() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("username", "a:b:c");
+        keys.put("id", 42L);
+        String cursor = KeysetCursor.of("username", Sort.Direction.DESC, ScrollPosition.forward(keys)).encode();
+
+        ScrollPosition position = KeysetCursor.decode(cursor, "username", Sort.Direction.DESC).toScrollPosition();
+        assertEquals(keys, ((KeysetScrollPosition) position).getKeys());
+
+        String idCursor = KeysetCursor.of("id", Sort.Direction.ASC, ScrollPosition.forward(Map.of("id", 7L))).encode();
+        assertEquals(Map.of("id", 7L),
+                ((KeysetScrollPosition) KeysetCursor.decode(idCursor, "id", Sort.Direction.ASC).toScrollPosition())
+                        .getKeys());
+    }
+
+    @Test
+    public void testRejectsInvalidCursor() {
+        String cursor = KeysetCursor.of("id", Sort.Direction.ASC, ScrollPosition.forward(Map.of("id", 7L))).encode();
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(cursor, "id", Sort.Direction.DESC));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(cursor, "username", Sort.Direction.ASC));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("!!!", "id", Sort.Direction.ASC));
+        String tampered = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v1:ASC:id:x:7".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(tampered, "id", Sort.Direction.ASC));
+        String createdAt = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v1:ASC:createdAt:7:null".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(createdAt, "createdAt", Sort.Direction.ASC));
+    }
+
+    @Test
+    public void testSortFields() {
+        assertTrue(KeysetCursor.SORT_FIELDS.contains("id"));
+        assertTrue(KeysetCursor.SORT_FIELDS.contains("username"));
+        assertFalse(KeysetCursor.SORT_FIELDS.contains("createdAt"));
+        assertFalse(KeysetCursor.SORT_FIELDS.contains("updatedAt"));
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.userlogin;
+
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 端到端压测（默认不运行，mvn test -Pload）
+ *
+ * 以随机端口启动完整应用，数据库为 H2 的 MySQL 模式内存库。大量虚拟线程客户端各自登录后
+ * 按固定比例循环发起注册、登录、分页列表、搜索和更新请求（闭环，收到响应后立即发下一个），
+ * 预热后统计每个接口的请求数、错误数、RPS 和延迟分位数。
+ *
+ * 结果与基线文件比较：RPS 下降或 p99 上升超过容差即失败；基线不存在或指定
+ * -Dload.update-baseline=true 时写入本次结果作为新基线。参数见 LOAD_TEST.md。
+ */
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.name=load",
+        "user.password.bcrypt-strength=10",
+        "user.rate-limit.enabled=false",
+        "logging.level.com.example.userlogin=WARN",
+        "logging.level.org.hibernate=WARN"
+})
+public class LoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 200);
+    private static final int SEED_USERS = Integer.getInteger("load.users", 200);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("load.tolerance", "0.2"));
+    private static final Path BASELINE = Path.of(System.getProperty("load.baseline", "load-baseline.json"));
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("load.update-baseline");
+    private static final String PASSWORD = "secret123";
+    private static final HttpResponse.BodyHandler<String> BODY = HttpResponse.BodyHandlers.ofString();
+
+    /**
+     * 请求类型及其在流量中的权重（合计 100）
+     */
+    enum Endpoint {
+        REGISTER(5),
+        LOGIN(15),
+        LIST(40),
+        SEARCH(30),
+        UPDATE(10);
+
+        final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+
+        static Endpoint pick(int roll) {
+            for (Endpoint endpoint : values()) {
+                roll -= endpoint.weight;
+                if (roll < 0) {
+                    return endpoint;
+                }
+            }
+            return LIST;
+        }
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${jwt.cookie-name}")
+    private String cookieName;
+
+    @Autowired
+    private UserService userService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private HttpClient http;
+    private long[] userIds;
+
+    @Test
+    public void testMixedTraffic() throws Exception {
+        seedUsers();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            long start = System.nanoTime();
+            long measureFrom = start + Duration.ofSeconds(WARMUP_SECONDS).toNanos();
+            long stopAt = measureFrom + Duration.ofSeconds(DURATION_SECONDS).toNanos();
+            List<Future<Client>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                Client client = new Client(i);
+                futures.add(clients.submit(() -> client.run(measureFrom, stopAt)));
+            }
+
+            Map<Endpoint, Stats> merged = new EnumMap<>(Endpoint.class);
+            for (Endpoint endpoint : Endpoint.values()) {
+                merged.put(endpoint, new Stats());
+            }
+            for (Future<Client> future : futures) {
+                future.get().stats.forEach((endpoint, stats) -> merged.get(endpoint).addAll(stats));
+            }
+
+            ObjectNode result = report(merged);
+            compareWithBaseline(result);
+        }
+    }
+
+    /**
+     * 预先注册用户，客户端 i 以 load{i % users} 登录
+     */
+    private void seedUsers() throws Exception {
+        userIds = new long[SEED_USERS];
+        try (ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+            List<Future<Long>> futures = new ArrayList<>(SEED_USERS);
+            for (int i = 0; i < SEED_USERS; i++) {
+                UserRegisterDTO dto = new UserRegisterDTO("load" + i, PASSWORD, "load" + i + "@example.com");
+                futures.add(executor.submit(() -> userService.createUser(dto).getId()));
+            }
+            for (int i = 0; i < SEED_USERS; i++) {
+                userIds[i] = futures.get(i).get();
+            }
+        }
+    }
+
+    /**
+     * 一个压测客户端：登录取得 cookie 后按权重循环发请求，只记录预热结束后的结果
+     */
+    private class Client {
+
+        private final int id;
+        private final int user;
+        private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+        private String cookie;
+        private int sequence;
+
+        Client(int id) {
+            this.id = id;
+            this.user = id % SEED_USERS;
+            for (Endpoint endpoint : Endpoint.values()) {
+                stats.put(endpoint, new Stats());
+            }
+        }
+
+        Client run(long measureFrom, long stopAt) throws Exception {
+            HttpResponse<String> login = login();
+            assertEquals(200, login.statusCode(), "初始登录失败: " + login.body());
+            cookie = login.headers().allValues("Set-Cookie").stream()
+                    .map(value -> value.substring(0, value.indexOf(';')))
+                    .filter(value -> value.startsWith(cookieName + "="))
+                    .findFirst()
+                    .orElseThrow();
+
+            long now;
+            while ((now = System.nanoTime()) < stopAt) {
+                Endpoint endpoint = Endpoint.pick(ThreadLocalRandom.current().nextInt(100));
+                int status;
+                try {
+                    status = send(endpoint).statusCode();
+                } catch (IOException e) {
+                    status = -1;
+                }
+                long end = System.nanoTime();
+                if (now >= measureFrom) {
+                    stats.get(endpoint).record(end - now, status);
+                }
+            }
+            return this;
+        }
+
+        private HttpResponse<String> send(Endpoint endpoint) throws Exception {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (endpoint) {
+                case REGISTER -> {
+                    String username = "reg" + id + "_" + sequence++;
+                    yield http.send(post("/api/register", "{\"username\":\"" + username + "\",\"password\":\""
+                            + PASSWORD + "\",\"email\":\"" + username + "@example.com\"}"), BODY);
+                }
+                case LOGIN -> login();
+                case LIST -> http.send(get("/api/users?size=20&page=" + random.nextInt(10)), BODY);
+                case SEARCH -> http.send(random.nextBoolean()
+                        ? get("/api/users/search/username?username=load" + random.nextInt(SEED_USERS))
+                        : get("/api/users/search/email?email=load" + random.nextInt(SEED_USERS) + "@"), BODY);
+                case UPDATE -> http.send(authenticated("/api/users/" + userIds[user])
+                        .PUT(HttpRequest.BodyPublishers.ofString(
+                                "{\"email\":\"load" + user + "_" + id + "_" + sequence++ + "@example.com\"}"))
+                        .header("Content-Type", "application/json")
+                        .build(), BODY);
+            };
+        }
+
+        private HttpResponse<String> login() throws Exception {
+            return http.send(post("/api/login",
+                    "{\"username\":\"load" + user + "\",\"password\":\"" + PASSWORD + "\"}"), BODY);
+        }
+
+        private HttpRequest get(String path) {
+            return authenticated(path).GET().build();
+        }
+
+        private HttpRequest post(String path, String json) {
+            return HttpRequest.newBuilder(uri(path))
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+        }
+
+        private HttpRequest.Builder authenticated(String path) {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Cookie", cookie)
+                    .timeout(Duration.ofSeconds(60));
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /**
+     * 单个客户端单个接口的延迟（纳秒）和状态统计，合并后计算分位数
+     */
+    private static class Stats {
+
+        private long[] latencies = new long[256];
+        private int count;
+        private int busy;
+        private int errors;
+
+        void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (status == 503) {
+                busy++;
+            } else if (status < 200 || status >= 300) {
+                errors++;
+            }
+        }
+
+        void addAll(Stats other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            busy += other.busy;
+            errors += other.errors;
+        }
+
+        double percentileMs(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(p * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+        }
+    }
+
+    private ObjectNode report(Map<Endpoint, Stats> stats) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("timestamp", Instant.now().toString());
+        result.put("clients", CLIENTS);
+        result.put("durationSeconds", DURATION_SECONDS);
+        result.put("virtualThreads", System.getProperty("spring.threads.virtual.enabled", "false"));
+        result.put("processors", Runtime.getRuntime().availableProcessors());
+        ObjectNode endpoints = result.putObject("endpoints");
+
+        StringBuilder table = new StringBuilder(String.format("%n%-10s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "busy", "rps", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        int total = 0;
+        int failed = 0;
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            double rps = s.count / (double) DURATION_SECONDS;
+            ObjectNode node = endpoints.putObject(entry.getKey().key());
+            node.put("requests", s.count);
+            node.put("errors", s.errors);
+            node.put("busy", s.busy);
+            node.put("rps", round(rps));
+            node.put("p50Ms", round(s.percentileMs(0.50)));
+            node.put("p90Ms", round(s.percentileMs(0.90)));
+            node.put("p99Ms", round(s.percentileMs(0.99)));
+            node.put("maxMs", round(s.percentileMs(1.0)));
+            table.append(String.format("%-10s %9d %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey().key(),
+                    s.count, s.errors, s.busy, rps, s.percentileMs(0.50), s.percentileMs(0.90),
+                    s.percentileMs(0.99), s.percentileMs(1.0)));
+            total += s.count;
+            failed += s.errors;
+        }
+        result.put("totalRps", round(total / (double) DURATION_SECONDS));
+        table.append(String.format("%-10s %9d %7d %7s %9.1f%n", "total", total, failed, "",
+                total / (double) DURATION_SECONDS));
+        System.out.println(table);
+
+        assertTrue(total > 0, "测量期间没有完成任何请求");
+        assertEquals(0, failed, "出现非 2xx/503 的响应");
+        return result;
+    }
+
+    /**
+     * 与基线比较，RPS 下降或 p99 上升超过容差的接口视为回归
+     */
+    private void compareWithBaseline(ObjectNode result) throws Exception {
+        if (!Files.exists(BASELINE) || UPDATE_BASELINE) {
+            objectMapper.writeValue(BASELINE.toFile(), result);
+            System.out.println("已写入压测基线: " + BASELINE.toAbsolutePath());
+            return;
+        }
+        JsonNode baseline = objectMapper.readTree(BASELINE.toFile());
+        List<String> regressions = new ArrayList<>();
+        StringBuilder table = new StringBuilder(String.format("%n与基线对比（%s）%n%-10s %11s %11s%n",
+                baseline.path("timestamp").asText(), "endpoint", "rps", "p99"));
+        result.get("endpoints").fields().forEachRemaining(entry -> {
+            JsonNode before = baseline.path("endpoints").path(entry.getKey());
+            if (before.isMissingNode()) {
+                return;
+            }
+            double rpsChange = change(before.path("rps").asDouble(), entry.getValue().path("rps").asDouble());
+            double p99Change = change(before.path("p99Ms").asDouble(), entry.getValue().path("p99Ms").asDouble());
+            table.append(String.format("%-10s %+10.1f%% %+10.1f%%%n", entry.getKey(), rpsChange * 100, p99Change * 100));
+            if (rpsChange < -TOLERANCE || p99Change > TOLERANCE) {
+                regressions.add(entry.getKey());
+            }
+        });
+        System.out.println(table);
+        assertTrue(regressions.isEmpty(), "相对基线回归超过 " + Math.round(TOLERANCE * 100) + "%: " + regressions);
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
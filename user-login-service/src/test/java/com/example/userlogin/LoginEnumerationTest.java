@@ -0,0 +1,52 @@
+package com.example.userlogin;
+
+import com.example.userlogin.dto.UserLoginDTO;
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.service.PasswordHasher;
+import com.example.userlogin.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 登录用户名探测测试
+ *
+ * 用户名不存在时也用占位哈希做一次 BCrypt 校验（经过同一个哈希线程池），
+ * 与密码错误的代价相同，响应时间不暴露用户名是否存在
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=enumeration"
+})
+public class LoginEnumerationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testUnknownUserPaysFullVerify() {
+        userService.createUser(new UserRegisterDTO("enum1", "secret123", "enum1@example.com"));
+        assertTrue(passwordHasher.getDummyHash().startsWith("$2a$04$"));
+
+        double before = verifyCount();
+        assertTrue(userService.login(new UserLoginDTO("nobody-enum", "secret123")).isEmpty());
+        assertEquals(before + 1, verifyCount());
+
+        assertTrue(userService.login(new UserLoginDTO("enum1", "wrong-password")).isEmpty());
+        assertEquals(before + 2, verifyCount());
+    }
+
+    private double verifyCount() {
+        return meterRegistry.get("user.password.hash").tag("op", "verify").timer().count();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.userlogin;
+
+import com.example.userlogin.dto.UserLoginDTO;
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.service.LoginEventRecorder;
+import com.example.userlogin.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 登录记录写入测试
+ *
+ * 刷新间隔设得很长，登录后记录只在队列中；停止写入器时应写完全部记录：
+ * 每次登录一行 login_events，last_login_at 为该用户最后一次登录时间，失败的登录不记录
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=loginevents",
+        "user.login-events.flush-interval-ms=600000",
+        "user.login-events.batch-size=4"
+})
+@DirtiesContext
+public class LoginEventRecorderTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LoginEventRecorder loginEventRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testDrainOnStop() {
+        long alice = userService.createUser(new UserRegisterDTO("evt_alice", "secret123", "evt_alice@example.com")).getId();
+        long bob = userService.createUser(new UserRegisterDTO("evt_bob", "secret123", "evt_bob@example.com")).getId();
+
+        long before = System.currentTimeMillis();
+        for (int i = 0; i < 7; i++) {
+            assertTrue(userService.login(new UserLoginDTO("evt_alice", "secret123")).isPresent());
+        }
+        assertTrue(userService.login(new UserLoginDTO("evt_bob", "secret123")).isPresent());
+        assertTrue(userService.login(new UserLoginDTO("evt_bob", "wrong123")).isEmpty());
+        assertEquals(0, count("select count(*) from login_events"));
+
+        loginEventRecorder.stop();
+
+        assertEquals(7, count("select count(*) from login_events where user_id = " + alice));
+        assertEquals(1, count("select count(*) from login_events where user_id = " + bob));
+        Timestamp aliceLast = jdbcTemplate.queryForObject(
+                "select last_login_at from users where id = ?", Timestamp.class, alice);
+        Timestamp aliceMax = jdbcTemplate.queryForObject(
+                "select max(login_at) from login_events where user_id = ?", Timestamp.class, alice);
+        assertNotNull(aliceLast);
+        assertEquals(aliceMax, aliceLast);
+        assertTrue(aliceLast.getTime() >= before - 1000);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
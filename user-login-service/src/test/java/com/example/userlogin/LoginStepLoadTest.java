@@ -0,0 +1,186 @@
+package com.example.userlogin;
+
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 平台线程与虚拟线程的并发登录阶梯测试（默认不运行，mvn test -Pload -Dtest=LoginStepLoadTest）
+ *
+ * 依次以 spring.threads.virtual.enabled=false 和 true 启动完整应用（随机端口、H2 内存库、关闭用户缓存和限流），
+ * 预先注册用户并预热一轮后，按阶梯逐级放行 N 个同时发起的 POST /api/login（每个客户端一个请求），
+ * 记录成功数和延迟分位数；出现失败或 p99 超过目标时该模式停止加压。密码哈希默认使用测试强度，
+ * 避免单核环境下的 BCrypt 耗时掩盖线程模式的差别。
+ * 结果以 VIRTUAL_THREADS.md 中对比表的格式输出，参数见该文档。
+ */
+@Tag("load")
+public class LoginStepLoadTest {
+
+    private static final int[] LEVELS = Arrays.stream(System.getProperty("load.step.levels", "100,400,1000,2000")
+            .split(",")).mapToInt(level -> Integer.parseInt(level.strip())).toArray();
+    private static final int USERS = Integer.getInteger("load.step.users", 100);
+    private static final long P99_TARGET_MS = Long.getLong("load.step.p99-target-ms", 10_000);
+    private static final int BCRYPT_STRENGTH = Integer.getInteger("load.step.bcrypt-strength", 4);
+    private static final String PASSWORD = "secret123";
+
+    /**
+     * 一级阶梯的结果
+     */
+    private record Step(int clients, int succeeded, double p50Ms, double p99Ms) {
+
+        boolean passed() {
+            return succeeded == clients && p99Ms <= P99_TARGET_MS;
+        }
+    }
+
+    @Test
+    public void testPlatformVersusVirtualThreads() throws Exception {
+        Map<Boolean, List<Step>> results = new LinkedHashMap<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            results.put(virtual, run(virtual));
+        }
+
+        StringBuilder table = new StringBuilder(String.format("%n| 并发登录数 | 平台线程 成功/总数 | 平台线程 p99 "
+                + "| 虚拟线程 成功/总数 | 虚拟线程 p99 |%n|-----------|------------------|-------------"
+                + "|------------------|-------------|%n"));
+        for (int i = 0; i < LEVELS.length; i++) {
+            table.append(String.format("| %-4d |", LEVELS[i]));
+            for (List<Step> steps : results.values()) {
+                table.append(i < steps.size()
+                        ? String.format(" %d/%d | %.0f ms |", steps.get(i).succeeded(), steps.get(i).clients(),
+                        steps.get(i).p99Ms())
+                        : " - | - |");
+            }
+            table.append('\n');
+        }
+        System.out.println(table);
+
+        results.forEach((virtual, steps) -> {
+            String mode = virtual ? "虚拟线程" : "平台线程";
+            assertEquals(steps.get(0).clients(), steps.get(0).succeeded(), mode + "模式第一级阶梯出现失败的登录");
+            Step last = steps.get(steps.size() - 1);
+            System.out.printf("%s: 最大并发登录数 %d%n", mode, last.passed() ? last.clients()
+                    : steps.size() > 1 ? steps.get(steps.size() - 2).clients() : 0);
+        });
+    }
+
+    /**
+     * 以指定线程模式启动应用并逐级加压，出现失败或 p99 超过目标后不再提高并发
+     */
+    private List<Step> run(boolean virtual) throws Exception {
+        int maxClients = Arrays.stream(LEVELS).max().orElse(0);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UserLoginApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.name=login_step_" + (virtual ? "virtual" : "platform"),
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--server.port=0",
+                        "--management.server.port=0",
+                        "--user.cache.enabled=false",
+                        "--user.rate-limit.enabled=false",
+                        "--user.audit.enabled=false",
+                        "--user.password.bcrypt-strength=" + BCRYPT_STRENGTH,
+                        // 所有登录都进入哈希队列等待，而不是以 503 拒绝
+                        "--user.password.queue-capacity=" + maxClients,
+                        "--user.password.timeout-ms=600000",
+                        "--logging.level.com.example.userlogin=WARN",
+                        "--logging.level.org.hibernate=WARN");
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            URI login = URI.create("http://localhost:"
+                    + context.getEnvironment().getProperty("local.server.port") + "/api/login");
+            UserService userService = context.getBean(UserService.class);
+            for (int i = 0; i < USERS; i++) {
+                userService.createUser(new UserRegisterDTO("step" + i, PASSWORD, "step" + i + "@example.com"));
+            }
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            step(http, clients, login, USERS);
+            List<Step> steps = new ArrayList<>();
+            for (int level : LEVELS) {
+                Step step = step(http, clients, login, level);
+                System.out.printf("%s %5d 个并发登录: 成功 %d, p50 %.0f ms, p99 %.0f ms%n", virtual ? "虚拟线程" : "平台线程",
+                        level, step.succeeded(), step.p50Ms(), step.p99Ms());
+                steps.add(step);
+                if (!step.passed()) {
+                    break;
+                }
+            }
+            return steps;
+        }
+    }
+
+    /**
+     * n 个客户端就绪后同时放行，每个客户端发起一次登录，延迟从放行时刻算起
+     */
+    private static Step step(HttpClient http, ExecutorService clients, URI login, int n) throws Exception {
+        CountDownLatch ready = new CountDownLatch(n);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] release = new long[1];
+        List<Future<Long>> futures = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            HttpRequest request = HttpRequest.newBuilder(login)
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"step" + (i % USERS) + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofMinutes(10))
+                    .build();
+            futures.add(clients.submit(() -> {
+                ready.countDown();
+                go.await();
+                int status;
+                try {
+                    status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException e) {
+                    status = -1;
+                }
+                // 失败的请求记为负延迟
+                long latency = System.nanoTime() - release[0];
+                return status == 200 ? latency : -latency;
+            }));
+        }
+        ready.await();
+        release[0] = System.nanoTime();
+        go.countDown();
+
+        long[] latencies = new long[n];
+        int succeeded = 0;
+        for (int i = 0; i < n; i++) {
+            long latency = futures.get(i).get();
+            if (latency >= 0) {
+                succeeded++;
+            }
+            latencies[i] = Math.abs(latency);
+        }
+        Arrays.sort(latencies);
+        return new Step(n, succeeded, percentileMs(latencies, 0.50), percentileMs(latencies, 0.99));
+    }
+
+    private static double percentileMs(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.userlogin;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 登出测试
+ *
+ * 1. 登出后该 token 立即失效（即使已在已校验 token 缓存中），其他设备的 token 不受影响
+ * 2. 退出所有设备后此前签发的 token 全部失效，重新登录签发的 token 可用
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=logout"
+})
+@AutoConfigureMockMvc
+public class LogoutTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${jwt.cookie-name}")
+    private String cookieName;
+
+    @Test
+    public void testLogoutRevokesToken() throws Exception {
+        register("logout1");
+        Cookie phone = login("logout1");
+        Cookie laptop = login("logout1");
+        mockMvc.perform(get("/api/users").cookie(phone)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/login/logout").cookie(phone)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users").cookie(phone)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/users").cookie(laptop)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testLogoutAllRevokesEveryDevice() throws Exception {
+        register("logout2");
+        Cookie phone = login("logout2");
+        Cookie laptop = login("logout2");
+        mockMvc.perform(get("/api/users").cookie(laptop)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/login/logout-all").cookie(phone)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users").cookie(phone)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/users").cookie(laptop)).andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/login/logout-all").cookie(laptop)).andExpect(status().isUnauthorized());
+
+        Thread.sleep(2);
+        Cookie again = login("logout2");
+        mockMvc.perform(get("/api/users").cookie(again)).andExpect(status().isOk());
+    }
+
+    private void register(String username) throws Exception {
+        mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"secret123\",\"email\":\""
+                                + username + "@example.com\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    private Cookie login(String username) throws Exception {
+        return mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(cookieName);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.userlogin;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 指标测试
+ *
+ * 发起注册、登录、未登录访问和分页查询后，管理端口的 /actuator/prometheus 中应包含：
+ * 1. 每个服务方法的耗时直方图（user.service）及结果标签
+ * 2. token 校验耗时和按原因统计的拒绝次数
+ * 3. 每个请求的仓储调用次数和耗时（按路由模板）
+ * 4. 连接池指标
+ * 业务端口上不提供 actuator 端点
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.name=metrics"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${jwt.cookie-name}")
+    private String cookieName;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    public void testPrometheusScrape() throws Exception {
+        mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"metrics\",\"password\":\"secret123\",\"email\":\"metrics@example.com\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"metrics\",\"password\":\"wrong123\"}"))
+                .andExpect(status().isUnauthorized());
+        Cookie cookie = mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"metrics\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(cookieName);
+        mockMvc.perform(get("/api/users")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/users").cookie(new Cookie(cookieName, "bad.token.value")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/users").cookie(cookie)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users").cookie(cookie)).andExpect(status().isOk());
+
+        assertNotEquals(serverPort, managementPort);
+        assertEquals(404, fetch(serverPort, "/actuator/prometheus").statusCode());
+        assertEquals(404, fetch(serverPort, "/actuator/health").statusCode());
+        HttpResponse<String> response = fetch(managementPort, "/actuator/prometheus");
+        assertEquals(200, response.statusCode());
+        String scrape = response.body();
+
+        assertHasLine(scrape, "user_service_seconds_bucket{", "method=\"createUser\"", "outcome=\"success\"");
+        assertHasLine(scrape, "user_service_seconds_count{", "method=\"login\"", "outcome=\"empty\"");
+        assertHasLine(scrape, "user_service_seconds_count{", "method=\"login\"", "outcome=\"success\"");
+        assertHasLine(scrape, "user_auth_token_seconds_count{", "source=\"jwt\"");
+        assertHasLine(scrape, "user_auth_token_seconds_count{", "source=\"cache\"");
+        assertHasLine(scrape, "user_auth_rejected_total{", "reason=\"missing\"");
+        assertHasLine(scrape, "user_auth_rejected_total{", "reason=\"invalid\"");
+        assertHasLine(scrape, "user_request_queries_count{", "method=\"GET\"", "uri=\"/api/users\"");
+        assertTrue(value(scrape, "user_request_queries_sum{", "uri=\"/api/users\"") >= 2, "仓储调用未计入请求");
+        assertHasLine(scrape, "user_request_query_time_seconds_bucket{", "uri=\"/api/users\"");
+        assertHasLine(scrape, "http_server_requests_seconds_bucket{", "uri=\"/api/users\"");
+        assertHasLine(scrape, "hikaricp_connections_active{");
+    }
+
+    private HttpResponse<String> fetch(int port, String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void assertHasLine(String scrape, String prefix, String... fragments) {
+        assertTrue(find(scrape, prefix, fragments) != null, "缺少指标 " + prefix + String.join(",", fragments));
+    }
+
+    private static double value(String scrape, String prefix, String... fragments) {
+        String line = find(scrape, prefix, fragments);
+        assertNotNull(line, "缺少指标 " + prefix + String.join(",", fragments));
+        return Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+    }
+
+    private static String find(String scrape, String prefix, String... fragments) {
+        return scrape.lines()
+                .filter(line -> line.startsWith(prefix))
+                .filter(line -> {
+                    for (String fragment : fragments) {
+                        if (!line.contains(fragment)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.userlogin;
+
+import com.example.userlogin.util.MpscRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 环形队列测试
+ *
+ * 1. 容量取整到 2 的幂，满时拒绝，取出后可继续写入
+ * 2. 多生产者并发写入、单消费者同时读取，不丢失、不重复，每个生产者内部保持顺序
+ */
+public class MpscRingBufferTest {
+
+    @Test
+    public void testFullAndWrapAround() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> out = new ArrayList<>();
+        assertEquals(2, buffer.drain(out::add, 2));
+        assertTrue(buffer.offer(4));
+        assertTrue(buffer.offer(5));
+        assertEquals(4, buffer.drain(out::add, 10));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), out);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        int producers = 8;
+        int perProducer = 50_000;
+        MpscRingBuffer<Long> buffer = new MpscRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (long i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(producer << 32 | i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            long[] next = new long[producers];
+            long received = 0;
+            while (received < (long) producers * perProducer) {
+                received += buffer.drain(value -> {
+                    int producer = (int) (value >>> 32);
+                    assertEquals(next[producer]++, value & 0xFFFFFFFFL);
+                }, 256);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            for (long n : next) {
+                assertEquals(perProducer, n);
+            }
+            assertEquals(0, buffer.drain(value -> fail(), 1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.userlogin;
+
+import com.example.userlogin.index.NgramIndex;
+import com.example.userlogin.index.UserSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 三元组索引测试
+ *
+ * 1. 加载期间追加、加载完成后排序去重；加载完成前查询返回 null、移除抛异常
+ * 2. 增删改后查询结果正确，多个 trigram 求交集（不连续的匹配作为候选，由调用方过滤）
+ * 3. 增删缓冲区合并后与逐条维护的结果一致
+ * 4. UserSearchIndex 更新用户时移除旧值、加入新值
+ * 5. 与 utf8mb4_0900_ai_ci 一样忽略重音和全角，是否精确按归一化后的长度判断
+ */
+public class NgramIndexTest {
+
+    @Test
+    public void testLoadAndSearch() {
+        NgramIndex index = new NgramIndex();
+        index.add(3, "Alice");
+        index.add(1, "malicious");
+        index.add(2, "bob");
+        index.add(3, "alice");
+        assertNull(index.search("ali", 100));
+        assertThrows(IllegalStateException.class, () -> index.remove(2, "bob"));
+
+        index.finishLoad();
+        assertArrayEquals(new long[]{1, 3}, index.search("ALI", 100));
+        assertArrayEquals(new long[]{1, 3}, index.search("alic", 100));
+        assertArrayEquals(new long[]{2}, index.search("bob", 100));
+        assertArrayEquals(new long[0], index.search("xyz", 100));
+        assertNull(index.search("al", 100));
+        // 超过上限时回退
+        assertNull(index.search("ali", 1));
+    }
+
+    @Test
+    public void testAddRemoveUpdate() {
+        NgramIndex index = new NgramIndex();
+        index.finishLoad();
+        index.add(1, "alice");
+        index.add(2, "alina");
+        assertArrayEquals(new long[]{1, 2}, index.search("ali", 100));
+
+        // 更新：移除旧值、加入新值
+        index.remove(1, "alice");
+        index.add(1, "bob");
+        assertArrayEquals(new long[]{2}, index.search("ali", 100));
+        assertArrayEquals(new long[]{1}, index.search("bob", 100));
+
+        // 移除后再加入
+        index.remove(2, "alina");
+        assertArrayEquals(new long[0], index.search("ali", 100));
+        index.add(2, "alina");
+        assertArrayEquals(new long[]{2}, index.search("ali", 100));
+
+        // 移除不存在的值、重复加入无影响
+        index.remove(9, "alina");
+        index.add(2, "alina");
+        assertArrayEquals(new long[]{2}, index.search("lin", 100));
+    }
+
+    @Test
+    public void testIntersectCandidates() {
+        NgramIndex index = new NgramIndex();
+        index.add(1, "abcxbcd");
+        index.add(2, "abcd");
+        index.add(3, "bcdx");
+        index.finishLoad();
+        // abc、bcd 都出现但不连续的 1 也是候选
+        assertArrayEquals(new long[]{1, 2}, index.search("abcd", 100));
+        assertFalse(NgramIndex.isExact("abcd"));
+        assertTrue(NgramIndex.isExact("abc"));
+    }
+
+    @Test
+    public void testDeltaMergeMatchesReference() {
+        NgramIndex index = new NgramIndex();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(42);
+        for (long id = 1; id <= 3000; id++) {
+            index.add(id, "user");
+            expected.add(id);
+        }
+        index.finishLoad();
+        for (int i = 0; i < 20000; i++) {
+            long id = 1 + random.nextInt(6000);
+            if (random.nextBoolean()) {
+                index.add(id, "user");
+                expected.add(id);
+            } else if (expected.remove(id)) {
+                index.remove(id, "user");
+            }
+        }
+        long[] reference = expected.stream().mapToLong(Long::longValue).toArray();
+        assertArrayEquals(reference, index.search("use", Integer.MAX_VALUE));
+        // 多个 trigram 的交集同样按合并后的内容遍历，超过上限时回退
+        assertArrayEquals(reference, index.search("user", Integer.MAX_VALUE));
+        assertArrayEquals(reference, index.search("user", reference.length));
+        assertNull(index.search("user", reference.length - 1));
+        assertNull(index.search("use", reference.length - 1));
+        assertEquals(expected.size() * 2L, index.postingCount());
+    }
+
+    @Test
+    public void testAccentAndWidthFolding() {
+        NgramIndex index = new NgramIndex();
+        index.add(1, "Renée");
+        index.add(2, "ｒｅｎａｔｏ");
+        index.add(3, "rene\u0301e");
+        index.finishLoad();
+        assertArrayEquals(new long[]{1, 3}, index.search("rene", 100));
+        assertArrayEquals(new long[]{1, 3}, index.search("RENÉ", 100));
+        assertArrayEquals(new long[]{1, 2, 3}, index.search("ren", 100));
+        assertArrayEquals(new long[]{2}, index.search("ＲＥＮＡ", 100));
+
+        // 组合重音不计入长度
+        assertTrue(NgramIndex.isExact("e\u0301ne"));
+        assertFalse(NgramIndex.isExact("rene"));
+        assertNull(index.search("e\u0301n", 100));
+        assertFalse(NgramIndex.isExact("e\u0301n"));
+    }
+
+    @Test
+    public void testUserSearchIndexUpdate() {
+        UserSearchIndex searchIndex = new UserSearchIndex(true, 100);
+        searchIndex.onUserAdded(1, "alice", "alice@example.com");
+        searchIndex.onUserAdded(2, "bob", null);
+        assertNull(searchIndex.findByUsername("ali"));
+        searchIndex.onLoaded();
+
+        UserSearchIndex.Candidates candidates = searchIndex.findByUsername("ali");
+        assertArrayEquals(new long[]{1}, candidates.ids());
+        assertTrue(candidates.exact());
+        assertFalse(searchIndex.findByEmail("example").exact());
+
+        searchIndex.onUserRemoved(1, "alice", "alice@example.com");
+        searchIndex.onUserAdded(1, "carol", "carol@example.com");
+        assertArrayEquals(new long[0], searchIndex.findByUsername("ali").ids());
+        assertArrayEquals(new long[]{1}, searchIndex.findByEmail("carol@").ids());
+        assertNull(searchIndex.findByUsername("al"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.userlogin;
+
+import com.example.userlogin.service.PasswordHasher;
+import com.example.userlogin.service.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 密码哈希测试
+ *
+ * 1. BCrypt 哈希与校验，历史明文兼容
+ * 2. 成本因子变化或明文时需要重新哈希
+ * 3. 线程池和队列占满时立即拒绝
+ */
+public class PasswordHasherTest {
+
+    @Test
+    public void testHashAndMatches() throws Exception {
+        PasswordHasher hasher = new PasswordHasher(4, 2, 8, 5000, new SimpleMeterRegistry());
+        try {
+            String hash = hasher.hash("secret123");
+            assertTrue(hash.startsWith("$2a$04$"));
+            assertTrue(hasher.matches("secret123", hash));
+            assertFalse(hasher.matches("secret124", hash));
+            assertFalse(hasher.needsRehash(hash));
+
+            assertTrue(hasher.matches("plain", "plain"));
+            assertFalse(hasher.matches("plain", "plain2"));
+            assertTrue(hasher.needsRehash("plain"));
+
+            List<String> hashes = hasher.hashAll(List.of("a1", "b2", "c3", "d4", "e5"));
+            assertEquals(5, hashes.size());
+            assertTrue(hasher.matches("d4", hashes.get(3)));
+        } finally {
+            hasher.destroy();
+        }
+    }
+
+    @Test
+    public void testNeedsRehashWhenStrengthChanges() {
+        PasswordHasher weak = new PasswordHasher(4, 1, 1, 5000, new SimpleMeterRegistry());
+        PasswordHasher strong = new PasswordHasher(5, 1, 1, 5000, new SimpleMeterRegistry());
+        try {
+            String hash = weak.hash("secret123");
+            assertTrue(strong.needsRehash(hash));
+            assertTrue(strong.matches("secret123", hash));
+        } finally {
+            weak.destroy();
+            strong.destroy();
+        }
+    }
+
+    @Test
+    public void testRejectsWhenSaturated() throws Exception {
+        PasswordHasher hasher = new PasswordHasher(14, 1, 1, 30000, new SimpleMeterRegistry());
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // 占满唯一的工作线程和唯一的队列槽位
+            CountDownLatch started = new CountDownLatch(2);
+            Future<?> first = callers.submit(() -> { started.countDown(); return hasher.hash("a"); });
+            Future<?> second = callers.submit(() -> { started.countDown(); return hasher.hash("b"); });
+            started.await();
+            Thread.sleep(100);
+
+            long begin = System.nanoTime();
+            assertThrows(ServiceBusyException.class, () -> hasher.hash("c"));
+            assertTrue(System.nanoTime() - begin < 100_000_000L, "拒绝应立即返回");
+            first.cancel(true);
+            second.cancel(true);
+        } finally {
+            callers.shutdownNow();
+            hasher.destroy();
+        }
+    }
+}
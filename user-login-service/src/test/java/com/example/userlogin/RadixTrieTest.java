@@ -0,0 +1,112 @@
+package com.example.userlogin;
+
+import com.example.userlogin.index.RadixTrie;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 前缀树测试
+ *
+ * 与 TreeMap 的前缀查询结果对比，覆盖边拆分、删除后合并、大小写不同的同名值
+ */
+public class RadixTrieTest {
+
+    @Test
+    public void testPrefixSearch() {
+        RadixTrie trie = new RadixTrie();
+        for (String s : List.of("alice", "alicia", "alan", "Bob", "bobby", "al")) {
+            trie.add(s);
+        }
+
+        assertEquals(List.of("al", "alan", "alice", "alicia"), trie.findByPrefix("al", 10));
+        assertEquals(List.of("alice", "alicia"), trie.findByPrefix("ALI", 10));
+        assertEquals(List.of("Bob", "bobby"), trie.findByPrefix("bo", 10));
+        assertEquals(List.of("al", "alan"), trie.findByPrefix("a", 2));
+        assertTrue(trie.findByPrefix("carol", 10).isEmpty());
+        assertTrue(trie.findByPrefix("alx", 10).isEmpty());
+        assertEquals(6, trie.size());
+    }
+
+    @Test
+    public void testRemoveMergesNodes() {
+        RadixTrie trie = new RadixTrie();
+        trie.add("test");
+        trie.add("team");
+        trie.add("toast");
+        int nodes = trie.nodeCount();
+
+        trie.remove("team");
+        trie.remove("missing");
+        assertEquals(List.of("test", "toast"), trie.findByPrefix("t", 10));
+        assertTrue(trie.nodeCount() < nodes);
+
+        trie.remove("test");
+        trie.remove("toast");
+        assertEquals(0, trie.size());
+        assertEquals(1, trie.nodeCount());
+    }
+
+    @Test
+    public void testCaseVariants() {
+        RadixTrie trie = new RadixTrie();
+        trie.add("Admin");
+        trie.add("admin");
+        trie.add("admin");
+
+        assertEquals(2, trie.size());
+        trie.remove("Admin");
+        assertEquals(List.of("admin"), trie.findByPrefix("ad", 10));
+    }
+
+    @Test
+    public void testMatchesTreeMap() {
+        Random random = new Random(42);
+        RadixTrie trie = new RadixTrie();
+        TreeMap<String, String> expected = new TreeMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            String value = randomName(random);
+            if (random.nextInt(4) == 0) {
+                String stored = expected.remove(value.toLowerCase(Locale.ROOT));
+                if (stored != null) {
+                    trie.remove(stored);
+                }
+            } else if (!expected.containsKey(value.toLowerCase(Locale.ROOT))) {
+                trie.add(value);
+                expected.put(value.toLowerCase(Locale.ROOT), value);
+            }
+        }
+
+        assertEquals(expected.size(), trie.size());
+        for (int i = 0; i < 500; i++) {
+            String prefix = randomName(random).substring(0, 1 + random.nextInt(3));
+            String lower = prefix.toLowerCase(Locale.ROOT);
+            List<String> want = new ArrayList<>();
+            for (var e : expected.tailMap(lower).entrySet()) {
+                if (!e.getKey().startsWith(lower) || want.size() == 20) {
+                    break;
+                }
+                want.add(e.getValue());
+            }
+            assertEquals(want, trie.findByPrefix(prefix, 20), prefix);
+        }
+        assertTrue(trie.estimateHeapBytes() > 0);
+    }
+
+    private static String randomName(Random random) {
+        int len = 3 + random.nextInt(6);
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            char c = (char) ('a' + random.nextInt(4));
+            sb.append(random.nextInt(10) == 0 ? Character.toUpperCase(c) : c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.userlogin;
+
+import com.example.userlogin.service.LoginRateLimiter;
+import com.example.userlogin.service.RateLimitedException;
+import com.example.userlogin.util.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 限流测试
+ *
+ * 1. 满桶时放行 burst 次，之后拒绝并给出等待时间
+ * 2. 随时间按速率恢复
+ * 3. key 表有界：只删除已恢复满桶的 key，表满时拒绝新 key，大量新 key 不能重置被限流 key 的状态
+ * 4. 并发获取同一 key 时放行次数精确
+ * 5. 登录限流按 IP 和用户名（忽略大小写）分别计数
+ */
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurstThenReject() {
+        AtomicLong now = new AtomicLong(1_000 * SECOND);
+        RateLimiter limiter = new RateLimiter(60, 3, 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a"));
+        }
+        assertEquals(SECOND, limiter.tryAcquire("a"));
+        // 被拒绝的请求不消耗许可
+        assertEquals(SECOND, limiter.tryAcquire("a"));
+        // 其他 key 不受影响
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    public void testRefill() {
+        AtomicLong now = new AtomicLong(1_000 * SECOND);
+        RateLimiter limiter = new RateLimiter(60, 2, 100, now::get);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+
+        now.addAndGet(SECOND);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+
+        // 空闲足够久后恢复满桶，但不超过 burst
+        now.addAndGet(60 * SECOND);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    public void testKeyTableIsBounded() {
+        AtomicLong now = new AtomicLong(1_000 * SECOND);
+        RateLimiter limiter = new RateLimiter(60, 5, 100, now::get);
+
+        // 被限流的 key 不会被大量新 key 挤出：表满后拒绝新 key，不淘汰仍在限流中的 key
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("hot"));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("key" + i);
+            assertTrue(limiter.size() <= 100);
+        }
+        assertEquals(100, limiter.size());
+        assertEquals(0, limiter.getEvictionCount());
+        assertTrue(limiter.tryAcquire("new") > 0);
+        assertTrue(limiter.tryAcquire("hot") > 0);
+
+        // 1 秒后其他 key 恢复满桶，可以删除；hot 保留
+        now.addAndGet(2 * SECOND);
+        assertEquals(0, limiter.tryAcquire("cold"));
+        assertEquals(99, limiter.getEvictionCount());
+        assertEquals(2, limiter.size());
+        // 2 秒只恢复了 2 个许可
+        assertEquals(0, limiter.tryAcquire("hot"));
+        assertEquals(0, limiter.tryAcquire("hot"));
+        assertTrue(limiter.tryAcquire("hot") > 0);
+    }
+
+    @Test
+    public void testKeySprayDoesNotResetLimitedKey() throws Exception {
+        RateLimiter limiter = new RateLimiter(0.001, 3, 64);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("target"));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < 5000; i++) {
+                        limiter.tryAcquire("spray" + thread + "_" + i);
+                        if (limiter.tryAcquire("target") == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : futures) {
+                total += future.get();
+            }
+            assertEquals(0, total);
+            assertTrue(limiter.size() <= 64);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentAcquireOnOneKey() throws Exception {
+        RateLimiter limiter = new RateLimiter(0.001, 50, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (limiter.tryAcquire("shared") == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : futures) {
+                total += future.get();
+            }
+            assertEquals(50, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLoginRateLimiter() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoginRateLimiter limiter = new LoginRateLimiter(true, 1000,
+                600, 100, 6, 2, 60, 10, 60, 10, registry);
+
+        limiter.checkLogin("10.0.0.1", "Alice");
+        limiter.checkLogin("10.0.0.2", "alice");
+        RateLimitedException e = assertThrows(RateLimitedException.class,
+                () -> limiter.checkLogin("10.0.0.3", "ALICE"));
+        assertEquals(10, e.getRetryAfterSeconds());
+        assertEquals(1, registry.get("user.rate-limit.rejected")
+                .tag("endpoint", "login").tag("key", "username").counter().count());
+
+        // 注册与登录分开计数
+        limiter.checkRegister("10.0.0.1", "alice");
+
+        LoginRateLimiter disabled = new LoginRateLimiter(false, 1000,
+                1, 1, 1, 1, 1, 1, 1, 1, new SimpleMeterRegistry());
+        for (int i = 0; i < 10; i++) {
+            disabled.checkLogin("10.0.0.1", "alice");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.userlogin;
+
+import com.example.userlogin.config.ReplicaRoutingDataSource;
+import com.example.userlogin.dto.UserLoginDTO;
+import com.example.userlogin.dto.UserUpdateDTO;
+import com.example.userlogin.service.UserService;
+import com.example.userlogin.vo.UserVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 读写分离路由测试
+ *
+ * 主库和从库是两个 H2 内存库，同一 id 的用户在两个库中邮箱不同，通过 UserService 和 JPA 读写：
+ * 1. 列表等只读查询走从库，登录和更新走主库；同一线程中先读后写，写操作仍落在主库
+ * 2. 读写事务提交后同一客户端的只读查询在粘滞窗口内走主库，其他客户端不受影响，回滚的写不粘滞
+ * 3. 从库延迟超过阈值或不可用时切回主库，恢复后重新路由
+ * 4. 近端缓存未命中时读主库：从库落后（延迟在阈值内）时，更新之后其他客户端按 id、用户名读到的是新值
+ * 5. 分页列表的当前页读从库，总数缓存刷新时在主库计数，且不使客户端粘滞到主库
+ * 6. 配置从库时开启 spring.jpa.open-in-view 拒绝启动
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=routing",
+        "user.datasource.replica-urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "user.datasource.replica-lag-query=select seconds from replica_lag",
+        "user.datasource.health-check-interval-ms=600000",
+        "user.datasource.sticky-ms=200",
+        // 每次列表请求都刷新总数
+        "user.count-cache.enabled=true",
+        "user.count-cache.ttl-ms=0"
+})
+public class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReplicaRoutingDataSource routing;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final JdbcTemplate replicaJdbc = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    public void setUp() {
+        replicaJdbc.execute("create table if not exists replica_lag (seconds int)");
+        replicaJdbc.update("delete from replica_lag");
+        replicaJdbc.update("insert into replica_lag values (0)");
+        routing.checkReplicas();
+        assertEquals(1, routing.getHealthyReplicaCount());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testReadsGoToReplicaAndWritesToPrimary() {
+        insert(jdbcTemplate, 101, "route1", "secret", "primary");
+        insert(replicaJdbc, 101, "route1", "stale", "replica");
+
+        assertEquals("route1@replica", listedEmail(101));
+
+        // 登录从主库读取密码
+        assertTrue(userService.login(new UserLoginDTO("route1", "secret")).isPresent());
+        assertTrue(userService.login(new UserLoginDTO("route1", "stale")).isEmpty());
+
+        // 同一线程中先只读查询再更新：更新读取并写入主库，从库不受影响
+        userService.updateUser(101, new UserUpdateDTO(null, null, "route1b@primary"));
+        assertEquals("route1b@primary", emailOf(jdbcTemplate, 101));
+        assertEquals("route1@replica", emailOf(replicaJdbc, 101));
+    }
+
+    @Test
+    public void testReadYourWritesStickiness() throws InterruptedException {
+        insert(jdbcTemplate, 102, "route2", "secret", "primary");
+        insert(replicaJdbc, 102, "route2", "secret", "replica");
+
+        asClient(102L);
+        userService.updateUser(102, new UserUpdateDTO(null, null, "route2b@primary"));
+        assertEquals("route2b@primary", listedEmail(102));
+
+        asClient(103L);
+        assertEquals("route2@replica", listedEmail(102));
+
+        Thread.sleep(300);
+        asClient(102L);
+        assertEquals("route2@replica", listedEmail(102));
+
+        // 回滚的写事务不影响路由
+        asClient(104L);
+        assertThrows(RuntimeException.class,
+                () -> userService.updateUser(-1, new UserUpdateDTO(null, null, "nobody@primary")));
+        assertEquals("route2@replica", listedEmail(102));
+    }
+
+    @Test
+    public void testFailoverWhenReplicaLags() {
+        insert(jdbcTemplate, 105, "route5", "secret", "primary");
+        insert(replicaJdbc, 105, "route5", "secret", "replica");
+
+        replicaJdbc.update("update replica_lag set seconds = 5");
+        routing.checkReplicas();
+        assertEquals(0, routing.getHealthyReplicaCount());
+        assertEquals(5000, routing.getReplicaLagMs(0));
+        assertEquals("route5@primary", listedEmail(105));
+
+        replicaJdbc.update("update replica_lag set seconds = 1");
+        routing.checkReplicas();
+        assertEquals("route5@replica", listedEmail(105));
+
+        replicaJdbc.execute("drop table replica_lag");
+        routing.checkReplicas();
+        assertEquals(-1, routing.getReplicaLagMs(0));
+        assertEquals("route5@primary", listedEmail(105));
+    }
+
+    @Test
+    public void testNearCacheMissesReadPrimary() {
+        asClient(106L);
+        insert(jdbcTemplate, 106, "route6", "secret", "primary");
+        insert(replicaJdbc, 106, "route6", "secret", "replica");
+        // 从库落后 1 秒，在阈值内仍参与路由
+        replicaJdbc.update("update replica_lag set seconds = 1");
+        routing.checkReplicas();
+        assertEquals(1, routing.getHealthyReplicaCount());
+        assertEquals("route6@replica", listedEmail(106));
+
+        assertEquals("route6@primary", userService.getUserById(106).orElseThrow().getEmail());
+        assertEquals("route6@primary", userService.getUserByUsername("route6").orElseThrow().getEmail());
+
+        // 更新只落在主库，从库尚未复制；失效之后其他客户端的未命中不会把从库的旧行写回缓存
+        asClient(107L);
+        userService.updateUser(106, new UserUpdateDTO(null, null, "route6b@primary"));
+        asClient(108L);
+        assertEquals("route6b@primary", userService.getUserById(106).orElseThrow().getEmail());
+        assertEquals("route6b@primary", userService.getUserByUsername("route6").orElseThrow().getEmail());
+        // 之后的命中同样是新值
+        assertEquals("route6b@primary", userService.getUserById(106).orElseThrow().getEmail());
+        assertEquals("route6@replica", emailOf(replicaJdbc, 106));
+    }
+
+    @Test
+    public void testCountRefreshReadsPrimary() {
+        asClient(109L);
+        insert(jdbcTemplate, 109, "route9", "secret", "primary");
+        insert(jdbcTemplate, 110, "route10", "secret", "primary");
+        insert(replicaJdbc, 109, "route9", "secret", "replica");
+
+        // 页大小小于总数：最后一页的总数由 PageImpl 按内容条数推算，不反映计数
+        Page<UserVO> page = userService.getAllUsers(PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id")));
+        assertTrue(count(jdbcTemplate) > count(replicaJdbc));
+        assertEquals(count(jdbcTemplate), page.getTotalElements());
+        // 当前页仍来自从库，计数之后同一客户端也没有粘滞到主库
+        assertEquals("route9@replica", page.getContent().get(0).getEmail());
+        assertEquals("route9@replica", listedEmail(109));
+    }
+
+    @Test
+    public void testOpenInViewRejected() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(UserLoginApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test");
+        Exception e = assertThrows(Exception.class, () -> builder.run(
+                "--spring.datasource.name=routing_oiv",
+                "--user.datasource.replica-urls=" + REPLICA_URL,
+                "--spring.jpa.open-in-view=true").close());
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        assertInstanceOf(IllegalStateException.class, cause);
+        assertTrue(cause.getMessage().contains("spring.jpa.open-in-view=false"));
+    }
+
+    /**
+     * 通过分页列表（只读事务）读取邮箱，反映路由到的库
+     */
+    private String listedEmail(long id) {
+        return userService.getAllUsers(PageRequest.of(0, 100, Sort.by("id"))).getContent().stream()
+                .filter(user -> user.getId() == id)
+                .map(UserVO::getEmail)
+                .findFirst().orElseThrow();
+    }
+
+    private static void asClient(Object userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("userId", userId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static void insert(JdbcTemplate jdbc, long id, String username, String password, String node) {
+        jdbc.update("insert into users (id, username, password, email) values (?, ?, ?, ?)",
+                id, username, password, username + "@" + node);
+    }
+
+    private static long count(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("select count(*) from users", Long.class);
+    }
+
+    private static String emailOf(JdbcTemplate jdbc, long id) {
+        return jdbc.queryForObject("select email from users where id = ?", String.class, id);
+    }
+}
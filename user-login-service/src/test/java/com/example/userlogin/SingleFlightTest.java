@@ -0,0 +1,95 @@
+package com.example.userlogin;
+
+import com.example.userlogin.util.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 请求合并测试
+ *
+ * 1. 加载异常传递给所有等待者，结束后下一次调用重新加载
+ * 2. 等待超时的调用方自行加载
+ * 3. 不同 key 互不合并
+ */
+public class SingleFlightTest {
+
+    @Test
+    public void testExceptionSharedAndNotCached() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(5_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flights.execute("k", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                throw new IllegalStateException("db down");
+            }));
+            started.await();
+            Future<String> follower = executor.submit(() -> flights.execute("k", () -> "unused"));
+            while (flights.getCollapsedCount() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<String> future : List.of(leader, follower)) {
+                Exception e = assertThrows(Exception.class, future::get);
+                assertEquals("db down", e.getCause().getMessage());
+            }
+            assertEquals(0, flights.inFlightCount());
+            assertEquals("ok", flights.execute("k", () -> "ok"));
+            assertEquals(2, flights.getExecutionCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimeoutFallsBackToOwnLoad() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = executor.submit(() -> flights.execute("k", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return "slow";
+            }));
+            started.await();
+
+            assertEquals("own", flights.execute("k", () -> "own"));
+            assertEquals(1, flights.getTimeoutCount());
+            release.countDown();
+            assertEquals("slow", slow.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDifferentKeysNotCollapsed() {
+        SingleFlight<Long, Long> flights = new SingleFlight<>(1_000);
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals(1L, flights.execute(1L, () -> (long) loads.incrementAndGet()));
+        assertEquals(2L, flights.execute(2L, () -> (long) loads.incrementAndGet()));
+        assertEquals(2, loads.get());
+        assertEquals(0, flights.getCollapsedCount());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
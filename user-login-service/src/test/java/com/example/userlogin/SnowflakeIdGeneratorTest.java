@@ -0,0 +1,114 @@
+package com.example.userlogin;
+
+import com.example.userlogin.config.IdGeneratorConfig;
+import com.example.userlogin.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Snowflake 主键生成器测试
+ *
+ * 覆盖字段拆解、序列号溢出借用下一毫秒、时钟回拨、多线程下唯一且单调、服务拒绝保留节点号
+ */
+public class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH_MILLIS + 86_400_000L;
+
+    @Test
+    public void testLayout() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, () -> NOW);
+        long id = generator.nextId();
+
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(id));
+        assertEquals(7, SnowflakeIdGenerator.nodeOf(id));
+        assertEquals(0, SnowflakeIdGenerator.sequenceOf(id));
+        assertEquals(SnowflakeIdGenerator.compose(NOW, 7, 0), id);
+        // JavaScript Number 可精确表示
+        assertTrue(SnowflakeIdGenerator.compose(NOW + 60L * 365 * 86_400_000L, 31, 127) < (1L << 53));
+    }
+
+    @Test
+    public void testSequenceOverflowBorrowsNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, () -> NOW);
+        long previous = 0;
+        for (int i = 0; i <= SnowflakeIdGenerator.MAX_SEQUENCE; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertEquals(NOW, SnowflakeIdGenerator.timestampOf(id));
+            previous = id;
+        }
+        long borrowed = generator.nextId();
+        assertTrue(borrowed > previous);
+        assertEquals(NOW + 1, SnowflakeIdGenerator.timestampOf(borrowed));
+        assertEquals(0, SnowflakeIdGenerator.sequenceOf(borrowed));
+        assertEquals(1, SnowflakeIdGenerator.nodeOf(borrowed));
+    }
+
+    @Test
+    public void testClockMovingBackwards() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock::get);
+        long first = generator.nextId();
+        clock.set(NOW - 5_000);
+        long second = generator.nextId();
+        assertTrue(second > first);
+        clock.set(NOW + 10);
+        long third = generator.nextId();
+        assertEquals(NOW + 10, SnowflakeIdGenerator.timestampOf(third));
+    }
+
+    @Test
+    public void testInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    public void testConcurrentIdsAreUniqueAndMonotonicPerThread() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> all = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1]);
+                    }
+                    assertTrue(all.add(ids[i]));
+                }
+            }
+            assertEquals(threads * perThread, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReservedNodeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new IdGeneratorConfig().idGenerator(SnowflakeIdGenerator.RESERVED_NODE_ID));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.userlogin;
+
+import com.example.userlogin.util.ExpiringLongMap;
+import com.example.userlogin.util.SnowflakeIdGenerator;
+import com.example.userlogin.util.TokenRevocationList;
+import com.example.userlogin.util.VerifiedToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * token 吊销测试
+ *
+ * 1. 定时过期映射与 HashMap 随机操作结果一致，到期条目被时间轮回收
+ * 2. 按 token ID 吊销单个 token
+ * 3. 按用户吊销此前签发的全部 token，之后签发的不受影响；生成器序列号用尽、借用之后的毫秒时同样成立
+ * 4. 条目在 token 过期后回收
+ */
+public class TokenRevocationListTest {
+
+    private static final long TTL = 60_000;
+
+    @Test
+    public void testExpiringLongMapMatchesHashMap() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        ExpiringLongMap map = new ExpiringLongMap(100, 16, now::get);
+        Map<Long, long[]> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 20_000; step++) {
+            long key = 1 + random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                now.addAndGet(random.nextInt(50));
+            }
+            long deadline = now.get() + 1 + random.nextInt(5_000);
+            map.put(key, step, deadline);
+            expected.put(key, new long[]{step, deadline});
+
+            long probe = 1 + random.nextInt(500);
+            long[] entry = expected.get(probe);
+            long want = entry != null && entry[1] > now.get() ? entry[0] : -1;
+            assertEquals(want, map.get(probe, -1), "key " + probe + " at step " + step);
+        }
+
+        // 全部到期后由时间轮回收
+        now.addAndGet(10_000);
+        map.expire();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get(1, -1));
+    }
+
+    @Test
+    public void testExpiringLongMapLongerThanWheel() {
+        AtomicLong now = new AtomicLong(0);
+        ExpiringLongMap map = new ExpiringLongMap(10, 4, now::get);
+        map.put(1, 11, 1_000);
+        map.put(2, 22, 25);
+
+        // 超过一圈的条目在时间轮转过时保留
+        now.set(100);
+        map.expire();
+        assertEquals(1, map.size());
+        assertEquals(11, map.get(1, 0));
+        assertEquals(0, map.get(2, 0));
+
+        now.set(1_010);
+        map.expire();
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testRevokeSingleToken() {
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        TokenRevocationList list = new TokenRevocationList(TTL, 1_000, new SnowflakeIdGenerator(0, now::get), now::get);
+        VerifiedToken token = token(1L, now.get(), 0);
+        VerifiedToken other = token(1L, now.get(), 1);
+
+        list.revoke(token);
+        assertTrue(list.isRevoked(token));
+        assertFalse(list.isRevoked(other));
+
+        // token 过期后条目被回收
+        now.addAndGet(TTL + 2_000);
+        list.expire();
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    public void testRevokeAllBefore() {
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        TokenRevocationList list = new TokenRevocationList(TTL, 1_000, new SnowflakeIdGenerator(0, now::get), now::get);
+        VerifiedToken earlier = token(1L, now.get() - 5_000, 0);
+        VerifiedToken sameMillis = token(1L, now.get(), 3);
+        VerifiedToken otherUser = token(2L, now.get() - 5_000, 0);
+        VerifiedToken legacy = new VerifiedToken(1L, now.get() + TTL, 0);
+
+        list.revokeAll(1L);
+        assertTrue(list.isRevoked(earlier));
+        assertTrue(list.isRevoked(sameMillis));
+        assertTrue(list.isRevoked(legacy));
+        assertFalse(list.isRevoked(otherUser));
+
+        now.addAndGet(1);
+        assertFalse(list.isRevoked(token(1L, now.get() + 1, 0)));
+
+        now.addAndGet(TTL + 2_000);
+        list.expire();
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    public void testRevokeAllAfterSequenceOverflow() {
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        SnowflakeIdGenerator tokenIds = new SnowflakeIdGenerator(0, now::get);
+        TokenRevocationList list = new TokenRevocationList(TTL, 1_000, tokenIds, now::get);
+        // 同一毫秒签发超过 128 个 token，后面的 ID 借用了之后的毫秒
+        List<VerifiedToken> issued = new ArrayList<>();
+        for (int i = 0; i < 3 * (SnowflakeIdGenerator.MAX_SEQUENCE + 1); i++) {
+            issued.add(new VerifiedToken(1L, now.get() + TTL, tokenIds.nextId()));
+        }
+        assertTrue(SnowflakeIdGenerator.timestampOf(issued.get(issued.size() - 1).tokenId()) > now.get() + 1);
+
+        list.revokeAll(1L);
+        for (VerifiedToken token : issued) {
+            assertTrue(list.isRevoked(token));
+        }
+        assertFalse(list.isRevoked(new VerifiedToken(1L, now.get() + TTL, tokenIds.nextId())));
+    }
+
+    private static VerifiedToken token(long userId, long issuedAt, int sequence) {
+        return new VerifiedToken(userId, issuedAt + TTL, SnowflakeIdGenerator.compose(issuedAt, 0, sequence));
+    }
+}
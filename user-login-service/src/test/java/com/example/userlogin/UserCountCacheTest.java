@@ -0,0 +1,159 @@
+package com.example.userlogin;
+
+import com.example.userlogin.service.UserCountCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用户总数缓存测试
+ *
+ * 1. 事务提交后才调整计数，回滚或提交失败不调整；没有事务时立即调整
+ * 2. 超过 TTL 后重新查询
+ * 3. 重新查询期间有事务提交（已调整计数或正在提交）时不缓存查询结果，下次重新查询
+ */
+public class UserCountCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final UserCountCache cache = new UserCountCache(true, 60_000, now::get);
+    private final FakeTransactionManager transactionManager = new FakeTransactionManager();
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+    @Test
+    public void testAdjustAfterCommit() {
+        assertEquals(10, cache.getTotal(() -> 10));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.adjust(1);
+            // 提交前不可见
+            assertEquals(10, cache.getTotal(() -> fail("不应重新查询")));
+        });
+        assertEquals(11, cache.getTotal(() -> fail("不应重新查询")));
+
+        cache.adjust(-2);
+        assertEquals(9, cache.getTotal(() -> fail("不应重新查询")));
+    }
+
+    @Test
+    public void testRollbackLeavesCountUntouched() {
+        assertEquals(10, cache.getTotal(() -> 10));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.adjust(1);
+            status.setRollbackOnly();
+        });
+        assertEquals(10, cache.getTotal(() -> fail("不应重新查询")));
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            cache.adjust(1);
+            throw new IllegalStateException("insert failed");
+        }));
+        assertEquals(10, cache.getTotal(() -> fail("不应重新查询")));
+
+        // 提交失败：beforeCommit 已执行，afterCommit 不执行
+        transactionManager.failCommit = true;
+        assertThrows(TransactionSystemException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> cache.adjust(1)));
+        assertEquals(10, cache.getTotal(() -> fail("不应重新查询")));
+
+        // 提交失败后不影响之后的重新查询写入缓存
+        now.addAndGet(60_000);
+        assertEquals(12, cache.getTotal(() -> 12));
+        assertEquals(12, cache.getTotal(() -> fail("不应重新查询")));
+    }
+
+    @Test
+    public void testRefreshAfterTtl() {
+        assertEquals(10, cache.getTotal(() -> 10));
+        now.addAndGet(59_999);
+        assertEquals(10, cache.getTotal(() -> 20));
+        now.addAndGet(1);
+        assertEquals(20, cache.getTotal(() -> 20));
+    }
+
+    @Test
+    public void testCommitDuringRefreshNotCached() {
+        AtomicInteger queries = new AtomicInteger();
+        assertEquals(10, cache.getTotal(() -> 10));
+        now.addAndGet(60_000);
+
+        // COUNT 读到的快照不含同时提交的注册，调整后的计数不能被这次查询结果覆盖
+        assertEquals(10, cache.getTotal(() -> {
+            queries.incrementAndGet();
+            transactionTemplate.executeWithoutResult(status -> cache.adjust(1));
+            return 10;
+        }));
+        assertEquals(11, cache.getTotal(() -> {
+            queries.incrementAndGet();
+            return 11;
+        }));
+        assertEquals(11, cache.getTotal(() -> fail("不应重新查询")));
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void testRefreshWhileCommittingNotCached() {
+        assertEquals(10, cache.getTotal(() -> 10));
+        now.addAndGet(60_000);
+
+        // 另一事务已进入提交、尚未调整计数时重新查询：结果可能已包含该事务的写入
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.adjust(1);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    assertEquals(11, cache.getTotal(() -> 11));
+                }
+            });
+        });
+        assertEquals(11, cache.getTotal(() -> 11));
+        assertEquals(11, cache.getTotal(() -> fail("不应重新查询")));
+    }
+
+    @Test
+    public void testDisabledIgnoresAdjust() {
+        UserCountCache disabled = new UserCountCache(false, 60_000, now::get);
+        assertEquals(10, disabled.getTotal(() -> 10));
+        disabled.adjust(5);
+        assertEquals(10, disabled.getTotal(() -> 10));
+    }
+
+    /**
+     * 只驱动事务同步回调的事务管理器
+     */
+    private static class FakeTransactionManager extends AbstractPlatformTransactionManager {
+
+        boolean failCommit;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            if (failCommit) {
+                failCommit = false;
+                throw new TransactionSystemException("commit failed");
+            }
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
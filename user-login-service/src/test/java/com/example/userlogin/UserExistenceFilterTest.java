@@ -0,0 +1,97 @@
+package com.example.userlogin;
+
+import com.example.userlogin.index.BloomFilter;
+import com.example.userlogin.index.UserExistenceFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 布隆过滤器与注册预检查测试
+ *
+ * 1. 加入过的值一定判为可能存在（无漏判）
+ * 2. 达到预期元素数时实测误判率接近配置的 fpp，与按置位比例的估算一致
+ * 3. 用户名、邮箱的大小写、NFC/NFD、重音、全角和首尾空白变体都判为可能存在
+ * 4. 加载完成前、关闭时一律判为可能存在
+ */
+public class UserExistenceFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> values = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            values.add("user" + random.nextLong() + "@example.com");
+        }
+        values.forEach(filter::put);
+        for (String value : values) {
+            assertTrue(filter.mightContain(value), value);
+        }
+    }
+
+    @Test
+    public void testMeasuredFpp() {
+        for (double fpp : new double[]{0.01, 0.001}) {
+            int n = 50_000;
+            BloomFilter filter = new BloomFilter(n, fpp);
+            for (int i = 0; i < n; i++) {
+                filter.put("user" + i);
+            }
+            int probes = 1_000_000;
+            int falsePositives = 0;
+            for (int i = 0; i < probes; i++) {
+                if (filter.mightContain("absent" + i)) {
+                    falsePositives++;
+                }
+            }
+            double measured = (double) falsePositives / probes;
+            assertTrue(measured > fpp / 2 && measured < fpp * 1.5, "fpp " + fpp + " measured " + measured);
+            assertEquals(fpp, filter.expectedFpp(), fpp / 2);
+        }
+    }
+
+    @Test
+    public void testNormalizedVariants() {
+        UserExistenceFilter filter = loadedFilter();
+        filter.put("José", "Zoë@Example.com");
+        filter.put(Normalizer.normalize("Renée", Normalizer.Form.NFD), null);
+        filter.put("straße", null);
+
+        for (String variant : new String[]{"José", "JOSÉ", "jose", "José", " josé ", "ＪＯＳＥ",
+                "Renée", "RENEE", Normalizer.normalize("Renée", Normalizer.Form.NFC), "STRASSE", "Straße"}) {
+            assertTrue(filter.mightContainUsername(variant), variant);
+        }
+        for (String variant : new String[]{"zoë@example.com", "ZOE@EXAMPLE.COM",
+                Normalizer.normalize("Zoë@Example.com", Normalizer.Form.NFD)}) {
+            assertTrue(filter.mightContainEmail(variant), variant);
+        }
+        assertFalse(filter.mightContainUsername("definitely-not-registered"));
+        assertFalse(filter.mightContainEmail("jose@example.com"));
+    }
+
+    @Test
+    public void testNotReadyOrDisabled() {
+        UserExistenceFilter loading = new UserExistenceFilter(true, 1_000, 0.01, new SimpleMeterRegistry());
+        assertTrue(loading.mightContainUsername("anyone"));
+        loading.onLoaded();
+        assertFalse(loading.mightContainUsername("anyone"));
+
+        UserExistenceFilter disabled = new UserExistenceFilter(false, 1_000, 0.01, new SimpleMeterRegistry());
+        disabled.onLoaded();
+        assertTrue(disabled.mightContainUsername("anyone"));
+        assertTrue(disabled.mightContainEmail("anyone@example.com"));
+    }
+
+    private static UserExistenceFilter loadedFilter() {
+        UserExistenceFilter filter = new UserExistenceFilter(true, 1_000, 0.01, new SimpleMeterRegistry());
+        filter.onLoaded();
+        return filter;
+    }
+}
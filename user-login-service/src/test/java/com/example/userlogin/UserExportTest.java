@@ -0,0 +1,116 @@
+package com.example.userlogin;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 用户导出测试
+ *
+ * 1. NDJSON：行数与用户数相同（超过 fetch size），按 id 排序，不含密码
+ * 2. CSV：表头、含逗号和引号的字段按 RFC 4180 加引号，空值为空字段
+ * 3. 不支持的格式返回 400，未登录返回 401
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=export",
+        "user.export.fetch-size=100"
+})
+@AutoConfigureMockMvc
+public class UserExportTest {
+
+    private static final int ROWS = 1000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.cookie-name}")
+    private String cookieName;
+
+    private Cookie token;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        if (jdbcTemplate.queryForObject("select count(*) from users", Long.class) == 0) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                rows.add(new Object[]{1_000_000L + i, "export" + i, "x", "export" + i + "@example.com",
+                        Timestamp.valueOf(now), Timestamp.valueOf(now)});
+            }
+            rows.set(1, new Object[]{1_000_001L, "quote\"d,name", "x", null, Timestamp.valueOf(now), null});
+            jdbcTemplate.batchUpdate("insert into users (id, username, password, email, created_at, updated_at)"
+                    + " values (?, ?, ?, ?, ?, ?)", rows);
+            mockMvc.perform(post("/api/register").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"exporter\",\"password\":\"secret123\",\"email\":\"exporter@example.com\"}"))
+                    .andExpect(status().isCreated());
+        }
+        token = mockMvc.perform(post("/api/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"exporter\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(cookieName);
+    }
+
+    @Test
+    public void testNdjson() throws Exception {
+        String body = mockMvc.perform(get("/api/users/export").cookie(token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        long total = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        assertEquals(total, lines.length);
+        assertTrue(total > ROWS);
+        assertTrue(lines[0].startsWith("{\"id\":"));
+        assertTrue(body.contains("\"username\":\"export999\""));
+        assertFalse(body.contains("password"));
+
+        long previous = Long.MIN_VALUE;
+        for (String line : lines) {
+            long id = Long.parseLong(line.substring("{\"id\":".length(), line.indexOf(',')));
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    public void testCsv() throws Exception {
+        String body = mockMvc.perform(get("/api/users/export").param("format", "CSV").cookie(token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\r\n");
+        assertEquals("id,username,email,createdAt,updatedAt", lines[0]);
+        assertTrue(lines[1].startsWith("1000000,export0,export0@example.com,"));
+        assertTrue(lines[2].startsWith("1000001,\"quote\"\"d,name\",,"));
+        assertTrue(lines[2].endsWith(","));
+    }
+
+    @Test
+    public void testRejected() throws Exception {
+        mockMvc.perform(get("/api/users/export").param("format", "xml").cookie(token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/export"))
+                .andExpect(status().isUnauthorized());
+    }
+}
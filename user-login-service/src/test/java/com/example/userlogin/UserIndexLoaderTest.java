@@ -0,0 +1,83 @@
+package com.example.userlogin;
+
+import com.example.userlogin.event.UserChangedEvent;
+import com.example.userlogin.index.UserIndexLoader;
+import com.example.userlogin.index.UserSearchIndex;
+import com.example.userlogin.repository.UserIdentity;
+import com.example.userlogin.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 索引加载测试
+ *
+ * 扫描期间提交的变更（删除已被扫描快照读到的用户、新增、改名）先缓存，扫描结束后按顺序补上，
+ * 加载完成后的变更直接生效。
+ */
+public class UserIndexLoaderTest {
+
+    private record Identity(Long getId, String getUsername, String getEmail) implements UserIdentity {
+    }
+
+    @Test
+    public void testChangesDuringScanAreApplied() {
+        UserSearchIndex index = new UserSearchIndex(true, 100);
+        UserIndexLoader[] loader = new UserIndexLoader[1];
+        // 快照中仍有用户 1、2，但扫描期间 1 被删除、2 被改名、3 被注册
+        Stream<UserIdentity> snapshot = Stream.of(new Identity(1L, "alice", null), new Identity(2L, "bobby", null))
+                .peek(user -> {
+                    if (user.getId() == 1L) {
+                        loader[0].onUserChanged(UserChangedEvent.deleted(1, "alice", null));
+                        loader[0].onUserChanged(UserChangedEvent.updated(2, "robert", null, "bobby", null));
+                        loader[0].onUserChanged(UserChangedEvent.created(3, "alina", null));
+                    }
+                })
+                .map(UserIdentity.class::cast);
+        loader[0] = new UserIndexLoader(List.of(index), repository(snapshot), new NoopTransactionManager());
+
+        loader[0].load();
+
+        assertTrue(index.isReady());
+        assertArrayEquals(new long[]{3}, index.findByUsername("ali").ids());
+        assertArrayEquals(new long[0], index.findByUsername("bob").ids());
+        assertArrayEquals(new long[]{2}, index.findByUsername("rob").ids());
+
+        loader[0].onUserChanged(UserChangedEvent.deleted(3, "alina", null));
+        assertArrayEquals(new long[0], index.findByUsername("ali").ids());
+    }
+
+    private static UserRepository repository(Stream<UserIdentity> identities) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("streamIdentities")) {
+                        return identities;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static class NoopTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.userlogin;
+
+import com.example.userlogin.entity.UserDO;
+import com.example.userlogin.service.UserNearCache;
+import com.example.userlogin.service.UserNearCache.CachedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用户近端缓存测试
+ *
+ * 覆盖按 id / 用户名命中、改名后旧用户名失效、失效后旧读取结果不会写回、关闭开关、
+ * 并发读库合并及失效后不再加入旧的读取、登录读主库合并但不缓存
+ */
+public class UserNearCacheTest {
+
+    private static CachedUser user(long id, String username) {
+        LocalDateTime now = LocalDateTime.now();
+        return new CachedUser(id, username, username + "@example.com", now, now);
+    }
+
+    @Test
+    public void testLookupAndRenameInvalidation() {
+        UserNearCache cache = new UserNearCache(true, 100, 60_000, new SimpleMeterRegistry());
+        cache.put(user(1, "alice"), cache.stamp());
+
+        assertEquals("alice", cache.getById(1).username());
+        assertEquals(1L, cache.getByUsername("alice").id());
+
+        cache.invalidate(1, "alice", "alice2");
+        assertNull(cache.getById(1));
+        assertNull(cache.getByUsername("alice"));
+    }
+
+    @Test
+    public void testStaleReadIsNotCached() {
+        UserNearCache cache = new UserNearCache(true, 100, 60_000, new SimpleMeterRegistry());
+        // 读库开始后发生更新，读到的旧值不能写回缓存
+        long stamp = cache.stamp();
+        cache.invalidate(1, "alice");
+        cache.put(user(1, "alice"), stamp);
+        assertNull(cache.getById(1));
+
+        cache.put(user(1, "alice"), cache.stamp());
+        assertNotNull(cache.getById(1));
+    }
+
+    @Test
+    public void testDisabled() {
+        UserNearCache cache = new UserNearCache(false, 100, 60_000, new SimpleMeterRegistry());
+        cache.put(user(1, "alice"), cache.stamp());
+        assertNull(cache.getById(1));
+        assertNull(cache.getByUsername("alice"));
+    }
+
+    @Test
+    public void testConcurrentLoadsCollapsed() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UserNearCache cache = new UserNearCache(true, 100, 60_000, registry);
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Optional<CachedUser>>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> cache.loadById(1, () -> {
+                    queries.incrementAndGet();
+                    await(release);
+                    return Optional.of(user(1, "alice"));
+                })));
+            }
+            // 等待全部调用方加入同一次读取
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (registry.get("user.cache.loads.collapsed").tag("cache", "id").functionCounter().count() < 15
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<Optional<CachedUser>> future : futures) {
+                assertEquals("alice", future.get().orElseThrow().username());
+            }
+            assertEquals(1, queries.get());
+            assertEquals(1.0, registry.get("user.cache.loads").tag("cache", "id").functionCounter().count());
+            assertNotNull(cache.getById(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLoadAfterInvalidationNotCollapsed() throws Exception {
+        UserNearCache cache = new UserNearCache(true, 100, 60_000, new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<CachedUser>> stale = executor.submit(() -> cache.loadByUsername("alice", () -> {
+                started.countDown();
+                await(release);
+                return Optional.of(user(1, "alice"));
+            }));
+            started.await();
+            cache.invalidate(1, "alice");
+
+            // 失效之后的读取单独查询，读到新值
+            Optional<CachedUser> fresh = cache.loadByUsername("alice", () -> Optional.of(user(2, "alice")));
+            assertEquals(2L, fresh.orElseThrow().id());
+            release.countDown();
+            assertEquals(1L, stale.get().orElseThrow().id());
+            assertEquals(2L, cache.getByUsername("alice").id());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentLoginLoadsCollapsedButNotCached() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UserNearCache cache = new UserNearCache(true, 100, 60_000, registry);
+        UserDO alice = new UserDO();
+        alice.setId(1L);
+        alice.setUsername("alice");
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Optional<UserDO>>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> cache.loadForLogin("alice", () -> {
+                    queries.incrementAndGet();
+                    await(release);
+                    return Optional.of(alice);
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (registry.get("user.cache.loads.collapsed").tag("cache", "login").functionCounter().count() < 15
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<Optional<UserDO>> future : futures) {
+                assertSame(alice, future.get().orElseThrow());
+            }
+            assertEquals(1, queries.get());
+            assertEquals(1.0, registry.get("user.cache.loads").tag("cache", "login").functionCounter().count());
+            assertEquals(15.0, registry.get("user.cache.loads.collapsed").tag("cache", "login").functionCounter().count());
+
+            // 登录读到的用户不进入缓存，读取结束后的登录重新查询主库
+            assertNull(cache.getByUsername("alice"));
+            assertNull(cache.getById(1));
+            cache.loadForLogin("alice", () -> {
+                queries.incrementAndGet();
+                return Optional.of(alice);
+            });
+            assertEquals(2, queries.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.userlogin;
+
+import com.example.userlogin.entity.UserDO;
+import com.example.userlogin.repository.UserRepository;
+import com.example.userlogin.repository.UserSummary;
+import com.example.userlogin.util.UserConverter;
+import com.example.userlogin.vo.UserVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 列表、搜索的 UserVO 投影测试
+ *
+ * 1. 分页、Slice、按用户名和邮箱搜索返回的 UserVO 各字段与数据库中的行一致，搜索忽略大小写并转义 % 和 _
+ * 2. 游标分页返回 UserSummary 投影（字段同 UserVO），按上一页最后一行的位置继续翻页
+ * 3. 结果序列化后不含密码
+ * 4. 读取一页之后持久化上下文中没有 UserDO（对照：按 id 加载实体后有一个）
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=projection"
+})
+@Transactional
+public class UserProjectionTest {
+
+    private static final String PASSWORD = "$2a$04$projectionPasswordHashShouldNeverLeak";
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 8, 30, 15);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 3, 2, 9, 45, 30);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("insert into users (id, username, password, email, created_at, updated_at)"
+                            + " values (?, ?, ?, ?, ?, ?)",
+                    7000L + i, "proj" + i, PASSWORD, "proj" + i + "@example.com",
+                    Timestamp.valueOf(CREATED.plusDays(i)), Timestamp.valueOf(UPDATED.plusDays(i)));
+        }
+        jdbcTemplate.update("insert into users (id, username, password, email) values (?, ?, ?, ?)",
+                7100L, "proj_under%", PASSWORD, null);
+    }
+
+    @Test
+    public void testProjectedFields() {
+        Pageable firstTwo = PageRequest.of(0, 2, Sort.by("id"));
+
+        Page<UserVO> page = userRepository.findUserPage(firstTwo);
+        assertEquals(6, page.getTotalElements());
+        assertExpected(page.getContent(), 7000L, 7001L);
+
+        Slice<UserVO> slice = userRepository.findUserSlice(firstTwo);
+        assertTrue(slice.hasNext());
+        assertExpected(slice.getContent(), 7000L, 7001L);
+
+        Page<UserVO> byUsername = userRepository.searchByUsername("PROJ3", firstTwo);
+        assertEquals(1, byUsername.getTotalElements());
+        assertExpected(byUsername.getContent(), 7003L);
+        assertExpected(userRepository.searchSliceByUsername("proj3", firstTwo).getContent(), 7003L);
+
+        Page<UserVO> byEmail = userRepository.searchByEmail("PROJ4@EXAMPLE", firstTwo);
+        assertEquals(1, byEmail.getTotalElements());
+        assertExpected(byEmail.getContent(), 7004L);
+        assertExpected(userRepository.searchSliceByEmail("proj4@", firstTwo).getContent(), 7004L);
+
+        // % 和 _ 按字面匹配；空邮箱和时间投影为 null
+        List<UserVO> escaped = userRepository.searchByUsername("_under%", firstTwo).getContent();
+        assertEquals(1, escaped.size());
+        UserVO vo = escaped.get(0);
+        assertEquals(7100L, vo.getId());
+        assertEquals("proj_under%", vo.getUsername());
+        assertNull(vo.getEmail());
+        assertNull(vo.getCreatedAt());
+        assertNull(vo.getUpdatedAt());
+    }
+
+    @Test
+    public void testKeysetWindowProjected() {
+        Window<UserSummary> first = userRepository.findBy(ScrollPosition.keyset(), Sort.by("id"), Limit.of(3));
+        assertTrue(first.hasNext());
+        assertExpected(first.map(UserConverter::toVO).getContent(), 7000L, 7001L, 7002L);
+
+        Window<UserSummary> second = userRepository.findBy(first.positionAt(first.size() - 1), Sort.by("id"),
+                Limit.of(3));
+        List<UserVO> secondPage = second.map(UserConverter::toVO).getContent();
+        assertExpected(secondPage.subList(0, 2), 7003L, 7004L);
+        assertEquals(7100L, secondPage.get(2).getId());
+
+        Window<UserSummary> byUsername = userRepository.findBy(ScrollPosition.keyset(),
+                Sort.by(Sort.Direction.DESC, "username").and(Sort.by(Sort.Direction.DESC, "id")), Limit.of(2));
+        assertEquals(List.of("proj_under%", "proj4"),
+                byUsername.getContent().stream().map(UserSummary::getUsername).toList());
+    }
+
+    @Test
+    public void testPasswordNotExposed() throws Exception {
+        Page<UserVO> page = userRepository.findUserPage(PageRequest.of(0, 10, Sort.by("id")));
+        assertEquals(6, page.getNumberOfElements());
+        String json = objectMapper.writeValueAsString(page.getContent());
+        assertFalse(json.contains("password"), json);
+        assertFalse(json.contains(PASSWORD), json);
+    }
+
+    @Test
+    public void testPageReadLeavesNoManagedEntities() {
+        entityManager.clear();
+
+        userRepository.findUserPage(PageRequest.of(0, 10, Sort.by("id")));
+        userRepository.findUserSlice(PageRequest.of(0, 10, Sort.by("id")));
+        userRepository.searchByUsername("proj", PageRequest.of(0, 10));
+        userRepository.searchSliceByEmail("example", PageRequest.of(0, 10));
+        userRepository.findBy(ScrollPosition.keyset(), Sort.by("id"), Limit.of(10));
+        assertEquals(0, managedEntityCount());
+
+        // 对照：加载实体后持久化上下文中有一个 UserDO
+        UserDO loaded = userRepository.findById(7000L).orElseThrow();
+        assertTrue(entityManager.contains(loaded));
+        assertEquals(1, managedEntityCount());
+    }
+
+    private int managedEntityCount() {
+        return entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities();
+    }
+
+    private static void assertExpected(List<UserVO> users, long... ids) {
+        assertEquals(ids.length, users.size());
+        for (int i = 0; i < ids.length; i++) {
+            UserVO vo = users.get(i);
+            int n = (int) (ids[i] - 7000L);
+            assertEquals(ids[i], vo.getId());
+            assertEquals("proj" + n, vo.getUsername());
+            assertEquals("proj" + n + "@example.com", vo.getEmail());
+            assertEquals(CREATED.plusDays(n), vo.getCreatedAt());
+            assertEquals(UPDATED.plusDays(n), vo.getUpdatedAt());
+        }
+    }
+}
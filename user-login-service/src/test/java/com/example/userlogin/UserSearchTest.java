@@ -0,0 +1,77 @@
+package com.example.userlogin;
+
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.dto.UserUpdateDTO;
+import com.example.userlogin.index.UserSearchIndex;
+import com.example.userlogin.service.UserService;
+import com.example.userlogin.vo.UserVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 子串搜索索引测试（开启 user.search-index）
+ *
+ * 1. 查询串只有一个 trigram 时直接使用索引结果
+ * 2. 更长的查询串中不连续匹配的候选被数据库条件过滤掉，总数只计真正匹配的
+ * 3. 改名、删除后索引随事务提交更新
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=search",
+        "user.search-index.enabled=true"
+})
+public class UserSearchTest {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by("id"));
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Test
+    public void testSearchFiltersCandidates() {
+        assertTrue(userSearchIndex.isReady());
+        long exact = create("qwerty1").getId();
+        long scattered = create("qwexwer2").getId();
+        create("other3");
+
+        // "qwer" 的 trigram qwe、wer 在 qwexwer2 中都出现但不连续
+        assertEquals(2, userSearchIndex.findByUsername("qwer").ids().length);
+        Page<UserVO> page = userService.searchUsersByUsername("QWER", PAGE);
+        assertEquals(1, page.getTotalElements());
+        assertEquals(exact, page.getContent().get(0).getId());
+
+        Page<UserVO> gram = userService.searchUsersByUsername("qwe", PAGE);
+        assertEquals(List.of(exact, scattered), gram.map(UserVO::getId).getContent());
+
+        assertEquals(1, userService.searchUsersByEmail("qwerty1@", PAGE).getTotalElements());
+    }
+
+    @Test
+    public void testIndexFollowsUpdates() {
+        long id = create("zxcvb").getId();
+        assertEquals(1, userService.searchUsersByUsername("zxc", PAGE).getTotalElements());
+
+        userService.updateUser(id, new UserUpdateDTO("mnbvc", null, null));
+        assertEquals(0, userService.searchUsersByUsername("zxc", PAGE).getTotalElements());
+        assertEquals(1, userService.searchUsersByUsername("mnbv", PAGE).getTotalElements());
+
+        userService.deleteUser(id);
+        assertEquals(0, userService.searchUsersByUsername("mnb", PAGE).getTotalElements());
+    }
+
+    private UserVO create(String username) {
+        return userService.createUser(new UserRegisterDTO(username, "secret123", username + "@example.com"));
+    }
+}
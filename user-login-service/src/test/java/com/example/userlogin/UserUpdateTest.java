@@ -0,0 +1,87 @@
+package com.example.userlogin;
+
+import com.example.userlogin.dto.UserLoginDTO;
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.dto.UserUpdateDTO;
+import com.example.userlogin.service.PasswordHasher;
+import com.example.userlogin.service.UserService;
+import com.example.userlogin.vo.UserVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用户更新测试
+ *
+ * 1. 新密码生效、旧密码失效，改名后按新用户名可查到、按旧用户名查不到（缓存已失效）
+ * 2. 只更新部分字段时，其他字段保留数据库中的最新值（更新前先在同一事务中读取主库）
+ * 3. 用户不存在时抛出异常，不写库
+ * 4. 登录不使用近端缓存：其他实例直接改库后，缓存仍在有效期内时旧密码也立即失效
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=update"
+})
+public class UserUpdateTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Test
+    public void testUpdatePasswordAndUsername() {
+        UserVO user = userService.createUser(new UserRegisterDTO("update1", "secret123", "update1@example.com"));
+        assertTrue(userService.getUserByUsername("update1").isPresent());
+
+        userService.updateUser(user.getId(), new UserUpdateDTO("update1b", "newsecret", null));
+
+        assertTrue(userService.getUserByUsername("update1").isEmpty());
+        assertEquals(user.getId(), userService.getUserByUsername("update1b").orElseThrow().getId());
+        assertTrue(userService.login(new UserLoginDTO("update1b", "newsecret")).isPresent());
+        assertTrue(userService.login(new UserLoginDTO("update1b", "secret123")).isEmpty());
+    }
+
+    @Test
+    public void testPartialUpdateKeepsLatestColumns() {
+        UserVO user = userService.createUser(new UserRegisterDTO("update2", "secret123", "update2@example.com"));
+        // 其他途径已提交的修改
+        jdbcTemplate.update("update users set email = ? where id = ?", "changed2@example.com", user.getId());
+
+        UserVO updated = userService.updateUser(user.getId(), new UserUpdateDTO("update2b", null, null));
+
+        assertEquals("changed2@example.com", updated.getEmail());
+        assertEquals("changed2@example.com",
+                jdbcTemplate.queryForObject("select email from users where id = ?", String.class, user.getId()));
+    }
+
+    @Test
+    public void testUpdateMissingUser() {
+        assertThrows(RuntimeException.class,
+                () -> userService.updateUser(-1, new UserUpdateDTO("nobody", "newsecret", null)));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from users where username = 'nobody'", Integer.class));
+    }
+
+    @Test
+    public void testLoginIgnoresCachedPassword() {
+        UserVO user = userService.createUser(new UserRegisterDTO("update3", "secret123", "update3@example.com"));
+        assertTrue(userService.login(new UserLoginDTO("update3", "secret123")).isPresent());
+        assertTrue(userService.getUserByUsername("update3").isPresent());
+
+        // 模拟另一实例修改密码：本实例的近端缓存没有收到失效
+        jdbcTemplate.update("update users set password = ? where id = ?",
+                passwordHasher.hash("newsecret"), user.getId());
+
+        assertTrue(userService.login(new UserLoginDTO("update3", "secret123")).isEmpty());
+        assertTrue(userService.login(new UserLoginDTO("update3", "newsecret")).isPresent());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.userlogin;
+
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.index.RadixTrie;
+import com.example.userlogin.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用户名补全回退测试（关闭前缀树，走数据库查询）
+ *
+ * 与前缀树相同：忽略大小写匹配，按小写用户名的字符编码排序（'2' 在 '_' 之前）；前缀中的 % 和 _ 按字面匹配。
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=suggest",
+        "user.suggest.enabled=false"
+})
+public class UsernameSuggestFallbackTest {
+
+    private static final List<String> USERNAMES = List.of("Alice", "alBert", "ALAN_1", "alan21", "bob", "al%x");
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    public void testFallbackMatchesTrie() {
+        RadixTrie trie = new RadixTrie();
+        for (String username : USERNAMES) {
+            userService.createUser(new UserRegisterDTO(username, "secret123", null));
+            trie.add(username);
+        }
+        for (String prefix : List.of("al", "AL", "Ala", "alan_", "al%", "b", "x", "")) {
+            assertEquals(trie.findByPrefix(prefix, 10), userService.suggestUsernames(prefix, 10), prefix);
+        }
+        assertEquals(List.of("alan21", "ALAN_1"), userService.suggestUsernames("aLaN", 10));
+        assertEquals(List.of("ALAN_1"), userService.suggestUsernames("alan_", 10));
+        assertEquals(2, userService.suggestUsernames("a", 2).size());
+    }
+}
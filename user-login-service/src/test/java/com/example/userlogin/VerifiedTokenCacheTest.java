@@ -0,0 +1,91 @@
+package com.example.userlogin;
+
+import com.example.userlogin.util.JwtUtil;
+import com.example.userlogin.util.VerifiedToken;
+import com.example.userlogin.util.VerifiedTokenCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 已校验 token 缓存测试
+ *
+ * 1. 缓存项在 token 过期时间或缓存 TTL（取较早者）后失效，过期 token 不会从缓存返回
+ * 2. 校验失败的 token（签名错误、已过期）不写入缓存，篡改后的 token 不会命中原 token 的缓存
+ * 3. 条目数不超过 max-size
+ * 4. 关闭时不缓存
+ */
+public class VerifiedTokenCacheTest {
+
+    private static final String SECRET =
+            "user-login-secret-key-min-256-bits-for-hs256-please-change-in-production-environment";
+
+    @Test
+    public void testExpiresWithToken() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 300_000, now::get);
+        cache.put("short", new VerifiedToken(1L, now.get() + 1_000, 11));
+        cache.put("long", new VerifiedToken(2L, now.get() + 3_600_000, 12));
+
+        now.addAndGet(999);
+        assertEquals(1L, cache.get("short").userId());
+        now.addAndGet(1);
+        assertNull(cache.get("short"));
+
+        // token 仍有效，但超过缓存 TTL 后需要重新校验
+        assertEquals(2L, cache.get("long").userId());
+        now.addAndGet(300_000);
+        assertNull(cache.get("long"));
+
+        // 写入时已过期的 token 不缓存
+        cache.put("expired", new VerifiedToken(3L, now.get(), 13));
+        assertNull(cache.get("expired"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidTokenNeverCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 300_000);
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000);
+        String token = jwtUtil.generateToken(7L, "alice");
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+        String expired = new JwtUtil(SECRET, -1_000).generateToken(7L, "alice");
+        String forged = new JwtUtil(SECRET + "-other", 60_000).generateToken(7L, "alice");
+
+        // 与 JwtAuthFilter 相同：未命中时校验，结果写入缓存
+        for (String candidate : new String[]{tampered, expired, forged, "not-a-jwt"}) {
+            assertNull(cache.get(candidate));
+            cache.put(candidate, jwtUtil.verifyToken(candidate));
+            assertNull(cache.get(candidate), candidate);
+        }
+        assertEquals(0, cache.size());
+
+        cache.put(token, jwtUtil.verifyToken(token));
+        assertEquals(7L, cache.get(token).userId());
+        assertNull(cache.get(tampered));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testMaxSize() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 50, 300_000, now::get);
+        for (int i = 0; i < 500; i++) {
+            cache.put("token-" + i, new VerifiedToken((long) i, now.get() + 60_000, i));
+            assertTrue(cache.size() <= 50);
+        }
+        assertTrue(cache.getEvictionCount() >= 450);
+        assertEquals(499L, cache.get("token-499").userId());
+    }
+
+    @Test
+    public void testDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 100, 300_000);
+        cache.put("token", new VerifiedToken(1L, System.currentTimeMillis() + 60_000, 1));
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.userlogin;
+
+import com.example.userlogin.dto.UserRegisterDTO;
+import com.example.userlogin.service.UserService;
+import jakarta.servlet.http.Cookie;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 虚拟线程 pinning 检测
+ *
+ * 用 JFR 的 jdk.VirtualThreadPinned 事件（阈值 0）记录虚拟线程在 synchronized 内阻塞的情况，
+ * 在大量虚拟线程上并发执行登录、token 校验、按 id 查询和搜索，连接池调小以制造等待。
+ * 除故意制造的自检事件外，任何 pinning 都视为失败并打印栈，包括经过测试库 H2 的事件：
+ * H2 2.2 的会话锁不使用 synchronized，在该负载下不产生 pinning，不做豁免，
+ * 以免应用代码在 synchronized 块内调用仓储层时被当作 H2 的事件漏掉。
+ * 栈深度由 surefire 的 -XX:FlightRecorderOptions:stackdepth 调大，被截断的栈同样视为失败。
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.name=pinning",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.threads.virtual.enabled=true",
+        "user.password.queue-capacity=2000",
+        "user.password.timeout-ms=60000",
+        "user.rate-limit.enabled=false",
+        "logging.level.com.example.userlogin=INFO"
+})
+@AutoConfigureMockMvc
+public class VirtualThreadPinningTest {
+
+    private static final int USERS = 20;
+    private static final int TASKS = 2000;
+    private static final Object LOCK = new Object();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${jwt.cookie-name}")
+    private String cookieName;
+
+    @Test
+    public void testHotPathsDoNotPinCarrierThreads() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            ids.add(userService.createUser(new UserRegisterDTO("pin" + i, "secret123", "pin" + i + "@example.com")).getId());
+        }
+        Cookie cookie = login("pin0");
+
+        List<RecordedEvent> pinned;
+        // 与 JfrEventsTest 相同，录制结束后转储到文件再读取，避免 RecordingStream 停止时漏掉刚提交的事件
+        Path dump = Files.createTempFile("jfr-pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                // 检测器自检：故意在 synchronized 内阻塞，必须被记录
+                executor.submit(VirtualThreadPinningTest::pinOnPurpose).get();
+
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < TASKS; i++) {
+                    int n = i;
+                    futures.add(executor.submit(() -> {
+                        switch (n % 4) {
+                            case 0 -> login("pin" + (n % USERS));
+                            case 1 -> mockMvc.perform(get("/api/users/" + ids.get(n % USERS)).cookie(cookie))
+                                    .andReturn();
+                            case 2 -> mockMvc.perform(get("/api/users/search/username")
+                                    .param("username", "pin1").cookie(cookie)).andReturn();
+                            default -> mockMvc.perform(get("/api/users").param("size", "5").cookie(cookie))
+                                    .andReturn();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            recording.stop();
+            recording.dump(dump);
+            pinned = RecordingFile.readAllEvents(dump).stream()
+                    .filter(event -> "jdk.VirtualThreadPinned".equals(event.getEventType().getName()))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+
+        assertTrue(pinned.stream().anyMatch(VirtualThreadPinningTest::isOnPurpose),
+                "JFR 未记录到故意制造的 pinning，检测器未生效");
+        List<String> truncated = pinned.stream()
+                .filter(event -> event.getStackTrace() == null || event.getStackTrace().isTruncated())
+                .map(VirtualThreadPinningTest::describe)
+                .toList();
+        assertTrue(truncated.isEmpty(), "pinning 事件的栈被截断，无法判断持有监视器的代码:\n"
+                + String.join("\n\n", truncated));
+        List<String> offending = pinned.stream()
+                .filter(event -> !isOnPurpose(event))
+                .map(VirtualThreadPinningTest::describe)
+                .toList();
+        assertTrue(offending.isEmpty(), "虚拟线程 pinning:\n" + String.join("\n\n", offending));
+    }
+
+    private static Void pinOnPurpose() throws InterruptedException {
+        synchronized (LOCK) {
+            Thread.sleep(20);
+        }
+        return null;
+    }
+
+    private Cookie login(String username) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"secret123\"}"))
+                .andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        return result.getResponse().getCookie(cookieName);
+    }
+
+    /**
+     * 自检事件：自顶向下第一个 JDK 以外的帧是 pinOnPurpose
+     */
+    private static boolean isOnPurpose(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return false;
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (frame.isJavaFrame() && !type.startsWith("java.") && !type.startsWith("jdk.")
+                    && !type.startsWith("sun.")) {
+                return type.equals(VirtualThreadPinningTest.class.getName())
+                        && frame.getMethod().getName().equals("pinOnPurpose");
+            }
+        }
+        return false;
+    }
+
+    private static String describe(RecordedEvent event) {
+        StringBuilder sb = new StringBuilder("pinned ").append(event.getDuration().toNanos() / 1000).append("us");
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                sb.append("\n    at ").append(frame.getMethod().getType().getName())
+                        .append('.').append(frame.getMethod().getName())
+                        .append(':').append(frame.getLineNumber());
+            }
+        }
+        return sb.toString();
+    }
+}
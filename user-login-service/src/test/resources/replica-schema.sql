@@ -0,0 +1,11 @@
+-- 读写分离测试的从库表结构（与 UserDO 对应），replica_lag 模拟从库延迟
+create table if not exists users (
+    id bigint primary key,
+    username varchar(50) not null unique,
+    password varchar(255) not null,
+    email varchar(100) unique,
+    created_at timestamp,
+    updated_at timestamp,
+    last_login_at timestamp
+);
+create table if not exists replica_lag (seconds int);